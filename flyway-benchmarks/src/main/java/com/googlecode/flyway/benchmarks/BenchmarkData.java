@@ -0,0 +1,119 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.api.MigrationType;
+import com.googlecode.flyway.core.api.MigrationVersion;
+import com.googlecode.flyway.core.metadatatable.AppliedMigration;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Synthetic data shared by the benchmarks.
+ */
+final class BenchmarkData {
+    /**
+     * Prevents instantiation.
+     */
+    private BenchmarkData() {
+        // Do nothing
+    }
+
+    /**
+     * Generates a sql script using only syntax all databases understand: ddl, multi-line inserts with quoted strings
+     * and both kinds of comments.
+     *
+     * @param statementCount The number of statements to generate.
+     * @param placeholders   Whether to reference the ${schema} and ${table} placeholders in every statement.
+     * @return The script.
+     */
+    static String sqlScript(int statementCount, boolean placeholders) {
+        String table = placeholders ? "${schema}.${table}" : "benchmark_table";
+
+        StringBuilder script = new StringBuilder();
+        script.append("-- Synthetic benchmark script\n");
+        script.append("CREATE TABLE ").append(table).append(" (\n");
+        script.append("  id INT NOT NULL, /* the key */\n");
+        script.append("  name VARCHAR(100) NOT NULL\n");
+        script.append(");\n\n");
+        for (int i = 1; i < statementCount; i++) {
+            if (i % 10 == 0) {
+                script.append("/*\n * Block comment before statement ").append(i).append("\n */\n");
+            } else {
+                script.append("-- Line comment before statement ").append(i).append("\n");
+            }
+            script.append("INSERT INTO ").append(table).append(" (id, name)\n");
+            script.append("  VALUES (").append(i).append(", 'Name ''").append(i).append("'' -- not a comment');\n");
+        }
+        return script.toString();
+    }
+
+    /**
+     * Generates distinct versions in increasing order.
+     *
+     * @param count The number of versions to generate.
+     * @return The versions, as strings.
+     */
+    static String[] versions(int count) {
+        String[] versions = new String[count];
+        for (int i = 0; i < count; i++) {
+            versions[i] = (i / 100 + 1) + "." + (i / 10 % 10) + "." + (i % 10);
+        }
+        return versions;
+    }
+
+    /**
+     * Generates sql migrations in increasing version order.
+     *
+     * @param count The number of migrations to generate.
+     * @return The migrations.
+     */
+    static List<ResolvedMigration> resolvedMigrations(int count) {
+        List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>(count);
+        for (String version : versions(count)) {
+            ResolvedMigration migration = new ResolvedMigration();
+            migration.setVersion(new MigrationVersion(version));
+            migration.setDescription("Migration " + version);
+            migration.setScript("V" + version.replace('.', '_') + "__Migration.sql");
+            migration.setChecksum(version.hashCode());
+            migration.setType(MigrationType.SQL);
+            migrations.add(migration);
+        }
+        return migrations;
+    }
+
+    /**
+     * Generates the rows of the metadata table for these migrations, as if they had all been applied successfully.
+     *
+     * @param migrations The migrations.
+     * @return The rows of the metadata table.
+     */
+    static List<AppliedMigration> appliedMigrations(List<ResolvedMigration> migrations) {
+        List<AppliedMigration> appliedMigrations = new ArrayList<AppliedMigration>(migrations.size());
+        Date installedOn = new Date();
+        int rank = 1;
+        for (ResolvedMigration migration : migrations) {
+            appliedMigrations.add(new AppliedMigration(rank, rank, migration.getVersion(), migration.getDescription(),
+                    migration.getType(), migration.getScript(), migration.getChecksum(), installedOn, "benchmark",
+                    1, true));
+            rank++;
+        }
+        return appliedMigrations;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Scanning of a jar file on the classpath for migrations. Half of the entries of the jar are sql migrations, the
+ * other half are unrelated resources in another package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassPathScannerBenchmark {
+    /**
+     * The number of entries in the jar file.
+     */
+    @Param({"1000", "10000"})
+    public int entryCount;
+
+    /**
+     * The jar file with the migrations.
+     */
+    private File jarFile;
+
+    /**
+     * The classloader with the jar file on its classpath.
+     */
+    private URLClassLoader classLoader;
+
+    @Setup
+    public void setUp() throws IOException {
+        jarFile = File.createTempFile("flyway-benchmark", ".jar");
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            for (String directory : new String[]{"db/", "db/migration/", "com/", "com/example/", "com/example/resources/"}) {
+                jarOutputStream.putNextEntry(new ZipEntry(directory));
+                jarOutputStream.closeEntry();
+            }
+            for (int i = 0; i < entryCount; i++) {
+                String name = (i % 2 == 0)
+                        ? "db/migration/V" + i + "__Migration.sql"
+                        : "com/example/resources/Resource" + i + ".txt";
+                jarOutputStream.putNextEntry(new ZipEntry(name));
+                jarOutputStream.write(("-- " + name).getBytes("UTF-8"));
+                jarOutputStream.closeEntry();
+            }
+        } finally {
+            jarOutputStream.close();
+        }
+
+        classLoader = new URLClassLoader(new URL[]{jarFile.toURI().toURL()}, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        if (!jarFile.delete()) {
+            jarFile.deleteOnExit();
+        }
+    }
+
+    /**
+     * Scans with a new scanner every time, as a fresh Flyway instance would.
+     */
+    @Benchmark
+    public Resource[] scan() throws IOException {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return new ClassPathScanner().scanForResources("db/migration", "V", ".sql");
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+}
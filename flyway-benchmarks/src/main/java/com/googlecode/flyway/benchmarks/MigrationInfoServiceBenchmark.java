@@ -0,0 +1,146 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.api.MigrationInfo;
+import com.googlecode.flyway.core.api.MigrationVersion;
+import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.info.MigrationInfoServiceImpl;
+import com.googlecode.flyway.core.metadatatable.AppliedMigration;
+import com.googlecode.flyway.core.metadatatable.MetaDataTable;
+import com.googlecode.flyway.core.resolver.MigrationResolver;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging of the available migrations with the applied ones. The resolver and the metadata table are served from
+ * memory, so only the merge itself is measured. All migrations but the last tenth have been applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MigrationInfoServiceBenchmark {
+    /**
+     * The number of available migrations.
+     */
+    @Param({"1000", "10000"})
+    public int migrationCount;
+
+    /**
+     * The service to benchmark.
+     */
+    private MigrationInfoServiceImpl migrationInfoService;
+
+    @Setup
+    public void setUp() {
+        final List<ResolvedMigration> resolvedMigrations = BenchmarkData.resolvedMigrations(migrationCount);
+        List<AppliedMigration> appliedMigrations =
+                BenchmarkData.appliedMigrations(resolvedMigrations.subList(0, migrationCount - migrationCount / 10));
+
+        MigrationResolver migrationResolver = new MigrationResolver() {
+            public List<ResolvedMigration> resolveMigrations() {
+                return resolvedMigrations;
+            }
+        };
+        migrationInfoService = new MigrationInfoServiceImpl(migrationResolver,
+                new InMemoryMetaDataTable(appliedMigrations), MigrationVersion.LATEST, false);
+    }
+
+    @Benchmark
+    public MigrationInfo[] refresh() {
+        migrationInfoService.refresh();
+        return migrationInfoService.all();
+    }
+
+    /**
+     * Read-only metadata table holding a fixed list of applied migrations.
+     */
+    private static class InMemoryMetaDataTable implements MetaDataTable {
+        /**
+         * The applied migrations.
+         */
+        private final List<AppliedMigration> appliedMigrations;
+
+        /**
+         * Creates a new in-memory metadata table.
+         *
+         * @param appliedMigrations The applied migrations.
+         */
+        InMemoryMetaDataTable(List<AppliedMigration> appliedMigrations) {
+            this.appliedMigrations = appliedMigrations;
+        }
+
+        public void lock() {
+            // Nothing to lock
+        }
+
+        public void addAppliedMigration(AppliedMigration appliedMigration) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasAppliedMigrations() {
+            return !appliedMigrations.isEmpty();
+        }
+
+        public List<AppliedMigration> allAppliedMigrations() {
+            return appliedMigrations;
+        }
+
+        public boolean isUpToDate(List<ResolvedMigration> migrations) {
+            return false;
+        }
+
+        public void addInitMarker(MigrationVersion initVersion, String initDescription) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasInitMarker() {
+            return false;
+        }
+
+        public AppliedMigration getInitMarker() {
+            return null;
+        }
+
+        public void repair() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void addSchemasMarker(Schema[] schemas) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasSchemasMarker() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.api.MigrationVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, interning, hashing, comparing and sorting of migration versions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MigrationVersionBenchmark {
+    /**
+     * The number of versions.
+     */
+    @Param({"50000"})
+    public int versionCount;
+
+    /**
+     * The versions, as strings.
+     */
+    private String[] versionStrings;
+
+    /**
+     * The parsed versions, in increasing order.
+     */
+    private MigrationVersion[] versions;
+
+    /**
+     * The parsed versions, shuffled.
+     */
+    private MigrationVersion[] shuffledVersions;
+
+    @Setup
+    public void setUp() {
+        versionStrings = BenchmarkData.versions(versionCount);
+
+        versions = new MigrationVersion[versionCount];
+        for (int i = 0; i < versionCount; i++) {
+            versions[i] = new MigrationVersion(versionStrings[i]);
+        }
+
+        List<MigrationVersion> shuffled = Arrays.asList(versions.clone());
+        Collections.shuffle(shuffled, new Random(42));
+        shuffledVersions = shuffled.toArray(new MigrationVersion[versionCount]);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String versionString : versionStrings) {
+            blackhole.consume(new MigrationVersion(versionString));
+        }
+    }
+
+    @Benchmark
+    public void fromVersion(Blackhole blackhole) {
+        for (String versionString : versionStrings) {
+            blackhole.consume(MigrationVersion.fromVersion(versionString));
+        }
+    }
+
+    @Benchmark
+    public void hash(Blackhole blackhole) {
+        for (MigrationVersion version : versions) {
+            blackhole.consume(version.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void compare(Blackhole blackhole) {
+        for (int i = 1; i < versions.length; i++) {
+            blackhole.consume(versions[i - 1].compareTo(versions[i]));
+        }
+    }
+
+    @Benchmark
+    public MigrationVersion[] sort() {
+        MigrationVersion[] sorted = shuffledVersions.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replacement of placeholders in sql scripts, both on whole strings and line by line while streaming.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderReplacerBenchmark {
+    /**
+     * The number of statements in the script.
+     */
+    @Param({"1000"})
+    public int statementCount;
+
+    /**
+     * The replacer to benchmark.
+     */
+    private PlaceholderReplacer placeholderReplacer;
+
+    /**
+     * The script, referencing a placeholder in every statement.
+     */
+    private String source;
+
+    /**
+     * The lines of the script, replaced one at a time like while streaming a sql migration.
+     */
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("schema", "benchmark_schema");
+        placeholders.put("table", "benchmark_table");
+        placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+        source = BenchmarkData.sqlScript(statementCount, true);
+        lines = source.split("\n");
+    }
+
+    @Benchmark
+    public String replaceString() {
+        return placeholderReplacer.replacePlaceholders(source);
+    }
+
+    @Benchmark
+    public void replaceLines(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(placeholderReplacer.replacePlaceholders(line));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.benchmarks;
+
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.SqlScript;
+import com.googlecode.flyway.core.dbsupport.db2.DB2DbSupport;
+import com.googlecode.flyway.core.dbsupport.derby.DerbyDbSupport;
+import com.googlecode.flyway.core.dbsupport.h2.H2DbSupport;
+import com.googlecode.flyway.core.dbsupport.hsql.HsqlDbSupport;
+import com.googlecode.flyway.core.dbsupport.mysql.MySQLDbSupport;
+import com.googlecode.flyway.core.dbsupport.oracle.OracleDbSupport;
+import com.googlecode.flyway.core.dbsupport.postgresql.PostgreSQLDbSupport;
+import com.googlecode.flyway.core.dbsupport.sqlserver.SQLServerDbSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting of sql scripts into statements, for every database dialect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlScriptBenchmark {
+    /**
+     * The database dialect to parse the script with.
+     */
+    @Param({"db2", "derby", "h2", "hsql", "mysql", "oracle", "postgresql", "sqlserver"})
+    public String dialect;
+
+    /**
+     * The number of statements in the script.
+     */
+    @Param({"1000"})
+    public int statementCount;
+
+    /**
+     * The database-specific support for the dialect.
+     */
+    private DbSupport dbSupport;
+
+    /**
+     * The source of the script.
+     */
+    private String source;
+
+    @Setup
+    public void setUp() {
+        dbSupport = createDbSupport(dialect);
+        source = BenchmarkData.sqlScript(statementCount, false);
+        if ("sqlserver".equals(dialect)) {
+            // SQL Server statements are delimited by GO on a line of its own
+            source = source.replace(";\n", "\nGO\n");
+        }
+    }
+
+    @Benchmark
+    public List<?> parse() {
+        return new SqlScript(source, dbSupport).getSqlStatements();
+    }
+
+    /**
+     * Creates the database-specific support for this dialect. No connection is needed for parsing.
+     *
+     * @param dialect The dialect.
+     * @return The database-specific support.
+     */
+    private static DbSupport createDbSupport(String dialect) {
+        if ("db2".equals(dialect)) {
+            return new DB2DbSupport(null);
+        }
+        if ("derby".equals(dialect)) {
+            return new DerbyDbSupport(null);
+        }
+        if ("h2".equals(dialect)) {
+            return new H2DbSupport(null);
+        }
+        if ("hsql".equals(dialect)) {
+            return new HsqlDbSupport(null);
+        }
+        if ("mysql".equals(dialect)) {
+            return new MySQLDbSupport(null);
+        }
+        if ("oracle".equals(dialect)) {
+            return new OracleDbSupport(null);
+        }
+        if ("postgresql".equals(dialect)) {
+            return new PostgreSQLDbSupport(null);
+        }
+        if ("sqlserver".equals(dialect)) {
+            return new SQLServerDbSupport(null);
+        }
+        throw new IllegalArgumentException("Unknown dialect: " + dialect);
+    }
+}
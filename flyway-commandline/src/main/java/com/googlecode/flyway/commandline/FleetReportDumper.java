@@ -0,0 +1,68 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.commandline;
+
+import com.googlecode.flyway.core.FleetReport;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.TimeFormat;
+
+/**
+ * Dumps the results of a fleet operation in an ascii-art table on the console.
+ */
+public class FleetReportDumper {
+    /**
+     * The minimum width (in chars) of the console we want to print the ascii table on.
+     */
+    private static final int MINIMUM_CONSOLE_WIDTH = 80;
+
+    /**
+     * Prevent instantiation.
+     */
+    private FleetReportDumper() {
+        // Do nothing
+    }
+
+    /**
+     * Dumps the result of every target of the fleet into an ascii table.
+     *
+     * @param report       The report of the fleet operation.
+     * @param consoleWidth The width of the console (80 or greater).
+     * @return The ascii table, as one big multi-line string.
+     */
+    public static String dumpToAsciiTable(FleetReport report, int consoleWidth) {
+        int targetWidth = Math.max(consoleWidth, MINIMUM_CONSOLE_WIDTH) - 42;
+
+        StringBuilder table = new StringBuilder();
+
+        table.append("+-").append(StringUtils.trimOrPad("", targetWidth, '-')).append("-+---------+------------+-------------+\n");
+        table.append("| ").append(StringUtils.trimOrPad("Target", targetWidth)).append(" | Status  | Migrations | Time        |\n");
+        table.append("+-").append(StringUtils.trimOrPad("", targetWidth, '-')).append("-+---------+------------+-------------+\n");
+
+        for (FleetReport.TenantResult tenantResult : report.getTenantResults()) {
+            table.append("| ").append(StringUtils.trimOrPad(tenantResult.getTenant(), targetWidth));
+            table.append(" | ").append(StringUtils.trimOrPad(tenantResult.isSuccess() ? "Success" : "Failed", 7));
+            table.append(" | ").append(StringUtils.trimOrPad(Integer.toString(tenantResult.getMigrationCount()), 10));
+            table.append(" | ").append(StringUtils.trimOrPad(TimeFormat.format(tenantResult.getExecutionTime()), 11));
+            table.append(" |\n");
+        }
+
+        table.append("+-").append(StringUtils.trimOrPad("", targetWidth, '-')).append("-+---------+------------+-------------+\n");
+        table.append(String.format("%d targets, %d failed, %d migrations applied (execution time %s)",
+                report.getTenantResults().size(), report.getFailures().size(), report.getMigrationCount(),
+                TimeFormat.format(report.getExecutionTime())));
+        return table.toString();
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.googlecode.flyway.commandline;
 
+import com.googlecode.flyway.core.FleetReport;
 import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.FlywayFleet;
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.api.MigrationInfo;
 import com.googlecode.flyway.core.info.MigrationInfoDumper;
@@ -24,9 +26,12 @@ import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.ExceptionUtils;
 import com.googlecode.flyway.core.util.FileCopyUtils;
 import com.googlecode.flyway.core.util.PropertiesUtils;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
@@ -35,6 +40,10 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -43,6 +52,20 @@ import java.util.Properties;
 public class Main {
     private static Log LOG;
 
+    /**
+     * The operations supported by the command-line tool.
+     */
+    private static final List<String> OPERATIONS = Arrays.asList(
+            "clean", "init", "migrate", "validate", "status", "history", "info", "repair", "reset");
+
+    /**
+     * The properties describing the dataSource, which are left to the command-line tool when running against a fleet
+     * of databases.
+     */
+    private static final List<String> DATA_SOURCE_PROPERTIES = Arrays.asList(
+            "flyway.driver", "flyway.url", "flyway.user", "flyway.password", "flyway.poolSize",
+            "flyway.urls", "flyway.urlsFile");
+
     /**
      * Initializes the logging.
      *
@@ -78,12 +101,24 @@ public class Main {
 
             loadJdbcDriversAndJavaMigrations(properties);
 
+            List<String> urls = determineUrls(properties);
+
             Flyway flyway = new Flyway();
-            flyway.configure(properties);
+            flyway.configure(urls.isEmpty() ? properties : withoutDataSourceProperties(properties));
 
             int consoleWidth = PropertiesUtils.getIntProperty(properties, "flyway.consoleWidth", 80);
 
-            executeOperation(flyway, operation, consoleWidth);
+            try {
+                if (urls.isEmpty()) {
+                    executeOperation(flyway, operation, consoleWidth, null);
+                } else {
+                    executeOperationOnFleet(flyway, urls, properties, operation, consoleWidth);
+                }
+            } finally {
+                if (flyway.getDataSource() instanceof DriverDataSource) {
+                    ((DriverDataSource) flyway.getDataSource()).close();
+                }
+            }
         } catch (Exception e) {
             if (debug) {
                 LOG.error("Unexpected error", e);
@@ -100,17 +135,22 @@ public class Main {
     /**
      * Executes this operation on this Flyway instance.
      *
-     * @param flyway    The Flyway instance.
-     * @param operation The operation to execute.
+     * @param flyway       The Flyway instance.
+     * @param operation    The operation to execute.
      * @param consoleWidth The width of the console (in chars).
+     * @param target       The target the operation is executed on, used as title of the tables it prints. {@code null}
+     *                     when not running against a fleet of targets.
+     * @return The number of migrations applied by the operation.
      */
-    private static void executeOperation(Flyway flyway, String operation, int consoleWidth) {
+    private static int executeOperation(Flyway flyway, String operation, int consoleWidth, String target) {
+        String title = target == null ? "\n" : "\n" + target + "\n";
+
         if ("clean".equals(operation)) {
             flyway.clean();
         } else if ("init".equals(operation)) {
             flyway.init();
         } else if ("migrate".equals(operation)) {
-            flyway.migrate();
+            return flyway.migrate();
         } else if ("validate".equals(operation)) {
             flyway.validate();
         } else if ("status".equals(operation)) {
@@ -118,20 +158,76 @@ public class Main {
             MigrationInfo current = flyway.info().current();
 
             if (current == null) {
-                LOG.info("\n" + MigrationInfoDumper.dumpToAsciiTable(new MigrationInfo[0], consoleWidth));
+                LOG.info(title + MigrationInfoDumper.dumpToAsciiTable(new MigrationInfo[0], consoleWidth));
             } else {
-                LOG.info("\n" + MigrationInfoDumper.dumpToAsciiTable(new MigrationInfo[]{current}, consoleWidth));
+                LOG.info(title + MigrationInfoDumper.dumpToAsciiTable(new MigrationInfo[]{current}, consoleWidth));
             }
         } else if ("history".equals(operation)) {
             LOG.warn("history is deprecated. Use info instead.");
-            LOG.info("\n" + MigrationInfoDumper.dumpToAsciiTable(flyway.info().applied(), consoleWidth));
+            LOG.info(title + MigrationInfoDumper.dumpToAsciiTable(flyway.info().applied(), consoleWidth));
         } else if ("info".equals(operation)) {
-            LOG.info("\n" + MigrationInfoDumper.dumpToAsciiTable(flyway.info().all(), consoleWidth));
+            LOG.info(title + MigrationInfoDumper.dumpToAsciiTable(flyway.info().all(), consoleWidth));
         } else if ("repair".equals(operation)) {
             flyway.repair();
+        } else if ("reset".equals(operation)) {
+            return flyway.reset();
         } else {
             printUsage();
         }
+        return 0;
+    }
+
+    /**
+     * Executes this operation concurrently on all these targets, using the Flyway instance as configuration. A status
+     * line is printed as soon as a target is done and a summary of all targets at the end. Exits with an error code if
+     * the operation failed on any of the targets.
+     *
+     * @param flyway       The Flyway instance to use as configuration.
+     * @param urls         The jdbc urls of the targets.
+     * @param properties   The configured properties.
+     * @param operation    The operation to execute.
+     * @param consoleWidth The width of the console (in chars).
+     */
+    private static void executeOperationOnFleet(Flyway flyway, List<String> urls, final Properties properties,
+                                                final String operation, final int consoleWidth) {
+        if (!OPERATIONS.contains(operation)) {
+            printUsage();
+            return;
+        }
+
+        FlywayFleet fleet = new FlywayFleet(flyway);
+        fleet.setParallelism(PropertiesUtils.getIntProperty(properties, "flyway.parallelism", 1));
+
+        for (String url : urls) {
+            fleet.addTenant(url, null);
+        }
+
+        // The dataSource of each target is only created once it runs, so that an invalid url fails this target only
+        FleetReport report = fleet.execute(new FlywayFleet.Operation() {
+            public int execute(String url, Flyway flyway) {
+                DriverDataSource dataSource = new DriverDataSource(properties.getProperty("flyway.driver"), url,
+                        properties.getProperty("flyway.user"), properties.getProperty("flyway.password"));
+                try {
+                    String poolSize = properties.getProperty("flyway.poolSize");
+                    if (poolSize != null) {
+                        dataSource.setPoolSize(Integer.parseInt(poolSize));
+                    }
+                    flyway.setDataSource(dataSource);
+                    return executeOperation(flyway, operation, consoleWidth, url);
+                } finally {
+                    dataSource.close();
+                }
+            }
+        });
+
+        LOG.info("\n" + FleetReportDumper.dumpToAsciiTable(report, consoleWidth));
+
+        if (!report.isSuccess()) {
+            for (FleetReport.TenantResult failure : report.getFailures()) {
+                LOG.error(failure.getTenant() + ": " + failure.getException().getMessage());
+            }
+            System.exit(1);
+        }
     }
 
     /**
@@ -205,13 +301,18 @@ public class Main {
         LOG.info("validate : Validates the applied migrations against the ones on the classpath");
         LOG.info("info     : Prints the information about applied, current and pending migrations");
         LOG.info("repair   : Repairs the metadata table after a failed migration");
+        LOG.info("reset    : Truncates all tables except the metadata table and reapplies the seed data");
         LOG.info("");
         LOG.info("Options (Format: -key=value)");
         LOG.info("=======");
         LOG.info("driver                 : Fully qualified classname of the jdbc driver");
         LOG.info("url                    : Jdbc url to use to connect to the database");
+        LOG.info("urls                   : Whitespace-separated jdbc urls of databases to run the command on");
+        LOG.info("urlsFile               : File listing the jdbc urls to run the command on, one per line");
+        LOG.info("parallelism            : Max databases of urls and urlsFile to run the command on concurrently");
         LOG.info("user                   : User to use to connect to the database");
         LOG.info("password               : Password to use to connect to the database");
+        LOG.info("poolSize               : Max idle connections to keep for reuse (0 = no pooling)");
         LOG.info("schemas                : Comma-separated list of the schemas managed by Flyway");
         LOG.info("table                  : Name of Flyway's metadata table");
         LOG.info("locations              : Classpath locations to scan recursively for migrations");
@@ -223,6 +324,13 @@ public class Main {
         LOG.info("placeholderSuffix      : Suffix of every placeholder");
         LOG.info("target                 : Target version up to which Flyway should migrate");
         LOG.info("outOfOrder             : Allows migrations to be run \"out of order\"");
+        LOG.info("migrateBatchSize       : Max migrations to apply per metadata table lock");
+        LOG.info("statementBatchSize     : Max DML statements per JDBC batch (0 = no batching)");
+        LOG.info("checksumCacheFile      : File to cache sql migration checksums in between runs");
+        LOG.info("cleanThreads           : Max schemas to clean concurrently (1 = one after the other)");
+        LOG.info("seedLocations          : Classpath locations to scan recursively for seed data for reset");
+        LOG.info("snapshotDir            : Dir for snapshots of freshly migrated H2 and Hsql databases");
+        LOG.info("listeners              : Comma-separated fully qualified class names of MigrationListeners");
         LOG.info("validateOnMigrate      : Validate when running migrate");
         LOG.info("cleanOnValidationError : Automatically clean on a validation error");
         LOG.info("initVersion            : Version to tag schema with when executing init");
@@ -411,6 +519,71 @@ public class Main {
         return arg.substring(index + 1);
     }
 
+    /**
+     * Copies these properties, leaving out the ones describing the dataSource. When running against a fleet of
+     * databases, the dataSource of each target is created from these by the command-line tool itself and not by
+     * Flyway.
+     *
+     * @param properties The configured properties.
+     * @return The copy without the dataSource properties.
+     */
+    /* private -> for testing */
+    static Properties withoutDataSourceProperties(Properties properties) {
+        Properties filteredProperties = new Properties();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (!DATA_SOURCE_PROPERTIES.contains(entry.getKey())) {
+                filteredProperties.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return filteredProperties;
+    }
+
+    /**
+     * Determines the jdbc urls of the targets to execute the operation on, when running against a fleet of databases.
+     * These are read from the whitespace-separated flyway.urls property and from the file referenced by the
+     * flyway.urlsFile property. This file contains one url per line. Blank lines and lines starting with # are ignored.
+     * Commas are not a separator, as they are part of the url of some drivers (e.g. jdbc:mysql://host1,host2/db).
+     *
+     * @param properties The configured properties.
+     * @return The urls. An empty list when not running against a fleet of databases.
+     * @throws FlywayException when the urls file could not be read.
+     */
+    /* private -> for testing */
+    static List<String> determineUrls(Properties properties) throws FlywayException {
+        List<String> urls = new ArrayList<String>();
+
+        String urlsProp = properties.getProperty("flyway.urls");
+        if (urlsProp != null) {
+            for (String url : StringUtils.tokenizeToStringArray(urlsProp, " \t\r\n")) {
+                if (StringUtils.hasText(url)) {
+                    urls.add(url);
+                }
+            }
+        }
+
+        String urlsFile = properties.getProperty("flyway.urlsFile");
+        if (StringUtils.hasText(urlsFile)) {
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(urlsFile), "UTF-8"));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String url = line.trim();
+                        if ((url.length() > 0) && !url.startsWith("#")) {
+                            urls.add(url);
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException e) {
+                throw new FlywayException("Unable to load urls file: " + urlsFile, e);
+            }
+        }
+
+        return urls;
+    }
+
     /**
      * Determine the operation Flyway should execute.
      *
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.commandline;
+
+import com.googlecode.flyway.core.FleetReport;
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.util.StringUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for FleetReportDumper.
+ */
+public class FleetReportDumperSmallTest {
+    @Test
+    public void dump() {
+        FleetReport report = new FleetReport(Arrays.asList(
+                new FleetReport.TenantResult("jdbc:h2:mem:a", 3, 120, null),
+                new FleetReport.TenantResult("jdbc:h2:mem:b", 0, 5, new FlywayException("Failed"))), 130);
+
+        String table = FleetReportDumper.dumpToAsciiTable(report, 80);
+        String[] lines = StringUtils.tokenizeToStringArray(table, "\n");
+
+        assertEquals(7, lines.length);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(lines[i], 79, lines[i].length());
+            assertTrue((lines[i].charAt(41) == '|') || (lines[i].charAt(41) == '+'));
+        }
+        assertTrue(lines[3].contains("Success"));
+        assertTrue(lines[4].contains("Failed"));
+        assertEquals("2 targets, 1 failed, 3 migrations applied (execution time 00:00.130s)", lines[6]);
+    }
+}
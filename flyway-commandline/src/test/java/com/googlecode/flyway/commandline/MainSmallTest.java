@@ -18,6 +18,10 @@ package com.googlecode.flyway.commandline;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
@@ -59,4 +63,42 @@ public class MainSmallTest {
 
         assertEquals("SA", properties.getProperty("flyway.user"));
     }
+
+    @Test
+    public void determineUrlsNone() {
+        assertTrue(Main.determineUrls(new Properties()).isEmpty());
+    }
+
+    @Test
+    public void determineUrls() throws IOException {
+        File urlsFile = File.createTempFile("flyway-urls", ".txt");
+        urlsFile.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(urlsFile);
+        try {
+            out.write("# Tenants\njdbc:h2:mem:c\n\n  jdbc:h2:mem:d  \n".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("flyway.urls", "jdbc:h2:mem:a \n jdbc:mysql://b1,b2/db ");
+        properties.setProperty("flyway.urlsFile", urlsFile.getPath());
+
+        assertEquals(Arrays.asList("jdbc:h2:mem:a", "jdbc:mysql://b1,b2/db", "jdbc:h2:mem:c", "jdbc:h2:mem:d"),
+                Main.determineUrls(properties));
+    }
+
+    @Test
+    public void withoutDataSourceProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.user", "SA");
+        properties.setProperty("flyway.urls", "jdbc:h2:mem:a jdbc:h2:mem:b");
+        properties.setProperty("flyway.locations", "db/migration");
+
+        Properties filteredProperties = Main.withoutDataSourceProperties(properties);
+
+        assertEquals(1, filteredProperties.size());
+        assertEquals("db/migration", filteredProperties.getProperty("flyway.locations"));
+        assertEquals("SA", properties.getProperty("flyway.user"));
+    }
 }
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of migrating a fleet of tenants: the result of every tenant, in the order the tenants were added.
+ */
+public class FleetReport {
+    /**
+     * The results of the tenants, in the order the tenants were added.
+     */
+    private final List<TenantResult> tenantResults;
+
+    /**
+     * The total time taken to migrate the fleet (in ms).
+     */
+    private final long executionTime;
+
+    /**
+     * Creates a new report.
+     *
+     * @param tenantResults The results of the tenants, in the order the tenants were added.
+     * @param executionTime The total time taken to migrate the fleet (in ms).
+     */
+    public FleetReport(List<TenantResult> tenantResults, long executionTime) {
+        this.tenantResults = Collections.unmodifiableList(new ArrayList<TenantResult>(tenantResults));
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * @return The results of the tenants, in the order the tenants were added.
+     */
+    public List<TenantResult> getTenantResults() {
+        return tenantResults;
+    }
+
+    /**
+     * @return The results of the tenants whose migration failed. An empty list if none.
+     */
+    public List<TenantResult> getFailures() {
+        List<TenantResult> failures = new ArrayList<TenantResult>();
+        for (TenantResult tenantResult : tenantResults) {
+            if (!tenantResult.isSuccess()) {
+                failures.add(tenantResult);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return {@code true} if all tenants were migrated successfully, {@code false} if at least one failed.
+     */
+    public boolean isSuccess() {
+        return getFailures().isEmpty();
+    }
+
+    /**
+     * @return The total number of migrations successfully applied, over all tenants.
+     */
+    public int getMigrationCount() {
+        int migrationCount = 0;
+        for (TenantResult tenantResult : tenantResults) {
+            migrationCount += tenantResult.getMigrationCount();
+        }
+        return migrationCount;
+    }
+
+    /**
+     * @return The total time taken to migrate the fleet (in ms).
+     */
+    public long getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * The outcome of migrating a single tenant.
+     */
+    public static class TenantResult {
+        /**
+         * The name of the tenant.
+         */
+        private final String tenant;
+
+        /**
+         * The number of migrations successfully applied.
+         */
+        private final int migrationCount;
+
+        /**
+         * The time taken to migrate the tenant (in ms).
+         */
+        private final long executionTime;
+
+        /**
+         * The exception the migration failed with. {@code null} if it succeeded.
+         */
+        private final RuntimeException exception;
+
+        /**
+         * Creates a new tenant result.
+         *
+         * @param tenant         The name of the tenant.
+         * @param migrationCount The number of migrations successfully applied.
+         * @param executionTime  The time taken to migrate the tenant (in ms).
+         * @param exception      The exception the migration failed with. {@code null} if it succeeded.
+         */
+        public TenantResult(String tenant, int migrationCount, long executionTime, RuntimeException exception) {
+            this.tenant = tenant;
+            this.migrationCount = migrationCount;
+            this.executionTime = executionTime;
+            this.exception = exception;
+        }
+
+        /**
+         * @return The name of the tenant.
+         */
+        public String getTenant() {
+            return tenant;
+        }
+
+        /**
+         * @return {@code true} if the tenant was migrated successfully, {@code false} if not.
+         */
+        public boolean isSuccess() {
+            return exception == null;
+        }
+
+        /**
+         * @return The number of migrations successfully applied. 0 if the migration failed.
+         */
+        public int getMigrationCount() {
+            return migrationCount;
+        }
+
+        /**
+         * @return The time taken to migrate the tenant (in ms).
+         */
+        public long getExecutionTime() {
+            return executionTime;
+        }
+
+        /**
+         * @return The exception the migration failed with. {@code null} if it succeeded.
+         */
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+}
@@ -18,22 +18,28 @@ package com.googlecode.flyway.core;
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.api.MigrationInfo;
 import com.googlecode.flyway.core.api.MigrationInfoService;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.command.DbClean;
 import com.googlecode.flyway.core.command.DbInit;
 import com.googlecode.flyway.core.command.DbMigrate;
+import com.googlecode.flyway.core.command.DbReset;
 import com.googlecode.flyway.core.command.DbSchemas;
+import com.googlecode.flyway.core.command.DbSnapshot;
 import com.googlecode.flyway.core.command.DbValidate;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.info.MigrationInfoServiceImpl;
+import com.googlecode.flyway.core.listener.CompositeMigrationListener;
 import com.googlecode.flyway.core.metadatatable.MetaDataTable;
 import com.googlecode.flyway.core.metadatatable.MetaDataTableImpl;
 import com.googlecode.flyway.core.metadatatable.MetaDataTableRow;
 import com.googlecode.flyway.core.migration.SchemaVersion;
 import com.googlecode.flyway.core.resolver.CompositeMigrationResolver;
 import com.googlecode.flyway.core.resolver.MigrationResolver;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
+import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.Locations;
 import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
@@ -44,12 +50,14 @@ import com.googlecode.flyway.core.validation.ValidationErrorMode;
 import com.googlecode.flyway.core.validation.ValidationMode;
 
 import javax.sql.DataSource;
+import java.io.File;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This is the centre point of Flyway, and for most users, the only class they will ever have to deal with.
@@ -195,11 +203,63 @@ public class Flyway {
      */
     private boolean outOfOrder;
 
+    /**
+     * The maximum number of pending migrations to apply while holding a single lock on the metadata table. Larger
+     * batches avoid re-reading the metadata table and re-acquiring the lock for every single migration, which makes
+     * migrating a large number of migrations significantly faster. {@code 0} applies all pending migrations under a
+     * single lock. (default: 1)
+     */
+    private int migrateBatchSize = 1;
+
+    /**
+     * The maximum number of consecutive plain DML statements (INSERT, UPDATE, DELETE) of a sql migration to send to the
+     * database in a single JDBC batch. Any other statement ends the current batch. {@code 0} executes every statement
+     * on its own. (default: 0)
+     */
+    private int statementBatchSize;
+
+    /**
+     * The file in which to cache the checksums of sql migrations between runs, so that unchanged migrations are
+     * resolved without reading their contents. {@code null} to disable the cache. (default: null)
+     */
+    private String checksumCacheFile;
+
+    /**
+     * The maximum number of schemas to clean concurrently, each on its own connection drawn from the dataSource.
+     * {@code 1} cleans the schemas one after the other in the order of the {@code schemas} property. (default: 1)
+     */
+    private int cleanThreads = 1;
+
+    /**
+     * Locations on the classpath to scan recursively for the seed data to apply after a reset. Seed data migrations
+     * are resolved like regular migrations, but are applied on every reset and never recorded in the metadata table.
+     * (default: none)
+     */
+    private Locations seedLocations = new Locations();
+
+    /**
+     * The directory in which to save snapshots of freshly migrated databases, keyed by the fingerprint of the available
+     * migrations. Migrating an empty database for which a matching snapshot exists restores the snapshot instead of
+     * executing the migrations. Only supported for H2 and Hsql. {@code null} to disable snapshots. (default: null)
+     */
+    private String snapshotDir;
+
+    /**
+     * The listeners to notify of the progress of the migrations. (default: none)
+     */
+    private MigrationListener[] listeners = new MigrationListener[0];
+
     /**
      * The dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      */
     private DataSource dataSource;
 
+    /**
+     * The migration resolvers shared with other Flyway instances of the same fleet, by type of database, so that the
+     * migrations are only resolved once for all of them. {@code null} if this instance is not part of a fleet.
+     */
+    private ConcurrentMap<Class<? extends DbSupport>, CompositeMigrationResolver> sharedMigrationResolvers;
+
     /**
      * Creates a new instance of Flyway. This is your starting point.
      */
@@ -207,6 +267,42 @@ public class Flyway {
         // Do nothing
     }
 
+    /**
+     * Creates a new instance of Flyway with a copy of the configuration of this one. The copy is independent of the
+     * original: changing the configuration of one doesn't affect the other. The listeners and the dataSource are
+     * shared.
+     *
+     * @param configuration The Flyway instance whose configuration to copy.
+     */
+    Flyway(Flyway configuration) {
+        this.locations = configuration.locations;
+        this.encoding = configuration.encoding;
+        this.schemaNames = configuration.schemaNames.clone();
+        this.table = configuration.table;
+        this.target = configuration.target;
+        this.placeholders = new HashMap<String, String>(configuration.placeholders);
+        this.placeholderPrefix = configuration.placeholderPrefix;
+        this.placeholderSuffix = configuration.placeholderSuffix;
+        this.sqlMigrationPrefix = configuration.sqlMigrationPrefix;
+        this.sqlMigrationSuffix = configuration.sqlMigrationSuffix;
+        this.ignoreFailedFutureMigration = configuration.ignoreFailedFutureMigration;
+        this.validateOnMigrate = configuration.validateOnMigrate;
+        this.cleanOnValidationError = configuration.cleanOnValidationError;
+        this.initVersion = configuration.initVersion;
+        this.initDescription = configuration.initDescription;
+        this.disableInitCheck = configuration.disableInitCheck;
+        this.initOnMigrate = configuration.initOnMigrate;
+        this.outOfOrder = configuration.outOfOrder;
+        this.migrateBatchSize = configuration.migrateBatchSize;
+        this.statementBatchSize = configuration.statementBatchSize;
+        this.checksumCacheFile = configuration.checksumCacheFile;
+        this.cleanThreads = configuration.cleanThreads;
+        this.seedLocations = configuration.seedLocations;
+        this.snapshotDir = configuration.snapshotDir;
+        this.listeners = configuration.listeners.clone();
+        this.dataSource = configuration.dataSource;
+    }
+
     /**
      * Retrieves locations on the classpath to scan recursively for migrations. Locations may contain both sql
      * and java-based migrations.
@@ -469,6 +565,79 @@ public class Flyway {
         return outOfOrder;
     }
 
+    /**
+     * Retrieves the maximum number of pending migrations to apply while holding a single lock on the metadata table.
+     * Larger batches avoid re-reading the metadata table and re-acquiring the lock for every single migration.
+     *
+     * @return The maximum number of migrations per lock. {@code 0} applies all pending migrations under a single lock.
+     *         (default: 1)
+     */
+    public int getMigrateBatchSize() {
+        return migrateBatchSize;
+    }
+
+    /**
+     * Retrieves the maximum number of consecutive plain DML statements (INSERT, UPDATE, DELETE) of a sql migration to
+     * send to the database in a single JDBC batch. Any other statement ends the current batch.
+     *
+     * @return The maximum number of statements per batch. {@code 0} executes every statement on its own. (default: 0)
+     */
+    public int getStatementBatchSize() {
+        return statementBatchSize;
+    }
+
+    /**
+     * Retrieves the file in which to cache the checksums of sql migrations between runs, so that unchanged migrations
+     * are resolved without reading their contents.
+     *
+     * @return The cache file. {@code null} if the cache is disabled. (default: null)
+     */
+    public String getChecksumCacheFile() {
+        return checksumCacheFile;
+    }
+
+    /**
+     * Retrieves the maximum number of schemas to clean concurrently, each on its own connection drawn from the
+     * dataSource.
+     *
+     * @return The maximum number of schemas to clean concurrently. {@code 1} cleans the schemas one after the other.
+     *         (default: 1)
+     */
+    public int getCleanThreads() {
+        return cleanThreads;
+    }
+
+    /**
+     * Retrieves the directory in which to save snapshots of freshly migrated databases.
+     *
+     * @return The snapshot directory. {@code null} if snapshots are disabled. (default: null)
+     */
+    public String getSnapshotDir() {
+        return snapshotDir;
+    }
+
+    /**
+     * Retrieves the locations on the classpath to scan recursively for the seed data to apply after a reset.
+     *
+     * @return Locations on the classpath to scan recursively for the seed data to apply after a reset. (default: none)
+     */
+    public String[] getSeedLocations() {
+        String[] result = new String[seedLocations.getLocations().size()];
+        for (int i = 0; i < seedLocations.getLocations().size(); i++) {
+            result[i] = seedLocations.getLocations().get(i).toString();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the listeners to notify of the progress of the migrations.
+     *
+     * @return The listeners. (default: none)
+     */
+    public MigrationListener[] getListeners() {
+        return listeners;
+    }
+
     /**
      * Retrieves the dataSource to use to access the database. Must have the necessary privileges to execute ddl.
      *
@@ -808,19 +977,133 @@ public class Flyway {
         this.outOfOrder = outOfOrder;
     }
 
+    /**
+     * Sets the maximum number of pending migrations to apply while holding a single lock on the metadata table.
+     * Larger batches avoid re-reading the metadata table and re-acquiring the lock for every single migration.
+     *
+     * @param migrateBatchSize The maximum number of migrations per lock. {@code 0} applies all pending migrations
+     *                         under a single lock. (default: 1)
+     */
+    public void setMigrateBatchSize(int migrateBatchSize) {
+        this.migrateBatchSize = migrateBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of consecutive plain DML statements (INSERT, UPDATE, DELETE) of a sql migration to send
+     * to the database in a single JDBC batch. Any other statement ends the current batch.
+     *
+     * @param statementBatchSize The maximum number of statements per batch. {@code 0} executes every statement on its
+     *                           own. (default: 0)
+     */
+    public void setStatementBatchSize(int statementBatchSize) {
+        this.statementBatchSize = statementBatchSize;
+    }
+
+    /**
+     * Sets the file in which to cache the checksums of sql migrations between runs, so that unchanged migrations are
+     * resolved without reading their contents. A migration is considered unchanged as long as the size and the last
+     * modification time of its file (or the crc of its jar entry) are unchanged.
+     *
+     * @param checksumCacheFile The cache file. {@code null} to disable the cache. (default: null)
+     */
+    public void setChecksumCacheFile(String checksumCacheFile) {
+        this.checksumCacheFile = checksumCacheFile;
+    }
+
+    /**
+     * Sets the maximum number of schemas to clean concurrently, each on its own connection drawn from the dataSource.
+     * Schemas that can not be cleaned concurrently, because of objects depending on objects in another schema, are
+     * cleaned again afterwards in the order of the {@code schemas} property.
+     *
+     * @param cleanThreads The maximum number of schemas to clean concurrently. {@code 1} cleans the schemas one after
+     *                     the other. (default: 1)
+     */
+    public void setCleanThreads(int cleanThreads) {
+        this.cleanThreads = cleanThreads;
+    }
+
+    /**
+     * Sets the directory in which to save snapshots of freshly migrated databases, keyed by the fingerprint of the
+     * available migrations. Migrating an empty database for which a matching snapshot exists restores the snapshot
+     * instead of executing the migrations, which makes bootstrapping embedded test databases much faster. Snapshots
+     * are only taken when migrating an empty database to the latest version. Only supported for H2 and Hsql.
+     *
+     * @param snapshotDir The snapshot directory. {@code null} to disable snapshots. (default: null)
+     */
+    public void setSnapshotDir(String snapshotDir) {
+        this.snapshotDir = snapshotDir;
+    }
+
+    /**
+     * Sets the locations on the classpath to scan recursively for the seed data to apply after a reset. Seed data
+     * migrations follow the same naming conventions as regular migrations and are applied in version order on every
+     * reset, without being recorded in the metadata table.
+     *
+     * @param seedLocations Locations on the classpath to scan recursively for the seed data to apply after a reset.
+     *                      (default: none)
+     */
+    public void setSeedLocations(String... seedLocations) {
+        this.seedLocations = new Locations(seedLocations);
+    }
+
+    /**
+     * Sets the listeners to notify of the progress of the migrations: the resolution of the available migrations, the
+     * acquisition of the lock on the metadata table, every migration applied and every sql statement executed.
+     *
+     * @param listeners The listeners. (default: none)
+     */
+    public void setListeners(MigrationListener... listeners) {
+        this.listeners = listeners;
+    }
+
     /**
      * Starts the database migration. All pending migrations will be applied in order.
      * Calling migrate on an up-to-date database has no effect.
+     * <p/>
+     * Consecutive pending migrations of the same parallel group, named like V1_2_PARALLEL_group__Description, are
+     * applied concurrently, each on its own connection from the dataSource. Migrations after the group are only applied
+     * once all the migrations of the group succeeded.
      *
      * @return The number of successfully applied migrations.
      * @throws FlywayException when the migration failed.
      */
     public int migrate() throws FlywayException {
+        return migrate(null);
+    }
+
+    /**
+     * Starts the database migration within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     * @return The number of successfully applied migrations.
+     */
+    int migrate(FlywaySession session) {
         return execute(new Command<Integer>() {
-            public Integer execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
-                MetaDataTable metaDataTable =
-                        new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
+            public Integer execute(FlywaySession commandSession) {
+                Connection connectionMetaDataTable = commandSession.getConnectionMetaDataTable();
+                Connection connectionUserObjects = commandSession.getConnectionUserObjects();
+                DbSupport dbSupport = commandSession.getDbSupport();
+                Schema[] schemas = commandSession.getSchemas();
+
+                CompositeMigrationResolver migrationResolver = getMigrationResolver(commandSession);
+                MetaDataTable metaDataTable = getMetaDataTable(commandSession, migrationResolver);
+
+                if (isUpToDate(metaDataTable, migrationResolver)) {
+                    LOG.info("Schema " + schemas[0] + " is up to date. No migration necessary.");
+                    return 0;
+                }
+
+                DbSnapshot dbSnapshot = null;
+                if ((snapshotDir != null) && MigrationVersion.LATEST.equals(target) && dbSupport.supportsSnapshots()) {
+                    dbSnapshot = new DbSnapshot(dbSupport, schemas[0].getTable(table), schemas,
+                            new File(snapshotDir), migrationResolver.getFingerprint(
+                            StringUtils.arrayToCommaDelimitedString(schemas), table));
+                    if (!dbSnapshot.isUnmigrated()) {
+                        dbSnapshot = null;
+                    } else if (dbSnapshot.restore()) {
+                        return migrationResolver.resolveMigrations().size();
+                    }
+                }
 
                 if (validateOnMigrate) {
                     doValidate(connectionMetaDataTable, migrationResolver, metaDataTable, schemas);
@@ -858,7 +1141,7 @@ public class Flyway {
                     }
                 }
 
-                DbSupport dbSupportUserObjects = DbSupportFactory.createDbSupport(connectionUserObjects);
+                DbSupport dbSupportUserObjects = getDbSupportUserObjects(commandSession);
                 Schema originalSchemaUserObjects = dbSupport.getCurrentSchema();
                 boolean schemaChange = !schemas[0].equals(originalSchemaUserObjects);
                 if (schemaChange) {
@@ -867,16 +1150,39 @@ public class Flyway {
 
                 DbMigrate dbMigrator =
                         new DbMigrate(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable,
-                                schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder);
+                                schemas[0], migrationResolver, target, ignoreFailedFutureMigration, outOfOrder,
+                                migrateBatchSize, new CompositeMigrationListener(listeners), dataSource);
                 try {
-                    return dbMigrator.migrate();
+                    int migrationSuccessCount = dbMigrator.migrate();
+                    if (dbSnapshot != null) {
+                        dbSnapshot.save();
+                    }
+                    return migrationSuccessCount;
                 } finally {
                     if (schemaChange) {
                         dbSupportUserObjects.setCurrentSchema(originalSchemaUserObjects);
                     }
                 }
             }
-        });
+        }, session);
+    }
+
+    /**
+     * Checks cheaply whether all available migrations up to the target version have already been applied, so that
+     * migrate can return straight away on an up-to-date database without running the full migration workflow.
+     *
+     * @param metaDataTable     The metadata table.
+     * @param migrationResolver The migration resolver.
+     * @return {@code true} if there is nothing to migrate, {@code false} if the full migration workflow must run.
+     */
+    private boolean isUpToDate(MetaDataTable metaDataTable, MigrationResolver migrationResolver) {
+        List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>();
+        for (ResolvedMigration migration : migrationResolver.resolveMigrations()) {
+            if (migration.getVersion().compareTo(target) <= 0) {
+                migrations.add(migration);
+            }
+        }
+        return metaDataTable.isUpToDate(migrations);
     }
 
     /**
@@ -885,16 +1191,27 @@ public class Flyway {
      * @throws FlywayException when the validation failed.
      */
     public void validate() throws FlywayException {
+        validate(null);
+    }
+
+    /**
+     * Validates the applied migrations within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     */
+    void validate(FlywaySession session) {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
-                MetaDataTable metaDataTable =
-                        new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
+            public Void execute(FlywaySession commandSession) {
+                Connection connectionMetaDataTable = commandSession.getConnectionMetaDataTable();
+                Schema[] schemas = commandSession.getSchemas();
+
+                MigrationResolver migrationResolver = getMigrationResolver(commandSession);
+                MetaDataTable metaDataTable = getMetaDataTable(commandSession, migrationResolver);
 
                 doValidate(connectionMetaDataTable, migrationResolver, metaDataTable, schemas);
                 return null;
             }
-        });
+        }, session);
     }
 
     /**
@@ -912,7 +1229,7 @@ public class Flyway {
 
         if (validationError != null) {
             if (cleanOnValidationError) {
-                new DbClean(connectionMetaDataTable, metaDataTable, schemas).clean();
+                new DbClean(connectionMetaDataTable, metaDataTable, schemas, dataSource, cleanThreads).clean();
             } else {
                 throw new FlywayException("Validate failed. Found differences between applied migrations and available migrations: " + validationError);
             }
@@ -926,14 +1243,71 @@ public class Flyway {
      * @throws FlywayException when the clean fails.
      */
     public void clean() {
+        clean(null);
+    }
+
+    /**
+     * Drops all objects in the configured schemas within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     */
+    void clean(FlywaySession session) {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MetaDataTableImpl metaDataTable =
-                        new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), createMigrationResolver(dbSupport));
-                new DbClean(connectionMetaDataTable, metaDataTable, schemas).clean();
+            public Void execute(FlywaySession commandSession) {
+                Connection connectionMetaDataTable = commandSession.getConnectionMetaDataTable();
+                Schema[] schemas = commandSession.getSchemas();
+
+                MetaDataTable metaDataTable = getMetaDataTable(commandSession, getMigrationResolver(commandSession));
+                new DbClean(connectionMetaDataTable, metaDataTable, schemas, dataSource, cleanThreads).clean();
                 return null;
             }
-        });
+        }, session);
+    }
+
+    /**
+     * Resets the data of an already migrated database. The structure and the metadata table are kept, but all rows are
+     * removed from the other tables of the configured schemas, after which the seed data found in the
+     * {@code seedLocations} is applied again. This is much faster than a clean followed by a migrate, as no migration
+     * has to be executed again.
+     *
+     * @return The number of seed data migrations applied.
+     * @throws FlywayException when the reset failed.
+     */
+    public int reset() throws FlywayException {
+        return reset(null);
+    }
+
+    /**
+     * Resets the data of an already migrated database within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     * @return The number of seed data migrations applied.
+     */
+    int reset(FlywaySession session) {
+        return execute(new Command<Integer>() {
+            public Integer execute(FlywaySession commandSession) {
+                Connection connectionMetaDataTable = commandSession.getConnectionMetaDataTable();
+                Connection connectionUserObjects = commandSession.getConnectionUserObjects();
+                DbSupport dbSupport = commandSession.getDbSupport();
+                Schema[] schemas = commandSession.getSchemas();
+
+                DbSupport dbSupportUserObjects = getDbSupportUserObjects(commandSession);
+                Schema originalSchemaUserObjects = dbSupport.getCurrentSchema();
+                boolean schemaChange = !schemas[0].equals(originalSchemaUserObjects);
+                if (schemaChange) {
+                    dbSupportUserObjects.setCurrentSchema(schemas[0]);
+                }
+
+                try {
+                    return new DbReset(connectionMetaDataTable, connectionUserObjects, dbSupport,
+                            schemas[0].getTable(table), schemas, createSeedResolver(dbSupport)).reset();
+                } finally {
+                    if (schemaChange) {
+                        dbSupportUserObjects.setCurrentSchema(originalSchemaUserObjects);
+                    }
+                }
+            }
+        }, session);
     }
 
     /**
@@ -978,17 +1352,26 @@ public class Flyway {
      * @throws FlywayException when the info retrieval failed.
      */
     public MigrationInfoService info() {
+        return info(null);
+    }
+
+    /**
+     * Retrieves the complete information about all the migrations within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     * @return All migrations sorted by version, oldest first.
+     */
+    MigrationInfoService info(FlywaySession session) {
         return execute(new Command<MigrationInfoService>() {
-            public MigrationInfoService execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
-                MetaDataTable metaDataTable =
-                        new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
+            public MigrationInfoService execute(FlywaySession commandSession) {
+                MigrationResolver migrationResolver = getMigrationResolver(commandSession);
+                MetaDataTable metaDataTable = getMetaDataTable(commandSession, migrationResolver);
 
                 MigrationInfoServiceImpl migrationInfoService = new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder);
                 migrationInfoService.refresh();
                 return migrationInfoService;
             }
-        });
+        }, session);
     }
 
     /**
@@ -997,16 +1380,27 @@ public class Flyway {
      * @throws FlywayException when the schema initialization failed.
      */
     public void init() throws FlywayException {
+        init(null);
+    }
+
+    /**
+     * Creates and initializes the Flyway metadata table within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     */
+    void init(FlywaySession session) {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                MigrationResolver migrationResolver = createMigrationResolver(dbSupport);
-                MetaDataTable metaDataTable =
-                        new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), migrationResolver);
+            public Void execute(FlywaySession commandSession) {
+                Connection connectionMetaDataTable = commandSession.getConnectionMetaDataTable();
+                Schema[] schemas = commandSession.getSchemas();
+
+                MigrationResolver migrationResolver = getMigrationResolver(commandSession);
+                MetaDataTable metaDataTable = getMetaDataTable(commandSession, migrationResolver);
                 new DbSchemas(connectionMetaDataTable, schemas, metaDataTable).create();
                 new DbInit(connectionMetaDataTable, metaDataTable, initVersion, initDescription).init();
                 return null;
             }
-        });
+        }, session);
     }
 
     /**
@@ -1016,12 +1410,86 @@ public class Flyway {
      * @throws FlywayException when the metadata table repair failed.
      */
     public void repair() throws FlywayException {
+        repair(null);
+    }
+
+    /**
+     * Repairs the Flyway metadata table within this session.
+     *
+     * @param session The session to use, or {@code null} to set up the resources for this command only.
+     */
+    void repair(FlywaySession session) {
         execute(new Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
-                new MetaDataTableImpl(dbSupport, schemas[0].getTable(table), createMigrationResolver(dbSupport)).repair();
+            public Void execute(FlywaySession commandSession) {
+                getMetaDataTable(commandSession, getMigrationResolver(commandSession)).repair();
                 return null;
             }
-        });
+        }, session);
+    }
+
+    /**
+     * Shares the migration resolvers with other Flyway instances of the same fleet, so that the migrations are only
+     * resolved once for all of them. They must all have the same configuration.
+     *
+     * @param sharedMigrationResolvers The migration resolvers shared by the fleet, by type of database.
+     */
+    void setSharedMigrationResolvers(ConcurrentMap<Class<? extends DbSupport>, CompositeMigrationResolver> sharedMigrationResolvers) {
+        this.sharedMigrationResolvers = sharedMigrationResolvers;
+    }
+
+    /**
+     * Retrieves the MigrationResolver. Within a fleet, the resolver is shared by all instances. Otherwise the resolver
+     * of the session is reused, so that the migrations are only resolved once per session.
+     *
+     * @param session The session the command is executed in.
+     *
+     * @return The fully configured MigrationResolver instance.
+     */
+    private CompositeMigrationResolver getMigrationResolver(FlywaySession session) {
+        DbSupport dbSupport = session.getDbSupport();
+        if (sharedMigrationResolvers != null) {
+            CompositeMigrationResolver migrationResolver = sharedMigrationResolvers.get(dbSupport.getClass());
+            if (migrationResolver == null) {
+                sharedMigrationResolvers.putIfAbsent(dbSupport.getClass(), createMigrationResolver(dbSupport));
+                migrationResolver = sharedMigrationResolvers.get(dbSupport.getClass());
+            }
+            return migrationResolver;
+        }
+        if (session.getMigrationResolver() == null) {
+            session.setMigrationResolver(createMigrationResolver(dbSupport));
+        }
+        return session.getMigrationResolver();
+    }
+
+    /**
+     * Retrieves the metadata table. The metadata table of the session is reused, so that its format is only checked
+     * and upgraded once per session.
+     *
+     * @param session           The session the command is executed in.
+     * @param migrationResolver The migration resolver.
+     *
+     * @return The metadata table.
+     */
+    private MetaDataTableImpl getMetaDataTable(FlywaySession session, MigrationResolver migrationResolver) {
+        if (session.getMetaDataTable() == null) {
+            session.setMetaDataTable(new MetaDataTableImpl(session.getDbSupport(),
+                    session.getSchemas()[0].getTable(table), migrationResolver));
+        }
+        return session.getMetaDataTable();
+    }
+
+    /**
+     * Retrieves the database-specific support for the user objects connection. It is only created once per session.
+     *
+     * @param session The session the command is executed in.
+     *
+     * @return The database-specific support.
+     */
+    private DbSupport getDbSupportUserObjects(FlywaySession session) {
+        if (session.getDbSupportUserObjects() == null) {
+            session.setDbSupportUserObjects(DbSupportFactory.createDbSupport(session.getConnectionUserObjects()));
+        }
+        return session.getDbSupportUserObjects();
     }
 
     /**
@@ -1031,8 +1499,20 @@ public class Flyway {
      *
      * @return A new, fully configured, MigrationResolver instance.
      */
-    private MigrationResolver createMigrationResolver(DbSupport dbSupport) {
-        return new CompositeMigrationResolver(dbSupport, locations, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix);
+    private CompositeMigrationResolver createMigrationResolver(DbSupport dbSupport) {
+        return new CompositeMigrationResolver(dbSupport, locations, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix, statementBatchSize, checksumCacheFile, new CompositeMigrationListener(listeners));
+    }
+
+    /**
+     * Creates the MigrationResolver for the seed data. It doesn't use the checksum cache, as saving it would evict the
+     * entries of the regular migrations.
+     *
+     * @param dbSupport The database-specific support.
+     *
+     * @return A new, fully configured, MigrationResolver instance.
+     */
+    private MigrationResolver createSeedResolver(DbSupport dbSupport) {
+        return new CompositeMigrationResolver(dbSupport, seedLocations, encoding, sqlMigrationPrefix, sqlMigrationSuffix, placeholders, placeholderPrefix, placeholderSuffix, statementBatchSize, null, null);
     }
 
     /**
@@ -1049,7 +1529,12 @@ public class Flyway {
         String passwordProp = properties.getProperty("flyway.password");
 
         if (StringUtils.hasText(urlProp)) {
-            setDataSource(new DriverDataSource(driverProp, urlProp, userProp, passwordProp));
+            DriverDataSource driverDataSource = new DriverDataSource(driverProp, urlProp, userProp, passwordProp);
+            String poolSizeProp = properties.getProperty("flyway.poolSize");
+            if (poolSizeProp != null) {
+                driverDataSource.setPoolSize(Integer.parseInt(poolSizeProp));
+            }
+            setDataSource(driverDataSource);
         } else if (!StringUtils.hasText(urlProp) &&
                 (StringUtils.hasText(driverProp) || StringUtils.hasText(userProp) || StringUtils.hasText(passwordProp))) {
             LOG.warn("Discarding INCOMPLETE dataSource configuration! flyway.url must be set.");
@@ -1139,6 +1624,43 @@ public class Flyway {
         if (outOfOrderProp != null) {
             setOutOfOrder(Boolean.parseBoolean(outOfOrderProp));
         }
+        String migrateBatchSizeProp = properties.getProperty("flyway.migrateBatchSize");
+        if (migrateBatchSizeProp != null) {
+            setMigrateBatchSize(Integer.parseInt(migrateBatchSizeProp));
+        }
+        String statementBatchSizeProp = properties.getProperty("flyway.statementBatchSize");
+        if (statementBatchSizeProp != null) {
+            setStatementBatchSize(Integer.parseInt(statementBatchSizeProp));
+        }
+        String checksumCacheFileProp = properties.getProperty("flyway.checksumCacheFile");
+        if (checksumCacheFileProp != null) {
+            setChecksumCacheFile(checksumCacheFileProp);
+        }
+        String cleanThreadsProp = properties.getProperty("flyway.cleanThreads");
+        if (cleanThreadsProp != null) {
+            setCleanThreads(Integer.parseInt(cleanThreadsProp));
+        }
+        String snapshotDirProp = properties.getProperty("flyway.snapshotDir");
+        if (snapshotDirProp != null) {
+            setSnapshotDir(snapshotDirProp);
+        }
+        String seedLocationsProp = properties.getProperty("flyway.seedLocations");
+        if (seedLocationsProp != null) {
+            setSeedLocations(StringUtils.tokenizeToStringArray(seedLocationsProp, ","));
+        }
+        String listenersProp = properties.getProperty("flyway.listeners");
+        if (listenersProp != null) {
+            String[] listenerClassNames = StringUtils.tokenizeToStringArray(listenersProp, ",");
+            MigrationListener[] listenersFromProps = new MigrationListener[listenerClassNames.length];
+            for (int i = 0; i < listenerClassNames.length; i++) {
+                try {
+                    listenersFromProps[i] = ClassUtils.instantiate(listenerClassNames[i]);
+                } catch (Exception e) {
+                    throw new FlywayException("Unable to instantiate migration listener: " + listenerClassNames[i], e);
+                }
+            }
+            setListeners(listenersFromProps);
+        }
 
         Map<String, String> placeholdersFromProps = new HashMap<String, String>();
         for (Object property : properties.keySet()) {
@@ -1154,15 +1676,15 @@ public class Flyway {
     }
 
     /**
-     * Executes this command with proper resource handling and cleanup.
+     * Opens a session in which several commands can be executed back-to-back. The connections, the database-specific
+     * support, the resolved migrations and the metadata table are then set up only once and reused by all commands
+     * executed on the session, until it is closed. Commands executed on this Flyway instance itself are not affected
+     * and keep setting up their own resources.
      *
-     * @param command The command to execute.
-     * @param <T>     The type of the result.
-     * @return The result of the command.
+     * @return The new session. Must be closed once done.
+     * @throws FlywayException when the session could not be opened.
      */
-    /*private -> testing*/ <T> T execute(Command<T> command) {
-        T result;
-
+    public FlywaySession openSession() throws FlywayException {
         Connection connectionMetaDataTable = null;
         Connection connectionUserObjects = null;
 
@@ -1197,12 +1719,47 @@ public class Flyway {
                 schemas[i] = dbSupport.getSchema(schemaNames[i]);
             }
 
-            result = command.execute(connectionMetaDataTable, connectionUserObjects, dbSupport, schemas);
-        } finally {
+            return new FlywaySession(this, connectionMetaDataTable, connectionUserObjects, dbSupport, schemas);
+        } catch (RuntimeException e) {
             JdbcUtils.closeConnection(connectionUserObjects);
             JdbcUtils.closeConnection(connectionMetaDataTable);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes this command with proper resource handling and cleanup.
+     *
+     * @param command The command to execute.
+     * @param <T>     The type of the result.
+     * @return The result of the command.
+     */
+    /*private -> testing*/ <T> T execute(Command<T> command) {
+        return execute(command, null);
+    }
+
+    /**
+     * Executes this command with proper resource handling and cleanup. Within a session, the resources of the session
+     * are used. Otherwise they are set up for this command only.
+     *
+     * @param command The command to execute.
+     * @param session The session to execute the command in, or {@code null} to set up the resources for this command
+     *                only.
+     * @param <T>     The type of the result.
+     * @return The result of the command.
+     */
+    private <T> T execute(Command<T> command, FlywaySession session) {
+        if (session != null) {
+            session.beginCommand();
+            return command.execute(session);
+        }
+
+        FlywaySession commandSession = openSession();
+        try {
+            return command.execute(commandSession);
+        } finally {
+            commandSession.close();
         }
-        return result;
     }
 
     /**
@@ -1214,12 +1771,9 @@ public class Flyway {
         /**
          * Execute the operation.
          *
-         * @param connectionMetaDataTable The database connection for the metadata table changes.
-         * @param connectionUserObjects   The database connection for user object changes.
-         * @param dbSupport               The database-specific support for these connections.
-         * @param schemas                 The schemas managed by Flyway.
+         * @param session The session holding the connections, the database-specific support and the schemas to use.
          * @return The result of the operation.
          */
-        T execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas);
+        T execute(FlywaySession session);
     }
 }
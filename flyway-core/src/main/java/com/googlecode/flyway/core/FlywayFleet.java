@@ -0,0 +1,314 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.resolver.CompositeMigrationResolver;
+import com.googlecode.flyway.core.util.NamedDaemonThreadFactory;
+import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A fleet of tenants that share the same migrations, such as one schema or one database per customer. All tenants are
+ * migrated with the configuration of a single Flyway instance, but the migrations are only resolved once for the
+ * whole fleet. Up to {@code parallelism} tenants are migrated concurrently. A failing tenant doesn't affect the
+ * others: its failure is recorded in the report and the remaining tenants are still migrated. Besides migrate, any
+ * other operation can be executed on all tenants the same way.
+ * <pre>
+ * FlywayFleet fleet = new FlywayFleet(flyway);
+ * fleet.setParallelism(8);
+ * for (String schema : customerSchemas) {
+ *     fleet.addSchema(schema);
+ * }
+ * FleetReport report = fleet.migrate();
+ * </pre>
+ * The configuration is copied for every tenant when the migration starts, so the Flyway instance is never accessed
+ * by several threads at once. The listeners however are shared by all tenants and must be thread-safe.
+ */
+public class FlywayFleet {
+    private static final Log LOG = LogFactory.getLog(FlywayFleet.class);
+
+    /**
+     * The Flyway instance whose configuration is used for all tenants.
+     */
+    private final Flyway configuration;
+
+    /**
+     * The tenants of the fleet, in the order they were added.
+     */
+    private final List<Tenant> tenants = new ArrayList<Tenant>();
+
+    /**
+     * The maximum number of tenants to migrate concurrently. (default: 1)
+     */
+    private int parallelism = 1;
+
+    /**
+     * Creates a new fleet.
+     *
+     * @param configuration The Flyway instance whose configuration to use for all tenants. Its dataSource and schemas
+     *                      are used for the tenants that don't specify their own.
+     */
+    public FlywayFleet(Flyway configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return The maximum number of tenants to migrate concurrently. (default: 1)
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism The maximum number of tenants to migrate concurrently. (default: 1)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new FlywayException("Invalid parallelism: " + parallelism + ". Must be at least 1.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Adds a tenant living in this schema of the configured dataSource. The tenant is named after the schema.
+     *
+     * @param schema The schema of the tenant. It also holds the metadata table of the tenant.
+     */
+    public void addSchema(String schema) {
+        addTenant(schema, null, schema);
+    }
+
+    /**
+     * Adds a tenant living in this dataSource, in the configured schemas.
+     *
+     * @param name       The name of the tenant, used for logging and reporting.
+     * @param dataSource The dataSource of the tenant.
+     */
+    public void addDataSource(String name, DataSource dataSource) {
+        addTenant(name, dataSource);
+    }
+
+    /**
+     * Adds a tenant.
+     *
+     * @param name       The name of the tenant, used for logging and reporting.
+     * @param dataSource The dataSource of the tenant. {@code null} for the configured one.
+     * @param schemas    The schemas of the tenant. The first one holds its metadata table. None for the configured
+     *                   ones.
+     */
+    public void addTenant(String name, DataSource dataSource, String... schemas) {
+        tenants.add(new Tenant(name, dataSource, schemas));
+    }
+
+    /**
+     * Migrates all tenants. The migrations are resolved once and shared by all tenants with the same type of database.
+     *
+     * @return The report of the migration, with the result of every tenant.
+     * @throws FlywayException when the fleet has no tenants or the migration was interrupted. Failures of individual
+     *                         tenants are reported instead.
+     */
+    public FleetReport migrate() throws FlywayException {
+        return execute(new Operation() {
+            public int execute(String tenant, Flyway flyway) {
+                return flyway.migrate();
+            }
+        });
+    }
+
+    /**
+     * Executes this operation on all tenants. The migrations are resolved once and shared by all tenants with the same
+     * type of database. A status line is logged as soon as a tenant is done.
+     *
+     * @param operation The operation to execute.
+     * @return The report of the operation, with the result of every tenant.
+     * @throws FlywayException when the fleet has no tenants or the operation was interrupted. Failures of individual
+     *                         tenants are reported instead.
+     */
+    public FleetReport execute(final Operation operation) throws FlywayException {
+        if (tenants.isEmpty()) {
+            throw new FlywayException("Unable to execute operation on fleet: no tenants have been added");
+        }
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        ConcurrentMap<Class<? extends DbSupport>, CompositeMigrationResolver> sharedMigrationResolvers =
+                new ConcurrentHashMap<Class<? extends DbSupport>, CompositeMigrationResolver>();
+        List<Callable<FleetReport.TenantResult>> tasks = new ArrayList<Callable<FleetReport.TenantResult>>();
+        for (final Tenant tenant : tenants) {
+            final Flyway flyway = new Flyway(configuration);
+            if (tenant.dataSource != null) {
+                flyway.setDataSource(tenant.dataSource);
+            }
+            if (tenant.schemas.length > 0) {
+                flyway.setSchemas(tenant.schemas);
+            }
+            flyway.setSharedMigrationResolvers(sharedMigrationResolvers);
+
+            tasks.add(new Callable<FleetReport.TenantResult>() {
+                public FleetReport.TenantResult call() {
+                    return executeOnTenant(operation, tenant.name, flyway);
+                }
+            });
+        }
+
+        List<FleetReport.TenantResult> tenantResults = execute(tasks);
+
+        stopWatch.stop();
+        FleetReport report = new FleetReport(tenantResults, stopWatch.getTotalTimeMillis());
+        LOG.info(String.format("Executed operation on %d tenants (%d failed) with %d migrations applied (execution time %s)",
+                tenantResults.size(), report.getFailures().size(), report.getMigrationCount(),
+                TimeFormat.format(report.getExecutionTime())));
+        return report;
+    }
+
+    /**
+     * Executes this operation on a single tenant, recording its failure instead of propagating it.
+     *
+     * @param operation The operation to execute.
+     * @param name      The name of the tenant.
+     * @param flyway    The Flyway instance configured for the tenant.
+     * @return The result of the tenant.
+     */
+    private FleetReport.TenantResult executeOnTenant(Operation operation, String name, Flyway flyway) {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        try {
+            int migrationCount = operation.execute(name, flyway);
+            stopWatch.stop();
+            LOG.info(String.format("Tenant %s: success, %d migrations applied (execution time %s)",
+                    name, migrationCount, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+            return new FleetReport.TenantResult(name, migrationCount, stopWatch.getTotalTimeMillis(), null);
+        } catch (RuntimeException e) {
+            stopWatch.stop();
+            LOG.error(String.format("Tenant %s: failed (execution time %s): %s",
+                    name, TimeFormat.format(stopWatch.getTotalTimeMillis()), e.getMessage()));
+            return new FleetReport.TenantResult(name, 0, stopWatch.getTotalTimeMillis(), e);
+        }
+    }
+
+    /**
+     * Executes these tasks, up to {@code parallelism} of them concurrently.
+     *
+     * @param tasks The tasks to execute.
+     * @return The results of the tasks, in the same order as the tasks.
+     */
+    private List<FleetReport.TenantResult> execute(List<Callable<FleetReport.TenantResult>> tasks) {
+        List<FleetReport.TenantResult> results = new ArrayList<FleetReport.TenantResult>();
+
+        int threads = Math.min(tasks.size(), parallelism);
+        if (threads <= 1) {
+            for (Callable<FleetReport.TenantResult> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (Exception e) {
+                    // Never happens, as failures are recorded in the result
+                    throw new FlywayException("Unable to execute operation on fleet", e);
+                }
+            }
+            return results;
+        }
+
+        ExecutorService executorService =
+                Executors.newFixedThreadPool(threads, new NamedDaemonThreadFactory("flyway-fleet"));
+
+        try {
+            List<Future<FleetReport.TenantResult>> futures = new ArrayList<Future<FleetReport.TenantResult>>();
+            for (Callable<FleetReport.TenantResult> task : tasks) {
+                futures.add(executorService.submit(task));
+            }
+
+            for (Future<FleetReport.TenantResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while executing operation on fleet", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlywayException("Unable to execute operation on fleet", cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * An operation that can be executed on all tenants of a fleet.
+     */
+    public interface Operation {
+        /**
+         * Executes the operation on a single tenant.
+         *
+         * @param tenant The name of the tenant.
+         * @param flyway The Flyway instance configured for the tenant.
+         * @return The number of migrations applied. 0 if the operation doesn't apply migrations.
+         * @throws FlywayException when the operation failed.
+         */
+        int execute(String tenant, Flyway flyway) throws FlywayException;
+    }
+
+    /**
+     * A tenant of the fleet.
+     */
+    private static class Tenant {
+        /**
+         * The name of the tenant.
+         */
+        private final String name;
+
+        /**
+         * The dataSource of the tenant. {@code null} for the configured one.
+         */
+        private final DataSource dataSource;
+
+        /**
+         * The schemas of the tenant. Empty for the configured ones.
+         */
+        private final String[] schemas;
+
+        /**
+         * Creates a new tenant.
+         *
+         * @param name       The name of the tenant.
+         * @param dataSource The dataSource of the tenant. {@code null} for the configured one.
+         * @param schemas    The schemas of the tenant. Empty for the configured ones.
+         */
+        Tenant(String name, DataSource dataSource, String[] schemas) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.schemas = schemas;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationInfoService;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.metadatatable.MetaDataTableImpl;
+import com.googlecode.flyway.core.resolver.CompositeMigrationResolver;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+
+import java.sql.Connection;
+
+/**
+ * A session of a Flyway instance, in which several commands can be executed back-to-back. The connections, the
+ * database-specific support, the resolved migrations and the metadata table are set up once when the session is
+ * opened and reused by every command, instead of being set up again for each one.
+ * <p/>
+ * Only the commands invoked on the session itself run within it. Commands invoked on the Flyway instance keep
+ * setting up their own resources, so they are unaffected by any open session. The migrations are resolved once, with
+ * the configuration of the Flyway instance at the time of the first command of the session. The session is not
+ * thread-safe and must always be closed:
+ * <pre>
+ * FlywaySession session = flyway.openSession();
+ * try {
+ *     session.validate();
+ *     session.migrate();
+ *     session.info();
+ * } finally {
+ *     session.close();
+ * }
+ * </pre>
+ */
+public class FlywaySession {
+    /**
+     * The Flyway instance this session belongs to.
+     */
+    private final Flyway flyway;
+
+    /**
+     * The database connection for the metadata table changes.
+     */
+    private final Connection connectionMetaDataTable;
+
+    /**
+     * The database connection for user object changes.
+     */
+    private final Connection connectionUserObjects;
+
+    /**
+     * The database-specific support for the metadata table connection.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The schemas managed by Flyway.
+     */
+    private final Schema[] schemas;
+
+    /**
+     * The database-specific support for the user objects connection. {@code null} if not needed yet.
+     */
+    private DbSupport dbSupportUserObjects;
+
+    /**
+     * The resolver for the available migrations. {@code null} if not needed yet.
+     */
+    private CompositeMigrationResolver migrationResolver;
+
+    /**
+     * The metadata table. {@code null} if not needed yet.
+     */
+    private MetaDataTableImpl metaDataTable;
+
+    /**
+     * Whether this session has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new session. The connections are owned by the session from now on.
+     *
+     * @param flyway                  The Flyway instance this session belongs to.
+     * @param connectionMetaDataTable The database connection for the metadata table changes.
+     * @param connectionUserObjects   The database connection for user object changes.
+     * @param dbSupport               The database-specific support for the metadata table connection.
+     * @param schemas                 The schemas managed by Flyway.
+     */
+    FlywaySession(Flyway flyway, Connection connectionMetaDataTable, Connection connectionUserObjects,
+                  DbSupport dbSupport, Schema[] schemas) {
+        this.flyway = flyway;
+        this.connectionMetaDataTable = connectionMetaDataTable;
+        this.connectionUserObjects = connectionUserObjects;
+        this.dbSupport = dbSupport;
+        this.schemas = schemas;
+    }
+
+    /**
+     * @return The database connection for the metadata table changes.
+     */
+    Connection getConnectionMetaDataTable() {
+        return connectionMetaDataTable;
+    }
+
+    /**
+     * @return The database connection for user object changes.
+     */
+    Connection getConnectionUserObjects() {
+        return connectionUserObjects;
+    }
+
+    /**
+     * @return The database-specific support for the metadata table connection.
+     */
+    DbSupport getDbSupport() {
+        return dbSupport;
+    }
+
+    /**
+     * @return The schemas managed by Flyway.
+     */
+    Schema[] getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * @return The database-specific support for the user objects connection. {@code null} if not needed yet.
+     */
+    DbSupport getDbSupportUserObjects() {
+        return dbSupportUserObjects;
+    }
+
+    /**
+     * @param dbSupportUserObjects The database-specific support for the user objects connection.
+     */
+    void setDbSupportUserObjects(DbSupport dbSupportUserObjects) {
+        this.dbSupportUserObjects = dbSupportUserObjects;
+    }
+
+    /**
+     * @return The resolver for the available migrations. {@code null} if not needed yet.
+     */
+    CompositeMigrationResolver getMigrationResolver() {
+        return migrationResolver;
+    }
+
+    /**
+     * @param migrationResolver The resolver for the available migrations.
+     */
+    void setMigrationResolver(CompositeMigrationResolver migrationResolver) {
+        this.migrationResolver = migrationResolver;
+    }
+
+    /**
+     * @return The metadata table. {@code null} if not needed yet.
+     */
+    MetaDataTableImpl getMetaDataTable() {
+        return metaDataTable;
+    }
+
+    /**
+     * @param metaDataTable The metadata table.
+     */
+    void setMetaDataTable(MetaDataTableImpl metaDataTable) {
+        this.metaDataTable = metaDataTable;
+    }
+
+    /**
+     * Prepares the session for the next command. The state other instances may have modified in the meantime is
+     * discarded, while the state only this session depends on is kept.
+     */
+    void beginCommand() {
+        if (metaDataTable != null) {
+            metaDataTable.clearCache();
+        }
+    }
+
+    /**
+     * Starts the database migration. All pending migrations will be applied in order.
+     *
+     * @return The number of successfully applied migrations.
+     * @throws FlywayException when the migration failed.
+     * @see Flyway#migrate()
+     */
+    public int migrate() throws FlywayException {
+        checkOpen();
+        return flyway.migrate(this);
+    }
+
+    /**
+     * Validate applied migration with classpath migrations to detect accidental changes.
+     *
+     * @throws FlywayException when the validation failed.
+     * @see Flyway#validate()
+     */
+    public void validate() throws FlywayException {
+        checkOpen();
+        flyway.validate(this);
+    }
+
+    /**
+     * Drops all objects (tables, views, procedures, triggers, ...) in the configured schemas.
+     *
+     * @throws FlywayException when the clean fails.
+     * @see Flyway#clean()
+     */
+    public void clean() throws FlywayException {
+        checkOpen();
+        flyway.clean(this);
+    }
+
+    /**
+     * Resets the data of an already migrated database and applies the seed data again.
+     *
+     * @return The number of seed data migrations applied.
+     * @throws FlywayException when the reset failed.
+     * @see Flyway#reset()
+     */
+    public int reset() throws FlywayException {
+        checkOpen();
+        return flyway.reset(this);
+    }
+
+    /**
+     * Retrieves the complete information about all the migrations.
+     *
+     * @return All migrations sorted by version, oldest first.
+     * @throws FlywayException when the info retrieval failed.
+     * @see Flyway#info()
+     */
+    public MigrationInfoService info() throws FlywayException {
+        checkOpen();
+        return flyway.info(this);
+    }
+
+    /**
+     * Creates and initializes the Flyway metadata table.
+     *
+     * @throws FlywayException when the schema initialization failed.
+     * @see Flyway#init()
+     */
+    public void init() throws FlywayException {
+        checkOpen();
+        flyway.init(this);
+    }
+
+    /**
+     * Repairs the Flyway metadata table after a failed migration.
+     *
+     * @throws FlywayException when the metadata table repair failed.
+     * @see Flyway#repair()
+     */
+    public void repair() throws FlywayException {
+        checkOpen();
+        flyway.repair(this);
+    }
+
+    /**
+     * Checks that this session is still open.
+     *
+     * @throws FlywayException when the session has already been closed.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new FlywayException("Unable to execute command: the Flyway session has already been closed");
+        }
+    }
+
+    /**
+     * Closes this session and its connections. Closing a session that has already been closed has no effect.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        JdbcUtils.closeConnection(connectionUserObjects);
+        JdbcUtils.closeConnection(connectionMetaDataTable);
+    }
+}
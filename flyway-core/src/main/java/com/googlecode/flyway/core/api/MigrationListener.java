@@ -0,0 +1,86 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.api;
+
+/**
+ * Listener notified of the progress of Flyway, so that it can for example be fed into a metrics pipeline. Listeners
+ * are registered on the Flyway instance and called on the thread doing the work. Exceptions thrown by a listener are
+ * logged and otherwise ignored. All times are in milliseconds.
+ * <p/>
+ * The migrations of a parallel group are applied on several threads at once, so listeners must be thread-safe when
+ * migrations use parallel groups.
+ */
+public interface MigrationListener {
+    /**
+     * Called before the available migrations are resolved.
+     */
+    void resolveStarted();
+
+    /**
+     * Called after the available migrations have been resolved.
+     *
+     * @param migrationCount The number of available migrations.
+     * @param executionTime  The time it took to resolve them.
+     */
+    void resolveFinished(int migrationCount, long executionTime);
+
+    /**
+     * Called after the lock on the metadata table has been acquired, before the pending migrations are applied.
+     *
+     * @param waitTime The time it took to acquire the lock.
+     */
+    void lockAcquired(long waitTime);
+
+    /**
+     * Called before this migration is applied.
+     *
+     * @param migrationInfo The migration.
+     */
+    void migrationStarted(MigrationInfo migrationInfo);
+
+    /**
+     * Called after this migration has been applied, whether it succeeded or not.
+     *
+     * @param migrationInfo The migration.
+     * @param success       Whether the migration succeeded.
+     * @param executionTime The time it took to apply the migration.
+     */
+    void migrationFinished(MigrationInfo migrationInfo, boolean success, long executionTime);
+
+    /**
+     * Called after this statement of a sql migration has been executed successfully on its own. Statements sent to the
+     * database as part of a JDBC batch are reported by {@link #batchExecuted} instead, as the driver only knows how
+     * long the whole batch took.
+     *
+     * @param script        The script of the sql migration.
+     * @param lineNumber    The line of the script on which the statement starts.
+     * @param sql           The sql of the statement.
+     * @param executionTime The time it took to execute the statement.
+     * @param updateCount   The number of rows updated by the statement. -1 if not applicable or unknown.
+     */
+    void statementExecuted(String script, int lineNumber, String sql, long executionTime, int updateCount);
+
+    /**
+     * Called after this batch of statements of a sql migration has been executed successfully as a single JDBC batch.
+     *
+     * @param script          The script of the sql migration.
+     * @param firstLineNumber The line of the script on which the first statement of the batch starts.
+     * @param lastLineNumber  The line of the script on which the last statement of the batch starts.
+     * @param statementCount  The number of statements in the batch.
+     * @param executionTime   The time it took to execute the whole batch.
+     */
+    void batchExecuted(String script, int firstLineNumber, int lastLineNumber, int statementCount, long executionTime);
+}
@@ -15,12 +15,13 @@
  */
 package com.googlecode.flyway.core.api;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A version of a migration.
+ * A version of a migration. Versions are immutable. Use {@link #fromVersion(String)} to parse versions that are likely
+ * to be parsed again, such as the ones of the migrations and of the rows of the metadata table.
  *
  * @author Axel Fontaine
  */
@@ -28,22 +29,34 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
     /**
      * Version for an empty schema.
      */
-    public static final MigrationVersion EMPTY = new MigrationVersion(null, "<< Empty Schema >>");
+    public static final MigrationVersion EMPTY = new MigrationVersion((long[]) null, "<< Empty Schema >>");
 
     /**
      * Latest version.
      */
-    public static final MigrationVersion LATEST = new MigrationVersion(Long.MAX_VALUE, "<< Latest Version >>");
+    public static final MigrationVersion LATEST = new MigrationVersion(new long[]{Long.MAX_VALUE}, "<< Latest Version >>");
 
     /**
-     * Compiled pattern for matching proper version format
+     * The maximum number of versions kept in the intern table. Once it is full, versions are parsed every time.
      */
-    private static Pattern splitPattern = Pattern.compile("\\.(?=\\d)");
+    private static final int INTERN_TABLE_MAX_SIZE = 65536;
 
     /**
-     * The individual parts this version string is composed of. Ex. 1.2.3.4.0 -> [1, 2, 3, 4, 0]
+     * The versions parsed by {@link #fromVersion(String)} so far. Keyed by version string.
      */
-    private final List<Long> versionParts;
+    private static final ConcurrentMap<String, MigrationVersion> internTable =
+            new ConcurrentHashMap<String, MigrationVersion>();
+
+    /**
+     * The individual parts this version string is composed of, without trailing zeros. Ex. 1.2.3.4.0 -> [1, 2, 3, 4]
+     * {@code null} for the empty schema.
+     */
+    private final long[] versionParts;
+
+    /**
+     * The hash code, computed once as the version is immutable.
+     */
+    private final int hashCode;
 
     /**
      * The printable text to represent the version.
@@ -53,28 +66,44 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
     /**
      * Creates a Version using this version string.
      *
-     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021. <br/>{@code null}
-     *                means that this version refers to an empty schema.
+     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021.
+     * @throws FlywayException when the version is invalid.
      */
     public MigrationVersion(String version) {
-        String normalizedVersion = version.replace('_', '.');
-        this.versionParts = tokenizeToLongs(normalizedVersion);
-        this.displayText = normalizedVersion;
+        this(parse(version.replace('_', '.')), version.replace('_', '.'));
     }
 
     /**
-     * Creates a Version using this version string.
+     * Creates a Version from these parts.
      *
-     * @param version     The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021. <br/>{@code null}
-     *                    means that this version refers to an empty schema.
-     * @param displayText The alternative text to display instead of the version number.
+     * @param versionParts The parts of the version, without trailing zeros. {@code null} for the empty schema.
+     * @param displayText  The text to display.
      */
-    private MigrationVersion(Long version, String displayText) {
-        this.versionParts = new ArrayList<Long>();
-        this.versionParts.add(version);
+    private MigrationVersion(long[] versionParts, String displayText) {
+        this.versionParts = versionParts;
+        this.hashCode = Arrays.hashCode(versionParts);
         this.displayText = displayText;
     }
 
+    /**
+     * Retrieves the version for this version string. Versions that have been requested before are returned from the
+     * intern table instead of being parsed again.
+     *
+     * @param version The version in one of the following formats: 6, 6.0, 005, 1.2.3.4, 201004200021.
+     * @return The version.
+     * @throws FlywayException when the version is invalid.
+     */
+    public static MigrationVersion fromVersion(String version) {
+        MigrationVersion migrationVersion = internTable.get(version);
+        if (migrationVersion == null) {
+            migrationVersion = new MigrationVersion(version);
+            if (internTable.size() < INTERN_TABLE_MAX_SIZE) {
+                internTable.putIfAbsent(version, migrationVersion);
+            }
+        }
+        return migrationVersion;
+    }
+
     /**
      * @return The textual representation of the version.
      */
@@ -90,12 +119,12 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
 
         MigrationVersion version1 = (MigrationVersion) o;
 
-        return compareTo(version1) == 0;
+        return (hashCode == version1.hashCode) && (compareTo(version1) == 0);
     }
 
     @Override
     public int hashCode() {
-        return versionParts == null ? 0 : versionParts.hashCode();
+        return hashCode;
     }
 
     public int compareTo(MigrationVersion o) {
@@ -118,43 +147,82 @@ public final class MigrationVersion implements Comparable<MigrationVersion> {
         if (o == LATEST) {
             return Integer.MIN_VALUE;
         }
-        final List<Long> elements1 = versionParts;
-        final List<Long> elements2 = o.versionParts;
-        int largestNumberOfElements = Math.max(elements1.size(), elements2.size());
+        final long[] elements1 = versionParts;
+        final long[] elements2 = o.versionParts;
+        int largestNumberOfElements = Math.max(elements1.length, elements2.length);
         for (int i = 0; i < largestNumberOfElements; i++) {
-            final int compared = getOrZero(elements1, i).compareTo(getOrZero(elements2, i));
-            if (compared != 0) {
-                return compared;
+            long element1 = i < elements1.length ? elements1[i] : 0;
+            long element2 = i < elements2.length ? elements2[i] : 0;
+            if (element1 != element2) {
+                return element1 < element2 ? -1 : 1;
             }
         }
         return 0;
     }
 
-    private Long getOrZero(List<Long> elements, int i) {
-        return i < elements.size() ? elements.get(i) : 0;
-    }
-
     /**
-     * Splits this string into list of Long
+     * Parses this version string into its parts.
      *
-     * @param str        The string to split.
-     * @return The resulting array.
+     * @param str The version string, with dots as separators.
+     * @return The parts, without trailing zeros.
+     * @throws FlywayException when the version is invalid.
      */
-    private List<Long> tokenizeToLongs(String str) {
-        List<Long> numbers = new ArrayList<Long>();
-        for (String number : splitPattern.split(str)) {
-            try {
-                numbers.add(Long.valueOf(number));
-            } catch (NumberFormatException e) {
-                throw new FlywayException(
-                    "Invalid version containing non-numeric characters. Only 0..9 and . are allowed. Invalid version: "
-                    + str);
+    private static long[] parse(String str) {
+        int length = str.length();
+        int numberOfParts = 1;
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(i) == '.') {
+                numberOfParts++;
             }
         }
-        for (int i = numbers.size() - 1; i > 0; i--) {
-            if (numbers.get(i) != 0) break;
-            numbers.remove(i);
+
+        long[] parts = new long[numberOfParts];
+        int part = 0;
+        boolean digitSeen = false;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c == '.') {
+                if (!digitSeen) {
+                    throw invalidVersion(str);
+                }
+                part++;
+                digitSeen = false;
+            } else if ((c >= '0') && (c <= '9')) {
+                int digit = c - '0';
+                if (parts[part] > (Long.MAX_VALUE - digit) / 10) {
+                    throw invalidVersion(str);
+                }
+                parts[part] = parts[part] * 10 + digit;
+                digitSeen = true;
+            } else {
+                throw invalidVersion(str);
+            }
+        }
+        if (!digitSeen) {
+            throw invalidVersion(str);
+        }
+
+        int significantParts = numberOfParts;
+        while ((significantParts > 1) && (parts[significantParts - 1] == 0)) {
+            significantParts--;
         }
-        return numbers;
+        if (significantParts == numberOfParts) {
+            return parts;
+        }
+        long[] trimmedParts = new long[significantParts];
+        System.arraycopy(parts, 0, trimmedParts, 0, significantParts);
+        return trimmedParts;
+    }
+
+    /**
+     * Creates the exception for this invalid version.
+     *
+     * @param str The invalid version string.
+     * @return The exception.
+     */
+    private static FlywayException invalidVersion(String str) {
+        return new FlywayException(
+                "Invalid version containing non-numeric characters. Only 0..9 and . are allowed. Invalid version: "
+                        + str);
     }
 }
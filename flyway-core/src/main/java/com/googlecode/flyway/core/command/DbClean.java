@@ -16,16 +16,30 @@
 package com.googlecode.flyway.core.command;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.metadatatable.MetaDataTable;
+import com.googlecode.flyway.core.util.NamedDaemonThreadFactory;
 import com.googlecode.flyway.core.util.StopWatch;
 import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
 import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Main workflow for cleaning the database.
@@ -49,16 +63,44 @@ public class DbClean {
     private final Schema[] schemas;
 
     /**
-     * Creates a new database cleaner.
+     * The dataSource to draw the additional connections from when cleaning in parallel. {@code null} to always clean
+     * sequentially.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The maximum number of schemas to clean concurrently.
+     */
+    private final int threads;
+
+    /**
+     * Creates a new database cleaner that cleans the schemas one after the other.
      *
      * @param connection    The connection to use.
      * @param metaDataTable The metadata table.
      * @param schemas       The schemas to clean.
      */
     public DbClean(Connection connection, MetaDataTable metaDataTable, Schema[] schemas) {
+        this(connection, metaDataTable, schemas, null, 1);
+    }
+
+    /**
+     * Creates a new database cleaner.
+     *
+     * @param connection    The connection to use.
+     * @param metaDataTable The metadata table.
+     * @param schemas       The schemas to clean.
+     * @param dataSource    The dataSource to draw one additional connection per concurrently cleaned schema from.
+     *                      {@code null} to always clean sequentially.
+     * @param threads       The maximum number of schemas to clean concurrently. {@code 1} cleans them one after the
+     *                      other on {@code connection}.
+     */
+    public DbClean(Connection connection, MetaDataTable metaDataTable, Schema[] schemas, DataSource dataSource, int threads) {
         this.connection = connection;
         this.metaDataTable = metaDataTable;
         this.schemas = schemas;
+        this.dataSource = dataSource;
+        this.threads = threads;
     }
 
     /**
@@ -74,22 +116,117 @@ public class DbClean {
             LOG.error("Error while checking whether the schemas should be dropped", e);
         }
 
-        for (Schema schema : schemas) {
-            if (dropSchemas) {
-                dropSchema(schema);
-            } else {
-                cleanSchema(schema);
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        int poolSize = Math.min(threads, schemas.length);
+        if ((dataSource == null) || (poolSize <= 1)) {
+            for (Schema schema : schemas) {
+                cleanOrDropSchema(connection, schema, dropSchemas);
             }
+        } else {
+            cleanInParallel(poolSize, dropSchemas);
+        }
+
+        stopWatch.stop();
+        if (schemas.length > 1) {
+            LOG.info(String.format("Cleaned %d schemas (execution time %s)",
+                    schemas.length, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+        }
+    }
+
+    /**
+     * Cleans the schemas concurrently, each on its own connection. Schemas that fail to be cleaned, typically because
+     * of objects depending on objects in another schema, are cleaned again afterwards one after the other in the
+     * declared order, once all the other schemas are clean.
+     *
+     * @param poolSize    The number of schemas to clean concurrently.
+     * @param dropSchemas Whether to drop the schemas instead of cleaning them.
+     * @throws FlywayException when clean failed.
+     */
+    private void cleanInParallel(int poolSize, final boolean dropSchemas) {
+        LOG.debug("Cleaning " + schemas.length + " schemas using " + poolSize + " connections ...");
+
+        ExecutorService executorService =
+                Executors.newFixedThreadPool(poolSize, new NamedDaemonThreadFactory("flyway-clean"));
+
+        // Opened up front, as some embedded databases (Hsql) deadlock when a connection is opened while another one
+        // is dropping a schema
+        final BlockingQueue<Connection> schemaConnections = new ArrayBlockingQueue<Connection>(poolSize);
+        List<Schema> failedSchemas = new ArrayList<Schema>();
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                schemaConnections.add(JdbcUtils.openConnection(dataSource));
+            }
+
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final Schema schema : schemas) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    public Void call() throws InterruptedException {
+                        Connection schemaConnection = schemaConnections.take();
+                        try {
+                            DbSupport dbSupport = DbSupportFactory.createDbSupport(schemaConnection);
+                            cleanOrDropSchema(schemaConnection, dbSupport.getSchema(schema.getName()), dropSchemas);
+                            return null;
+                        } finally {
+                            schemaConnections.add(schemaConnection);
+                        }
+                    }
+                }));
+            }
+
+            for (int i = 0; i < schemas.length; i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    LOG.debug("Unable to clean schema " + schemas[i] + " concurrently, retrying once the others are clean: "
+                            + cause.getMessage());
+                    failedSchemas.add(schemas[i]);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while cleaning schemas", e);
+        } finally {
+            executorService.shutdownNow();
+            for (Connection schemaConnection : schemaConnections) {
+                JdbcUtils.closeConnection(schemaConnection);
+            }
+        }
+
+        for (Schema schema : failedSchemas) {
+            cleanOrDropSchema(connection, schema, dropSchemas);
+        }
+    }
+
+    /**
+     * Cleans or drops this schema.
+     *
+     * @param connection  The connection to use.
+     * @param schema      The schema to clean.
+     * @param dropSchemas Whether to drop the schema instead of cleaning it.
+     * @throws FlywayException when clean failed.
+     */
+    private void cleanOrDropSchema(Connection connection, Schema schema, boolean dropSchemas) {
+        if (dropSchemas) {
+            dropSchema(connection, schema);
+        } else {
+            cleanSchema(connection, schema);
         }
     }
 
     /**
      * Drops this schema.
      *
-     * @param schema The schema to drop.
+     * @param connection The connection to use.
+     * @param schema     The schema to drop.
      * @throws FlywayException when the drop failed.
      */
-    private void dropSchema(final Schema schema) {
+    private void dropSchema(Connection connection, final Schema schema) {
         LOG.debug("Dropping schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -107,10 +244,11 @@ public class DbClean {
     /**
      * Cleans this schema of all objects.
      *
-     * @param schema The schema to clean.
+     * @param connection The connection to use.
+     * @param schema     The schema to clean.
      * @throws FlywayException when clean failed.
      */
-    private void cleanSchema(final Schema schema) {
+    private void cleanSchema(Connection connection, final Schema schema) {
         LOG.debug("Cleaning schema " + schema + " ...");
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
@@ -17,9 +17,11 @@ package com.googlecode.flyway.core.command;
 
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.api.MigrationInfo;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.api.MigrationState;
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.DbSupportFactory;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.info.MigrationInfoImpl;
@@ -30,17 +32,33 @@ import com.googlecode.flyway.core.resolver.MigrationResolver;
 import com.googlecode.flyway.core.resolver.MigrationResult;
 import com.googlecode.flyway.core.resolver.ResolvedMigration;
 import com.googlecode.flyway.core.util.ExceptionUtils;
+import com.googlecode.flyway.core.util.NamedDaemonThreadFactory;
+import com.googlecode.flyway.core.util.Pair;
 import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
 import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Main workflow for migrating the database.
+ * <p/>
+ * Consecutive pending migrations of the same parallel group are applied concurrently, each on its own connection. Their
+ * results are recorded in the metadata table in version order once all of them are done, and the migration only
+ * proceeds past the group when all of them succeeded.
  *
  * @author Axel Fontaine
  */
@@ -95,6 +113,47 @@ public class DbMigrate {
      */
     private boolean outOfOrder;
 
+    /**
+     * The maximum number of pending migrations to apply while holding a single lock on the metadata table.
+     * {@code 0} applies all pending migrations under a single lock.
+     */
+    private final int batchSize;
+
+    /**
+     * The listener to notify of the progress of the migration.
+     */
+    private final MigrationListener migrationListener;
+
+    /**
+     * The dataSource to draw the additional connections from when applying a parallel group. {@code null} to always
+     * apply the migrations one after the other.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Creates a new database migrator that applies the migrations one after the other, regardless of their parallel
+     * group.
+     *
+     * @param connectionMetaDataTable     The connection to use.
+     * @param connectionUserObjects       The connection to use to perform the actual database migrations.
+     * @param dbSupport                   Database-specific functionality.
+     * @param metaDataTable               The database metadata table.
+     * @param migrationResolver           The migration resolver.
+     * @param target                      The target version of the migration.
+     * @param ignoreFailedFutureMigration Flag whether to ignore failed future migrations or not.
+     * @param outOfOrder                  Allows migrations to be run "out of order".
+     * @param batchSize                   The maximum number of pending migrations to apply while holding a single
+     *                                    lock on the metadata table. {@code 0} for all of them.
+     * @param migrationListener           The listener to notify of the progress of the migration.
+     */
+    public DbMigrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
+                     MetaDataTable metaDataTable, Schema schema, MigrationResolver migrationResolver,
+                     MigrationVersion target, boolean ignoreFailedFutureMigration, boolean outOfOrder, int batchSize,
+                     MigrationListener migrationListener) {
+        this(connectionMetaDataTable, connectionUserObjects, dbSupport, metaDataTable, schema, migrationResolver,
+                target, ignoreFailedFutureMigration, outOfOrder, batchSize, migrationListener, null);
+    }
+
     /**
      * Creates a new database migrator.
      *
@@ -106,10 +165,17 @@ public class DbMigrate {
      * @param target                      The target version of the migration.
      * @param ignoreFailedFutureMigration Flag whether to ignore failed future migrations or not.
      * @param outOfOrder                  Allows migrations to be run "out of order".
+     * @param batchSize                   The maximum number of pending migrations to apply while holding a single
+     *                                    lock on the metadata table. {@code 0} for all of them. A parallel group is
+     *                                    never split across batches.
+     * @param migrationListener           The listener to notify of the progress of the migration.
+     * @param dataSource                  The dataSource to draw one additional connection per migration of a parallel
+     *                                    group from. {@code null} to always apply the migrations one after the other.
      */
     public DbMigrate(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
                      MetaDataTable metaDataTable, Schema schema, MigrationResolver migrationResolver,
-                     MigrationVersion target, boolean ignoreFailedFutureMigration, boolean outOfOrder) {
+                     MigrationVersion target, boolean ignoreFailedFutureMigration, boolean outOfOrder, int batchSize,
+                     MigrationListener migrationListener, DataSource dataSource) {
         this.connectionMetaDataTable = connectionMetaDataTable;
         this.connectionUserObjects = connectionUserObjects;
         this.dbSupport = dbSupport;
@@ -119,6 +185,9 @@ public class DbMigrate {
         this.target = target;
         this.ignoreFailedFutureMigration = ignoreFailedFutureMigration;
         this.outOfOrder = outOfOrder;
+        this.batchSize = batchSize;
+        this.migrationListener = migrationListener;
+        this.dataSource = dataSource;
     }
 
     /**
@@ -134,10 +203,13 @@ public class DbMigrate {
         int migrationSuccessCount = 0;
         while (true) {
             final boolean firstRun = migrationSuccessCount == 0;
-            final MigrationResult result =
-                    new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<MigrationResult>() {
-                        public MigrationResult doInTransaction() {
+            final List<MigrationVersion> committedGroupMembers = new ArrayList<MigrationVersion>();
+            final List<MigrationResult> results =
+                    new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<List<MigrationResult>>() {
+                        public List<MigrationResult> doInTransaction() {
+                            long lockStart = System.currentTimeMillis();
                             metaDataTable.lock();
+                            migrationListener.lockAcquired(System.currentTimeMillis() - lockStart);
 
                             MigrationInfoServiceImpl infoService =
                                     new MigrationInfoServiceImpl(migrationResolver, metaDataTable, target, outOfOrder);
@@ -175,31 +247,69 @@ public class DbMigrate {
                                         && ignoreFailedFutureMigration) {
                                     LOG.warn("Schema " + schema + " contains a failed future migration to version " + failed[0].getVersion() + " !");
                                 } else {
-                                    return MigrationResult.createFailed(failed[0].getVersion(), null);
+                                    throw new FlywayException("Migration of schema " + schema + " to version " + failed[0].getVersion()
+                                            + " failed! Please restore backups and roll back database and code!");
                                 }
                             }
 
                             MigrationInfoImpl[] pendingMigrations = infoService.pending();
 
-                            if (pendingMigrations.length == 0) {
-                                return null;
+                            int batchEnd = pendingMigrations.length;
+                            if ((batchSize > 0) && (batchSize < batchEnd)) {
+                                batchEnd = batchSize;
                             }
 
-                            boolean isOutOfOrder = pendingMigrations[0].getVersion().compareTo(currentSchemaVersion) < 0;
-                            return applyMigration(pendingMigrations[0].getResolvedMigration(), isOutOfOrder);
+                            List<MigrationResult> batchResults = new ArrayList<MigrationResult>();
+                            int i = 0;
+                            while (i < batchEnd) {
+                                int groupEnd = findParallelGroupEnd(pendingMigrations, i);
+                                List<MigrationResult> groupResults;
+                                if (groupEnd - i > 1) {
+                                    groupResults = applyParallelGroup(pendingMigrations, i, groupEnd, currentSchemaVersion);
+                                } else {
+                                    boolean isOutOfOrder = pendingMigrations[i].getVersion().compareTo(currentSchemaVersion) < 0;
+                                    groupResults = new ArrayList<MigrationResult>();
+                                    groupResults.add(applyMigration(pendingMigrations[i], isOutOfOrder));
+                                }
+                                batchResults.addAll(groupResults);
+                                i = groupEnd;
+
+                                if (!allSucceeded(groupResults)) {
+                                    // The other migrations of a parallel group ran on their own connections and
+                                    // have been committed regardless
+                                    for (MigrationResult groupResult : groupResults) {
+                                        if (groupResult.isSuccess()) {
+                                            committedGroupMembers.add(groupResult.getMigrationVersion());
+                                        }
+                                    }
+                                    // Commit what has been recorded so far, the failure is reported outside the transaction
+                                    break;
+                                }
+                            }
+                            return batchResults;
                         }
                     });
 
-            if (result == null) {
+            if (results.isEmpty()) {
                 // No further migrations available
                 break;
             }
 
-            if (!result.isSuccess()) {
-                throw new FlywayException("Migration of schema " + schema + " to version " + result.getMigrationVersion() + " failed! Please restore backups and roll back database and code!", result.getErrorCause());
+            for (MigrationResult result : results) {
+                if (!result.isSuccess()) {
+                    if (dbSupport.supportsDdlTransactions()) {
+                        if (!committedGroupMembers.isEmpty()) {
+                            throw new FlywayException("Migration of schema " + schema + " to version " + result.getMigrationVersion() + " failed!" +
+                                    " Its changes were rolled back, but the other migrations of its parallel group were committed: "
+                                    + StringUtils.collectionToCommaDelimitedString(committedGroupMembers), result.getErrorCause());
+                        }
+                        throw new FlywayException("Migration of schema " + schema + " to version " + result.getMigrationVersion() + " failed!" +
+                                " Changes successfully rolled back.", result.getErrorCause());
+                    }
+                    throw new FlywayException("Migration of schema " + schema + " to version " + result.getMigrationVersion() + " failed! Please restore backups and roll back database and code!", result.getErrorCause());
+                }
+                migrationSuccessCount++;
             }
-
-            migrationSuccessCount++;
         }
 
         stopWatch.stop();
@@ -227,14 +337,178 @@ public class DbMigrate {
         }
     }
 
+    /**
+     * Finds the end of the parallel group starting at this pending migration. A group is never split across batches.
+     *
+     * @param pendingMigrations The pending migrations.
+     * @param start             The index of the first migration of the group.
+     * @return The index after the last migration of the group. {@code start + 1} if the migration is to be applied
+     * on its own.
+     */
+    private int findParallelGroupEnd(MigrationInfoImpl[] pendingMigrations, int start) {
+        String parallelGroup = pendingMigrations[start].getResolvedMigration().getParallelGroup();
+        if ((dataSource == null) || (parallelGroup == null)) {
+            return start + 1;
+        }
+
+        int end = start + 1;
+        while ((end < pendingMigrations.length)
+                && parallelGroup.equals(pendingMigrations[end].getResolvedMigration().getParallelGroup())) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Checks whether all these migrations succeeded.
+     *
+     * @param results The results of the migrations.
+     * @return {@code true} if they did, {@code false} if at least one of them failed.
+     */
+    private static boolean allSucceeded(List<MigrationResult> results) {
+        for (MigrationResult result : results) {
+            if (!result.isSuccess()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Applies this migration to the database. The migration state and the execution time are updated accordingly.
      *
-     * @param migration    The migration to apply.
-     * @param isOutOfOrder If this migration is being applied out of order.
+     * @param migrationInfo The migration to apply.
+     * @param isOutOfOrder  If this migration is being applied out of order.
      * @return The result of the migration.
      */
-    private MigrationResult applyMigration(final ResolvedMigration migration, boolean isOutOfOrder) {
+    private MigrationResult applyMigration(MigrationInfoImpl migrationInfo, boolean isOutOfOrder) {
+        Pair<MigrationResult, Integer> execution = executeMigration(connectionUserObjects, migrationInfo, isOutOfOrder);
+        return recordMigration(migrationInfo, execution.getLeft(), execution.getRight());
+    }
+
+    /**
+     * Applies these migrations of a parallel group to the database concurrently, each on its own connection. Once all
+     * of them are done, their results are recorded in version order, so that their ranks in the metadata table are the
+     * same as if they had been applied one after the other.
+     *
+     * @param pendingMigrations    The pending migrations.
+     * @param start                The index of the first migration of the group.
+     * @param end                  The index after the last migration of the group.
+     * @param currentSchemaVersion The current version of the schema.
+     * @return The results of the migrations of the group, in version order.
+     */
+    private List<MigrationResult> applyParallelGroup(final MigrationInfoImpl[] pendingMigrations, int start, int end,
+                                                     MigrationVersion currentSchemaVersion) {
+        int groupSize = end - start;
+        LOG.info("Migrating schema " + schema + " with " + groupSize + " migrations of parallel group "
+                + pendingMigrations[start].getResolvedMigration().getParallelGroup() + " concurrently");
+
+        ExecutorService executorService =
+                Executors.newFixedThreadPool(groupSize, new NamedDaemonThreadFactory("flyway-migrate"));
+
+        // Opened up front, like for a parallel clean, as some embedded databases deadlock when a connection is opened
+        // while another one is changing the schema
+        List<Connection> groupConnections = new ArrayList<Connection>();
+        List<Schema> originalSchemas = new ArrayList<Schema>();
+        List<Pair<MigrationResult, Integer>> executions = new ArrayList<Pair<MigrationResult, Integer>>();
+        try {
+            for (int i = start; i < end; i++) {
+                Connection groupConnection = JdbcUtils.openConnection(dataSource);
+                groupConnections.add(groupConnection);
+                originalSchemas.add(changeCurrentSchema(groupConnection));
+            }
+
+            List<Future<Pair<MigrationResult, Integer>>> futures = new ArrayList<Future<Pair<MigrationResult, Integer>>>();
+            for (int i = start; i < end; i++) {
+                final MigrationInfoImpl migrationInfo = pendingMigrations[i];
+                final boolean isOutOfOrder = migrationInfo.getVersion().compareTo(currentSchemaVersion) < 0;
+                final Connection groupConnection = groupConnections.get(i - start);
+                futures.add(executorService.submit(new Callable<Pair<MigrationResult, Integer>>() {
+                    public Pair<MigrationResult, Integer> call() {
+                        return executeMigration(groupConnection, migrationInfo, isOutOfOrder);
+                    }
+                }));
+            }
+
+            for (int i = start; i < end; i++) {
+                try {
+                    executions.add(futures.get(i - start).get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    executions.add(Pair.of(MigrationResult.createFailed(pendingMigrations[i].getVersion(),
+                            ExceptionUtils.getRootCause(cause)), 0));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while migrating schema " + schema, e);
+        } finally {
+            executorService.shutdownNow();
+            for (int i = 0; i < groupConnections.size(); i++) {
+                if (i < originalSchemas.size()) {
+                    restoreCurrentSchema(groupConnections.get(i), originalSchemas.get(i));
+                }
+                JdbcUtils.closeConnection(groupConnections.get(i));
+            }
+        }
+
+        List<MigrationResult> results = new ArrayList<MigrationResult>();
+        for (int i = start; i < end; i++) {
+            Pair<MigrationResult, Integer> execution = executions.get(i - start);
+            results.add(recordMigration(pendingMigrations[i], execution.getLeft(), execution.getRight()));
+        }
+        return results;
+    }
+
+    /**
+     * Makes the schema containing the metadata table the current schema of this additional connection, like it is for
+     * the connection for user objects.
+     *
+     * @param connection The additional connection.
+     * @return The original current schema of the connection. {@code null} if it was already the right one.
+     */
+    private Schema changeCurrentSchema(Connection connection) {
+        DbSupport connectionDbSupport = DbSupportFactory.createDbSupport(connection);
+        Schema originalSchema = connectionDbSupport.getCurrentSchema();
+        Schema migrationSchema = connectionDbSupport.getSchema(schema.getName());
+        if (migrationSchema.equals(originalSchema)) {
+            return null;
+        }
+        connectionDbSupport.setCurrentSchema(migrationSchema);
+        return originalSchema;
+    }
+
+    /**
+     * Restores the original current schema of this additional connection, before it is handed back to the dataSource.
+     *
+     * @param connection     The additional connection.
+     * @param originalSchema The original current schema of the connection. {@code null} if it wasn't changed.
+     */
+    private void restoreCurrentSchema(Connection connection, Schema originalSchema) {
+        if (originalSchema == null) {
+            return;
+        }
+        try {
+            DbSupportFactory.createDbSupport(connection).setCurrentSchema(originalSchema);
+        } catch (FlywayException e) {
+            LOG.warn("Unable to restore current schema " + originalSchema + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executes this migration on this connection, in its own transaction.
+     *
+     * @param connection    The connection to use.
+     * @param migrationInfo The migration to execute.
+     * @param isOutOfOrder  If this migration is being applied out of order.
+     * @return The result of the migration and its execution time (in ms).
+     */
+    private Pair<MigrationResult, Integer> executeMigration(final Connection connection, MigrationInfoImpl migrationInfo,
+                                                            boolean isOutOfOrder) {
+        final ResolvedMigration migration = migrationInfo.getResolvedMigration();
         MigrationVersion version = migration.getVersion();
         if (isOutOfOrder) {
             LOG.info("Migrating schema " + schema + " to version " + version + " (out of order)");
@@ -242,14 +516,16 @@ public class DbMigrate {
             LOG.info("Migrating schema " + schema + " to version " + version);
         }
 
+        migrationListener.migrationStarted(migrationInfo);
+
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
         MigrationResult migrationResult;
         try {
-            new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Void>() {
+            new TransactionTemplate(connection).execute(new TransactionCallback<Void>() {
                 public Void doInTransaction() {
-                    migration.getExecutor().execute(connectionUserObjects);
+                    migration.getExecutor().execute(connection);
                     return null;
                 }
             });
@@ -261,10 +537,27 @@ public class DbMigrate {
 
         stopWatch.stop();
         int executionTime = (int) stopWatch.getTotalTimeMillis();
+        migrationListener.migrationFinished(migrationInfo, migrationResult.isSuccess(), executionTime);
+
+        return Pair.of(migrationResult, executionTime);
+    }
+
+    /**
+     * Records the result of this migration in the metadata table.
+     *
+     * @param migrationInfo   The migration that was applied.
+     * @param migrationResult The result of the migration.
+     * @param executionTime   The execution time of the migration (in ms).
+     * @return The result of the migration.
+     */
+    private MigrationResult recordMigration(MigrationInfoImpl migrationInfo, MigrationResult migrationResult,
+                                            int executionTime) {
+        ResolvedMigration migration = migrationInfo.getResolvedMigration();
+        MigrationVersion version = migration.getVersion();
 
         if (!migrationResult.isSuccess() && dbSupport.supportsDdlTransactions()) {
-            throw new FlywayException("Migration of schema " + schema + " to version " + version + " failed!" +
-                    " Changes successfully rolled back.", migrationResult.getErrorCause());
+            // The changes have been rolled back. Nothing to record.
+            return migrationResult;
         }
         LOG.debug(String.format("Finished migrating schema %s to version %s (execution time %s)",
                 schema, version, TimeFormat.format(executionTime)));
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.command;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.resolver.MigrationResolver;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
+import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.jdbc.TransactionCallback;
+import com.googlecode.flyway.core.util.jdbc.TransactionTemplate;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Main workflow for resetting the data of an already migrated database. Unlike a clean followed by a migrate, the
+ * structure and the metadata table are kept: only the rows of the user tables are removed, after which the seed data
+ * is applied again.
+ */
+public class DbReset {
+    private static final Log LOG = LogFactory.getLog(DbReset.class);
+
+    /**
+     * The database connection to use for accessing the metadata table and truncating the tables.
+     */
+    private final Connection connectionMetaDataTable;
+
+    /**
+     * The database connection to use for applying the seed data.
+     */
+    private final Connection connectionUserObjects;
+
+    /**
+     * The database-specific support for truncating the tables.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The metadata table. Left untouched.
+     */
+    private final Table metaDataTable;
+
+    /**
+     * The schemas whose tables to truncate.
+     */
+    private final Schema[] schemas;
+
+    /**
+     * The resolver for the seed data migrations.
+     */
+    private final MigrationResolver seedResolver;
+
+    /**
+     * Creates a new database reset.
+     *
+     * @param connectionMetaDataTable The database connection to use for accessing the metadata table and truncating
+     *                                the tables.
+     * @param connectionUserObjects   The database connection to use for applying the seed data.
+     * @param dbSupport               The database-specific support for truncating the tables.
+     * @param metaDataTable           The metadata table. Left untouched.
+     * @param schemas                 The schemas whose tables to truncate.
+     * @param seedResolver            The resolver for the seed data migrations.
+     */
+    public DbReset(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport,
+                   Table metaDataTable, Schema[] schemas, MigrationResolver seedResolver) {
+        this.connectionMetaDataTable = connectionMetaDataTable;
+        this.connectionUserObjects = connectionUserObjects;
+        this.dbSupport = dbSupport;
+        this.metaDataTable = metaDataTable;
+        this.schemas = schemas;
+        this.seedResolver = seedResolver;
+    }
+
+    /**
+     * Truncates the tables of all schemas and applies the seed data.
+     *
+     * @return The number of seed data migrations applied.
+     * @throws FlywayException when the reset failed.
+     */
+    public int reset() throws FlywayException {
+        if (!metaDataTable.exists()) {
+            throw new FlywayException("Unable to reset the data as metadata table " + metaDataTable
+                    + " does not exist. Use migrate() first.");
+        }
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        new TransactionTemplate(connectionMetaDataTable).execute(new TransactionCallback<Void>() {
+            public Void doInTransaction() {
+                dbSupport.truncate(schemas, metaDataTable);
+                return null;
+            }
+        });
+        LOG.debug("Truncated tables of schemas " + StringUtils.arrayToCommaDelimitedString(schemas));
+
+        List<ResolvedMigration> seedMigrations = seedResolver.resolveMigrations();
+        for (final ResolvedMigration seedMigration : seedMigrations) {
+            LOG.debug("Applying seed data " + seedMigration.getScript());
+            new TransactionTemplate(connectionUserObjects).execute(new TransactionCallback<Void>() {
+                public Void doInTransaction() {
+                    seedMigration.getExecutor().execute(connectionUserObjects);
+                    return null;
+                }
+            });
+        }
+
+        stopWatch.stop();
+        LOG.info(String.format("Reset data of %d schemas and applied %d seed data migrations (execution time %s)",
+                schemas.length, seedMigrations.size(), TimeFormat.format(stopWatch.getTotalTimeMillis())));
+
+        return seedMigrations.size();
+    }
+}
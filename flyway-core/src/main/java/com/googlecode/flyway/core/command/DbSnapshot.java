@@ -0,0 +1,171 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.command;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.dbsupport.DbSupport;
+import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.dbsupport.Table;
+import com.googlecode.flyway.core.util.StopWatch;
+import com.googlecode.flyway.core.util.TimeFormat;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves snapshots of freshly migrated databases and restores them instead of migrating again. Snapshots are keyed by
+ * the fingerprint of the available migrations, the schemas and the metadata table, so a snapshot is only ever restored
+ * for the exact set of migrations and schemas it was taken with.
+ */
+public class DbSnapshot {
+    private static final Log LOG = LogFactory.getLog(DbSnapshot.class);
+
+    /**
+     * The database-specific support.
+     */
+    private final DbSupport dbSupport;
+
+    /**
+     * The metadata table.
+     */
+    private final Table metaDataTable;
+
+    /**
+     * The schemas managed by Flyway.
+     */
+    private final Schema[] schemas;
+
+    /**
+     * The file holding the snapshot for the available migrations.
+     */
+    private final File snapshotFile;
+
+    /**
+     * Creates a new DbSnapshot.
+     *
+     * @param dbSupport     The database-specific support.
+     * @param metaDataTable The metadata table.
+     * @param schemas       The schemas managed by Flyway.
+     * @param snapshotDir   The directory holding the snapshots.
+     * @param fingerprint   The fingerprint of the available migrations, the schemas and the metadata table.
+     */
+    public DbSnapshot(DbSupport dbSupport, Table metaDataTable, Schema[] schemas, File snapshotDir, String fingerprint) {
+        this.dbSupport = dbSupport;
+        this.metaDataTable = metaDataTable;
+        this.schemas = schemas;
+        this.snapshotFile = new File(snapshotDir, "flyway-" + fingerprint + ".snapshot");
+    }
+
+    /**
+     * Checks whether the database has not been migrated yet, which is the only state in which a snapshot can be
+     * restored or taken.
+     *
+     * @return {@code true} if the metadata table doesn't exist and all schemas are either missing or empty.
+     */
+    public boolean isUnmigrated() {
+        if (metaDataTable.exists()) {
+            return false;
+        }
+        for (Schema schema : schemas) {
+            if (schema.exists() && !schema.empty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores the snapshot for the available migrations, if there is one. The database must not have been migrated
+     * yet. When the restore fails, the database is returned to its original state and the snapshot is discarded.
+     *
+     * @return {@code true} if the snapshot was restored, {@code false} if there was none or it could not be restored.
+     */
+    public boolean restore() {
+        if (!snapshotFile.isFile()) {
+            return false;
+        }
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        List<Schema> createdSchemas = new ArrayList<Schema>();
+        try {
+            for (Schema schema : schemas) {
+                if (!schema.exists()) {
+                    schema.create();
+                    createdSchemas.add(schema);
+                }
+            }
+            dbSupport.restoreSnapshot(schemas, snapshotFile);
+            if (!metaDataTable.exists()) {
+                throw new FlywayException("Metadata table " + metaDataTable + " not found in snapshot");
+            }
+        } catch (FlywayException e) {
+            LOG.warn("Unable to restore snapshot " + snapshotFile + ", migrating instead: " + e.getMessage());
+            for (Schema schema : schemas) {
+                if (createdSchemas.contains(schema)) {
+                    schema.drop();
+                } else {
+                    schema.clean();
+                }
+            }
+            if (!snapshotFile.delete()) {
+                LOG.warn("Unable to delete snapshot " + snapshotFile);
+            }
+            return false;
+        }
+
+        stopWatch.stop();
+        LOG.info(String.format("Restored snapshot %s (execution time %s)",
+                snapshotFile, TimeFormat.format(stopWatch.getTotalTimeMillis())));
+        return true;
+    }
+
+    /**
+     * Saves a snapshot of the freshly migrated database for the available migrations, unless there already is one.
+     * The snapshot is written to a temporary file first, so that concurrent processes never see a partial snapshot.
+     * Failures are logged, but do not fail the migration.
+     */
+    public void save() {
+        if (snapshotFile.isFile()) {
+            return;
+        }
+
+        File snapshotDir = snapshotFile.getAbsoluteFile().getParentFile();
+        if (!snapshotDir.isDirectory() && !snapshotDir.mkdirs()) {
+            LOG.warn("Unable to create snapshot directory " + snapshotDir);
+            return;
+        }
+
+        File tempFile = new File(snapshotDir, snapshotFile.getName() + "." + System.nanoTime() + ".tmp");
+        try {
+            dbSupport.saveSnapshot(schemas, tempFile);
+            if (!tempFile.renameTo(snapshotFile) && !snapshotFile.isFile()) {
+                throw new FlywayException("Unable to rename " + tempFile + " to " + snapshotFile);
+            }
+            LOG.info("Saved snapshot " + snapshotFile);
+        } catch (FlywayException e) {
+            LOG.warn("Unable to save snapshot " + snapshotFile + ": " + e.getMessage());
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOG.warn("Unable to delete temporary snapshot " + tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory snapshot of the objects in a schema and of the foreign keys between its tables, loaded from the catalog in
+ * a fixed number of queries regardless of the number of objects. It is used to plan the drops of a clean without
+ * going back to the catalog for every object.
+ * <p/>
+ * Objects are grouped by type. The types are the keywords used to drop them (TABLE, VIEW, SEQUENCE, ...).
+ */
+public class CatalogSnapshot {
+    /**
+     * The type of tables.
+     */
+    public static final String TABLE = "TABLE";
+
+    /**
+     * The names of the objects in the schema, by type, in the order they were added.
+     */
+    private final Map<String, List<String>> objectNames = new LinkedHashMap<String, List<String>>();
+
+    /**
+     * The foreign keys between the tables of the schema.
+     */
+    private final List<ForeignKey> foreignKeys = new ArrayList<ForeignKey>();
+
+    /**
+     * Adds this object to the snapshot.
+     *
+     * @param objectType The type of the object (TABLE, VIEW, SEQUENCE, ...).
+     * @param objectName The name of the object.
+     */
+    public void addObject(String objectType, String objectName) {
+        List<String> names = objectNames.get(objectType);
+        if (names == null) {
+            names = new ArrayList<String>();
+            objectNames.put(objectType, names);
+        }
+        names.add(objectName);
+    }
+
+    /**
+     * Adds this foreign key to the snapshot.
+     *
+     * @param tableName           The name of the table the foreign key is defined on.
+     * @param constraintName      The name of the foreign key constraint.
+     * @param referencedTableName The name of the table in the same schema the foreign key references.
+     */
+    public void addForeignKey(String tableName, String constraintName, String referencedTableName) {
+        foreignKeys.add(new ForeignKey(tableName, constraintName, referencedTableName));
+    }
+
+    /**
+     * Retrieves the names of the objects of this type.
+     *
+     * @param objectType The type of the objects (TABLE, VIEW, SEQUENCE, ...).
+     * @return The names of the objects. An empty list if there are none.
+     */
+    public List<String> getObjectNames(String objectType) {
+        List<String> names = objectNames.get(objectType);
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return Whether the snapshot contains no objects at all.
+     */
+    public boolean isEmpty() {
+        return objectNames.isEmpty();
+    }
+
+    /**
+     * Orders the tables so that every table comes before the tables it references. Dropping them in this order never
+     * violates a foreign key, provided the foreign keys returned by {@link #getForeignKeysToDropFirst()} have been
+     * dropped beforehand.
+     *
+     * @return The names of the tables, in drop order.
+     */
+    public List<String> getTablesInDropOrder() {
+        List<String> dropOrder = new ArrayList<String>();
+        Set<String> remaining = orderTables(dropOrder);
+        for (String tableName : getObjectNames(TABLE)) {
+            if (remaining.contains(tableName)) {
+                dropOrder.add(tableName);
+            }
+        }
+        return dropOrder;
+    }
+
+    /**
+     * Retrieves the foreign keys that prevent the tables from being dropped in any order, because their tables reference
+     * each other in a cycle. These must be dropped before the tables.
+     *
+     * @return The foreign keys to drop first. An empty list if the tables don't reference each other in a cycle.
+     */
+    public List<ForeignKey> getForeignKeysToDropFirst() {
+        Set<String> remaining = orderTables(new ArrayList<String>());
+
+        List<ForeignKey> foreignKeysToDropFirst = new ArrayList<ForeignKey>();
+        for (ForeignKey foreignKey : foreignKeys) {
+            if (remaining.contains(foreignKey.getTableName()) && remaining.contains(foreignKey.getReferencedTableName())) {
+                foreignKeysToDropFirst.add(foreignKey);
+            }
+        }
+        return foreignKeysToDropFirst;
+    }
+
+    /**
+     * Orders as many tables as possible so that every table comes before the tables it references.
+     *
+     * @param ordered The list to add the ordered tables to.
+     * @return The tables that could not be ordered because they are part of, or referenced from, a cycle.
+     */
+    private Set<String> orderTables(List<String> ordered) {
+        Set<String> remaining = new LinkedHashSet<String>(getObjectNames(TABLE));
+
+        // For every table, the other tables that reference it and must therefore be dropped before it
+        Map<String, Set<String>> referencingTables = new HashMap<String, Set<String>>();
+        for (ForeignKey foreignKey : foreignKeys) {
+            String tableName = foreignKey.getTableName();
+            String referencedTableName = foreignKey.getReferencedTableName();
+            if (tableName.equals(referencedTableName)
+                    || !remaining.contains(tableName) || !remaining.contains(referencedTableName)) {
+                continue;
+            }
+
+            Set<String> referencing = referencingTables.get(referencedTableName);
+            if (referencing == null) {
+                referencing = new HashSet<String>();
+                referencingTables.put(referencedTableName, referencing);
+            }
+            referencing.add(tableName);
+        }
+
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (String tableName : new ArrayList<String>(remaining)) {
+                Set<String> referencing = referencingTables.get(tableName);
+                if ((referencing == null) || Collections.disjoint(referencing, remaining)) {
+                    ordered.add(tableName);
+                    remaining.remove(tableName);
+                    progress = true;
+                }
+            }
+        }
+
+        return remaining;
+    }
+
+    /**
+     * A foreign key between two tables of the schema.
+     */
+    public static class ForeignKey {
+        /**
+         * The name of the table the foreign key is defined on.
+         */
+        private final String tableName;
+
+        /**
+         * The name of the foreign key constraint.
+         */
+        private final String constraintName;
+
+        /**
+         * The name of the referenced table.
+         */
+        private final String referencedTableName;
+
+        /**
+         * Creates a new foreign key.
+         *
+         * @param tableName           The name of the table the foreign key is defined on.
+         * @param constraintName      The name of the foreign key constraint.
+         * @param referencedTableName The name of the referenced table.
+         */
+        public ForeignKey(String tableName, String constraintName, String referencedTableName) {
+            this.tableName = tableName;
+            this.constraintName = constraintName;
+            this.referencedTableName = referencedTableName;
+        }
+
+        /**
+         * @return The name of the table the foreign key is defined on.
+         */
+        public String getTableName() {
+            return tableName;
+        }
+
+        /**
+         * @return The name of the foreign key constraint.
+         */
+        public String getConstraintName() {
+            return constraintName;
+        }
+
+        /**
+         * @return The name of the referenced table.
+         */
+        public String getReferencedTableName() {
+            return referencedTableName;
+        }
+    }
+}
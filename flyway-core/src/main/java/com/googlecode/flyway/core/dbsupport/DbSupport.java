@@ -16,13 +16,25 @@
 package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.util.StringUtils;
+import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Abstraction for database-specific functionality.
  */
 public abstract class DbSupport {
+    private static final Log LOG = LogFactory.getLog(DbSupport.class);
+
     /**
      * The JDBC template available for use.
      */
@@ -113,6 +125,236 @@ public abstract class DbSupport {
      */
     protected abstract void doSetCurrentSchema(Schema schema) throws SQLException;
 
+    /**
+     * Turns this value into a sql string literal, by surrounding it with single quotes and doubling the single quotes
+     * within it.
+     *
+     * @param value The value to turn into a literal.
+     * @return The literal.
+     */
+    public String toLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * Enables or disables the checking of foreign keys for this connection only, if the database supports it. Databases
+     * whose switch affects all connections, such as H2 and HSQLDB, must not implement this.
+     *
+     * @param enabled {@code true} to enable the checks, {@code false} to disable them.
+     * @return {@code true} if the checks were changed, {@code false} if the database does not support this, in which
+     *         case tables must be truncated in dependency order.
+     */
+    public boolean setForeignKeyChecks(boolean enabled) {
+        try {
+            return doSetForeignKeyChecks(enabled);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to " + (enabled ? "enable" : "disable") + " foreign key checks", e);
+        }
+    }
+
+    /**
+     * Enables or disables the checking of foreign keys for this connection only, if the database supports it.
+     *
+     * @param enabled {@code true} to enable the checks, {@code false} to disable them.
+     * @return {@code true} if the checks were changed, {@code false} if the database does not support this.
+     * @throws SQLException when the checks could not be changed.
+     */
+    protected boolean doSetForeignKeyChecks(boolean enabled) throws SQLException {
+        return false;
+    }
+
+    /**
+     * Removes all rows from the tables in these schemas, keeping their structure and all other objects. The schemas are
+     * truncated together, so that foreign keys between tables of different schemas don't get in the way.
+     *
+     * @param schemas        The schemas whose tables to truncate.
+     * @param excludedTables The tables to leave untouched, such as the metadata table.
+     */
+    public void truncate(Schema[] schemas, Table... excludedTables) {
+        try {
+            doTruncate(schemas, excludedTables);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to truncate schemas "
+                    + StringUtils.arrayToCommaDelimitedString(schemas), e);
+        }
+    }
+
+    /**
+     * Removes all rows from the tables in these schemas. If foreign key checks can be disabled for this connection,
+     * the tables are simply truncated one by one. Otherwise the foreign keys forming cycles are broken first by setting
+     * their columns to null, after which the tables are truncated in dependency order. Tables that still can't be
+     * truncated, because the order isn't known for this database, are retried until no more progress is made.
+     *
+     * @param schemas        The schemas whose tables to truncate.
+     * @param excludedTables The tables to leave untouched, such as the metadata table.
+     * @throws SQLException when the truncation failed.
+     */
+    protected void doTruncate(Schema[] schemas, Table... excludedTables) throws SQLException {
+        List<Table> tables = getTablesToTruncate(schemas, excludedTables);
+
+        boolean foreignKeyChecksDisabled = setForeignKeyChecks(false);
+        try {
+            if (!foreignKeyChecksDisabled) {
+                for (Schema schema : schemas) {
+                    for (CatalogSnapshot.ForeignKey foreignKey : schema.snapshot().getForeignKeysToDropFirst()) {
+                        Table table = schema.getTable(foreignKey.getTableName());
+                        if (tables.contains(table)) {
+                            breakForeignKey(table, foreignKey.getConstraintName());
+                        }
+                    }
+                }
+            }
+
+            List<Table> remainingTables = tables;
+            while (!remainingTables.isEmpty()) {
+                List<Table> failedTables = new ArrayList<Table>();
+                SQLException lastException = null;
+                for (Table table : remainingTables) {
+                    try {
+                        table.doTruncate();
+                    } catch (SQLException e) {
+                        failedTables.add(table);
+                        lastException = e;
+                    }
+                }
+                if (failedTables.size() == remainingTables.size()) {
+                    throw lastException;
+                }
+                remainingTables = failedTables;
+            }
+        } finally {
+            if (foreignKeyChecksDisabled) {
+                setForeignKeyChecks(true);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the tables to truncate in these schemas. Within each schema the tables come before the tables they
+     * reference, as far as the snapshot of the schema knows about foreign keys.
+     *
+     * @param schemas        The schemas whose tables to truncate.
+     * @param excludedTables The tables to leave out.
+     * @return The tables to truncate.
+     */
+    protected List<Table> getTablesToTruncate(Schema[] schemas, Table... excludedTables) {
+        List<Table> tables = new ArrayList<Table>();
+        for (Schema schema : schemas) {
+            for (String tableName : schema.snapshot().getTablesInDropOrder()) {
+                tables.add(schema.getTable(tableName));
+            }
+        }
+        tables.removeAll(Arrays.asList(excludedTables));
+        return tables;
+    }
+
+    /**
+     * Sets the columns of this foreign key to null in all rows of this table, so that the rows they reference can be
+     * deleted first. Foreign keys on columns that don't accept null are left as they are.
+     *
+     * @param table          The table holding the foreign key.
+     * @param constraintName The name of the foreign key constraint.
+     * @throws SQLException when the columns of the foreign key could not be retrieved.
+     */
+    private void breakForeignKey(Table table, String constraintName) throws SQLException {
+        List<String> columns = new ArrayList<String>();
+        ResultSet resultSet = null;
+        try {
+            resultSet = jdbcTemplate.getMetaData().getImportedKeys(null, table.getSchema().getName(), table.getName());
+            while (resultSet.next()) {
+                if (constraintName.equals(resultSet.getString("FK_NAME"))) {
+                    columns.add(resultSet.getString("FKCOLUMN_NAME"));
+                }
+            }
+        } finally {
+            JdbcUtils.closeResultSet(resultSet);
+        }
+
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        StringBuilder statement = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                statement.append(", ");
+            }
+            statement.append(quote(columns.get(i))).append(" = NULL");
+        }
+
+        try {
+            jdbcTemplate.execute(statement.toString());
+        } catch (SQLException e) {
+            LOG.debug("Unable to break foreign key " + constraintName + " of table " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether snapshots of the schemas can be saved to a file and restored from it for this database. This is
+     * typically only the case for embedded databases, where the database writes and reads the file itself.
+     *
+     * @return {@code true} if snapshots are supported, {@code false} if not. (default: {@code false})
+     */
+    public boolean supportsSnapshots() {
+        return false;
+    }
+
+    /**
+     * Saves a snapshot of the structure and the data of these schemas to this file.
+     *
+     * @param schemas The schemas to include in the snapshot.
+     * @param file    The file to save the snapshot to.
+     */
+    public void saveSnapshot(Schema[] schemas, File file) {
+        try {
+            doSaveSnapshot(schemas, file);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to save snapshot to " + file, e);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to save snapshot to " + file, e);
+        }
+    }
+
+    /**
+     * Saves a snapshot of the structure and the data of these schemas to this file.
+     *
+     * @param schemas The schemas to include in the snapshot.
+     * @param file    The file to save the snapshot to.
+     * @throws SQLException when the snapshot could not be saved.
+     * @throws IOException  when the snapshot file could not be written.
+     */
+    protected void doSaveSnapshot(Schema[] schemas, File file) throws SQLException, IOException {
+        throw new FlywayException("Snapshots are not supported for this database");
+    }
+
+    /**
+     * Restores the structure and the data of these schemas from this snapshot. The schemas must exist and be empty.
+     *
+     * @param schemas The schemas to restore.
+     * @param file    The file containing the snapshot.
+     */
+    public void restoreSnapshot(Schema[] schemas, File file) {
+        try {
+            doRestoreSnapshot(schemas, file);
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to restore snapshot from " + file, e);
+        } catch (IOException e) {
+            throw new FlywayException("Unable to restore snapshot from " + file, e);
+        }
+    }
+
+    /**
+     * Restores the structure and the data of these schemas from this snapshot. The schemas must exist and be empty.
+     *
+     * @param schemas The schemas to restore.
+     * @param file    The file containing the snapshot.
+     * @throws SQLException when the snapshot could not be restored.
+     * @throws IOException  when the snapshot file could not be read.
+     */
+    protected void doRestoreSnapshot(Schema[] schemas, File file) throws SQLException, IOException {
+        throw new FlywayException("Snapshots are not supported for this database");
+    }
+
     /**
      * @return The database function that returns the current user.
      */
@@ -221,13 +221,37 @@ public class JdbcTemplate {
      * Executes this sql statement using an ordinary Statement.
      *
      * @param sql The statement to execute.
+     * @return The number of rows updated by the statement. -1 if it produced a result set or no update count.
      * @throws SQLException when the execution failed.
      */
-    public void executeStatement(String sql) throws SQLException {
+    public int executeStatement(String sql) throws SQLException {
         Statement statement = null;
         try {
             statement = connection.createStatement();
-            statement.execute(sql);
+            if (statement.execute(sql)) {
+                return -1;
+            }
+            return statement.getUpdateCount();
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
+    /**
+     * Executes these sql statements as a single JDBC batch using an ordinary Statement.
+     *
+     * @param sqls The statements to execute.
+     * @return The update counts of the statements, in order.
+     * @throws SQLException when the execution failed.
+     */
+    public int[] executeBatch(List<String> sqls) throws SQLException {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            for (String sql : sqls) {
+                statement.addBatch(sql);
+            }
+            return statement.executeBatch();
         } finally {
             JdbcUtils.closeStatement(statement);
         }
@@ -17,16 +17,23 @@ package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a database schema.
  */
 public abstract class Schema {
+    private static final Log LOG = LogFactory.getLog(Schema.class);
+
     /**
      * The Jdbc Template for communicating with the DB.
      */
@@ -141,10 +148,12 @@ public abstract class Schema {
     protected abstract void doDrop() throws SQLException;
 
     /**
-     * Cleans all the objects in this schema.
+     * Cleans all the objects in this schema. The bulk of the objects is dropped server-side in a single round trip when
+     * the database supports it. The remaining objects are then dropped one by one.
      */
     public void clean() {
         try {
+            doServerSideClean();
             doClean();
         } catch (SQLException e) {
             throw new FlywayException("Unable to clean schema " + this, e);
@@ -158,6 +167,47 @@ public abstract class Schema {
      */
     protected abstract void doClean() throws SQLException;
 
+    /**
+     * Executes the server-side clean statement of this schema, if there is one. When it fails, its effects are rolled
+     * back if the database supports DDL transactions and the objects are left to be dropped one by one by
+     * {@link #doClean()}. On other databases the objects it already dropped simply stay dropped.
+     *
+     * @throws SQLException when the failed statement could not be rolled back.
+     */
+    private void doServerSideClean() throws SQLException {
+        String statement = generateServerSideCleanStatement();
+        if (statement == null) {
+            return;
+        }
+
+        Connection connection = jdbcTemplate.getConnection();
+        Savepoint savepoint = null;
+        if (dbSupport.supportsDdlTransactions() && !connection.getAutoCommit()) {
+            // Without DDL transactions each drop commits, which releases the savepoint before it could be rolled back to
+            savepoint = connection.setSavepoint();
+        }
+        try {
+            jdbcTemplate.executeStatement(statement);
+        } catch (SQLException e) {
+            LOG.debug("Unable to clean schema " + this + " server-side, dropping its objects one by one instead: " + e.getMessage());
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+        }
+    }
+
+    /**
+     * Generates a single statement that enumerates and drops the bulk of the objects in this schema entirely inside the
+     * database, so that cleaning a schema with many objects doesn't take one round trip per object. Whatever it leaves
+     * behind is still dropped by {@link #doClean()} afterwards.
+     *
+     * @return The statement. {@code null} if the database doesn't support it. (default: {@code null})
+     * @throws SQLException when the statement could not be generated.
+     */
+    protected String generateServerSideCleanStatement() throws SQLException {
+        return null;
+    }
+
     /**
      * Retrieves all the tables in this schema.
      *
@@ -179,6 +229,50 @@ public abstract class Schema {
      */
     protected abstract Table[] doAllTables() throws SQLException;
 
+    /**
+     * Takes a snapshot of the objects in this schema.
+     *
+     * @return The snapshot.
+     */
+    public CatalogSnapshot snapshot() {
+        try {
+            return doSnapshot();
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to take a snapshot of the objects in schema " + this, e);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the objects in this schema. By default it only contains the tables.
+     *
+     * @return The snapshot.
+     * @throws SQLException when the snapshot could not be taken.
+     */
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        for (Table table : doAllTables()) {
+            snapshot.addObject(CatalogSnapshot.TABLE, table.getName());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Takes a snapshot of the objects in this schema using this query. It must return the type of every object in
+     * a column named OBJECT_TYPE and its name in a column named OBJECT_NAME.
+     *
+     * @param query  The query listing the objects.
+     * @param params The query parameters.
+     * @return The snapshot.
+     * @throws SQLException when the query failed.
+     */
+    protected CatalogSnapshot querySnapshot(String query, String... params) throws SQLException {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        for (Map<String, String> row : jdbcTemplate.queryForList(query, params)) {
+            snapshot.addObject(row.get("OBJECT_TYPE").trim(), row.get("OBJECT_NAME"));
+        }
+        return snapshot;
+    }
+
     /**
      * Retrieves all the types in this schema.
      *
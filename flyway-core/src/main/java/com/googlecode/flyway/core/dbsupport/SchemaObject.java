@@ -94,4 +94,18 @@ public abstract class SchemaObject {
     public String toString() {
         return dbSupport.quote(schema.getName(), name);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SchemaObject schemaObject = (SchemaObject) o;
+        return schema.equals(schemaObject.schema) && name.equals(schemaObject.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * schema.hashCode() + name.hashCode();
+    }
 }
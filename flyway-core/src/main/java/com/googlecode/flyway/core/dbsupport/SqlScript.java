@@ -16,6 +16,8 @@
 package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationListener;
+import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.StringUtils;
 import com.googlecode.flyway.core.util.logging.Log;
 import com.googlecode.flyway.core.util.logging.LogFactory;
@@ -24,7 +26,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,10 +45,20 @@ public class SqlScript {
     private final DbSupport dbSupport;
 
     /**
-     * The sql statements contained in this script.
+     * The sql statements contained in this script. {@code null} for a script that is streamed from a reader.
      */
     private final List<SqlStatement> sqlStatements;
 
+    /**
+     * The reader to stream the script source from. {@code null} for a script whose statements have been parsed upfront.
+     */
+    private final Reader sqlScriptReader;
+
+    /**
+     * The placeholder replacer to apply to every line read from the reader.
+     */
+    private final PlaceholderReplacer placeholderReplacer;
+
     /**
      * Creates a new sql script from this source with these placeholders to replace.
      *
@@ -54,6 +68,23 @@ public class SqlScript {
     public SqlScript(String sqlScriptSource, DbSupport dbSupport) {
         this.dbSupport = dbSupport;
         this.sqlStatements = parse(sqlScriptSource);
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
+    }
+
+    /**
+     * Creates a new sql script that is streamed from this reader. Placeholders are replaced line by line and each
+     * statement is executed as soon as it has been read, so memory usage does not depend on the size of the script.
+     *
+     * @param sqlScriptReader     The reader for the sql script source. It is closed once the script has been executed.
+     * @param placeholderReplacer The placeholder replacer to apply to every line of the script.
+     * @param dbSupport           The database-specific support.
+     */
+    public SqlScript(Reader sqlScriptReader, PlaceholderReplacer placeholderReplacer, DbSupport dbSupport) {
+        this.dbSupport = dbSupport;
+        this.sqlStatements = null;
+        this.sqlScriptReader = sqlScriptReader;
+        this.placeholderReplacer = placeholderReplacer;
     }
 
     /**
@@ -64,12 +95,14 @@ public class SqlScript {
     SqlScript(DbSupport dbSupport) {
         this.dbSupport = dbSupport;
         this.sqlStatements = null;
+        this.sqlScriptReader = null;
+        this.placeholderReplacer = null;
     }
 
     /**
      * For increased testability.
      *
-     * @return The sql statements contained in this script.
+     * @return The sql statements contained in this script. {@code null} for a script that is streamed from a reader.
      */
     public List<SqlStatement> getSqlStatements() {
         return sqlStatements;
@@ -81,15 +114,81 @@ public class SqlScript {
      * @param jdbcTemplate The jdbc template to use to execute this script.
      */
     public void execute(final JdbcTemplate jdbcTemplate) {
-        for (SqlStatement sqlStatement : sqlStatements) {
-            String sql = sqlStatement.getSql();
-            LOG.debug("Executing SQL: " + sql);
+        execute(jdbcTemplate, 0);
+    }
+
+    /**
+     * Executes this script against the database, grouping consecutive plain DML statements into JDBC batches.
+     * Any other statement (DDL, blocks using a different delimiter, ...) first flushes the current batch and is then
+     * executed on its own.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute this script.
+     * @param batchSize    The maximum number of statements to send to the database in a single batch. 0 to execute
+     *                     every statement on its own.
+     */
+    public void execute(final JdbcTemplate jdbcTemplate, int batchSize) {
+        execute(jdbcTemplate, batchSize, null, null);
+    }
+
+    /**
+     * Executes this script against the database, grouping consecutive plain DML statements into JDBC batches, and
+     * notifies this listener of every statement and batch executed.
+     *
+     * @param jdbcTemplate The jdbc template to use to execute this script.
+     * @param batchSize    The maximum number of statements to send to the database in a single batch. 0 to execute
+     *                     every statement on its own.
+     * @param listener     The listener to notify of every statement and batch executed. {@code null} for none.
+     * @param script       The name of this script to report to the listener.
+     */
+    public void execute(final JdbcTemplate jdbcTemplate, int batchSize, MigrationListener listener, String script) {
+        SqlStatementExecutor executor = new SqlStatementExecutor(jdbcTemplate, batchSize, listener, script);
+
+        if (sqlScriptReader != null) {
+            executeStreaming(executor);
+        } else {
+            for (SqlStatement sqlStatement : sqlStatements) {
+                executor.execute(sqlStatement);
+            }
+        }
+
+        executor.flush();
+    }
+
+    /**
+     * Reads the script line by line from the reader and executes every statement as soon as it is complete.
+     *
+     * @param executor The executor to hand the statements to.
+     */
+    private void executeStreaming(SqlStatementExecutor executor) {
+        BufferedReader bufferedReader = new BufferedReader(sqlScriptReader);
+        try {
+            SqlStatementSplitter splitter = new SqlStatementSplitter();
+            int lineNumber = 0;
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                lineNumber++;
+                if ((lineNumber == 1) && line.startsWith("\ufeff")) {
+                    // Strip UTF-8 BOM
+                    line = line.substring(1);
+                }
 
+                SqlStatement sqlStatement = splitter.addLine(placeholderReplacer.replacePlaceholders(line), lineNumber);
+                if (sqlStatement != null) {
+                    executor.execute(sqlStatement);
+                }
+            }
+
+            SqlStatement sqlStatement = splitter.finish();
+            if (sqlStatement != null) {
+                executor.execute(sqlStatement);
+            }
+        } catch (IOException e) {
+            throw new FlywayException("Unable to read sql script", e);
+        } finally {
             try {
-                jdbcTemplate.executeStatement(sql);
-            } catch (SQLException e) {
-                throw new FlywayException("Error executing statement at line " + sqlStatement.getLineNumber()
-                        + ": " + sql, e);
+                bufferedReader.close();
+            } catch (IOException e) {
+                LOG.debug("Unable to close sql script reader: " + e.getMessage());
             }
         }
     }
@@ -115,17 +214,77 @@ public class SqlScript {
     List<SqlStatement> linesToStatements(List<String> lines) {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
 
-        boolean inMultilineComment = false;
-        Delimiter nonStandardDelimiter = null;
-        SqlStatementBuilder sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
-
+        SqlStatementSplitter splitter = new SqlStatementSplitter();
         for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
-            String line = lines.get(lineNumber - 1);
+            SqlStatement sqlStatement = splitter.addLine(lines.get(lineNumber - 1), lineNumber);
+            if (sqlStatement != null) {
+                statements.add(sqlStatement);
+            }
+        }
+
+        SqlStatement sqlStatement = splitter.finish();
+        if (sqlStatement != null) {
+            statements.add(sqlStatement);
+        }
+
+        return statements;
+    }
+
+    /**
+     * Parses the textual data provided by this reader into a list of lines.
+     *
+     * @param reader The reader for the textual data.
+     * @return The list of lines (in order).
+     * @throws IllegalStateException Thrown when the textual data parsing failed.
+     */
+    private List<String> readLines(Reader reader) {
+        List<String> lines = new ArrayList<String>();
 
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+
+        try {
+            while ((line = bufferedReader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot parse lines", e);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Splits a script fed to it line by line into statements.
+     */
+    private class SqlStatementSplitter {
+        /**
+         * Whether the current line is part of a multi-line comment between statements.
+         */
+        private boolean inMultilineComment;
+
+        /**
+         * The delimiter set by the last delimiter change directive. {@code null} if there was none.
+         */
+        private Delimiter nonStandardDelimiter;
+
+        /**
+         * The builder for the statement currently being read.
+         */
+        private SqlStatementBuilder sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
+
+        /**
+         * Adds this line to the statement currently being read.
+         *
+         * @param line       The line to add.
+         * @param lineNumber The number of this line in the script.
+         * @return The statement this line terminated, or {@code null} if the current statement is not complete yet.
+         */
+        public SqlStatement addLine(String line, int lineNumber) {
             if (sqlStatementBuilder.isEmpty()) {
                 if (!StringUtils.hasText(line)) {
                     // Skip empty line between statements.
-                    continue;
+                    return null;
                 }
 
                 String trimmedLine = line.trim();
@@ -140,12 +299,12 @@ public class SqlScript {
                             inMultilineComment = false;
                         }
                         // Skip line part of a multi-line comment
-                        continue;
+                        return null;
                     }
 
                     if (sqlStatementBuilder.isSingleLineComment(trimmedLine)) {
                         // Skip single-line comment
-                        continue;
+                        return null;
                     }
                 }
 
@@ -153,7 +312,7 @@ public class SqlScript {
                 if (newDelimiter != null) {
                     nonStandardDelimiter = newDelimiter;
                     // Skip this line as it was an explicit delimiter change directive outside of any statements.
-                    continue;
+                    return null;
                 }
 
                 sqlStatementBuilder.setLineNumber(lineNumber);
@@ -168,42 +327,196 @@ public class SqlScript {
 
             if (sqlStatementBuilder.isTerminated()) {
                 SqlStatement sqlStatement = sqlStatementBuilder.getSqlStatement();
-                statements.add(sqlStatement);
                 LOG.debug("Found statement at line " + sqlStatement.getLineNumber() + ": " + sqlStatement.getSql());
 
                 sqlStatementBuilder = dbSupport.createSqlStatementBuilder();
+                return sqlStatement;
             }
-        }
 
-        // Catch any statements not followed by delimiter.
-        if (!sqlStatementBuilder.isEmpty()) {
-            statements.add(sqlStatementBuilder.getSqlStatement());
+            return null;
         }
 
-        return statements;
+        /**
+         * Completes the script.
+         *
+         * @return The last statement if it was not followed by a delimiter, {@code null} if there is none.
+         */
+        public SqlStatement finish() {
+            if (sqlStatementBuilder.isEmpty()) {
+                return null;
+            }
+            return sqlStatementBuilder.getSqlStatement();
+        }
     }
 
     /**
-     * Parses the textual data provided by this reader into a list of lines.
-     *
-     * @param reader The reader for the textual data.
-     * @return The list of lines (in order).
-     * @throws IllegalStateException Thrown when the textual data parsing failed.
+     * Executes the statements handed to it, either one by one or grouped in JDBC batches.
      */
-    private List<String> readLines(Reader reader) {
-        List<String> lines = new ArrayList<String>();
+    private static class SqlStatementExecutor {
+        /**
+         * The jdbc template to use to execute the statements.
+         */
+        private final JdbcTemplate jdbcTemplate;
 
-        BufferedReader bufferedReader = new BufferedReader(reader);
-        String line;
+        /**
+         * The maximum number of statements per batch. 0 if batching is disabled.
+         */
+        private final int batchSize;
 
-        try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lines.add(line);
+        /**
+         * The batchable statements that have not been sent to the database yet.
+         */
+        private final List<SqlStatement> batch = new ArrayList<SqlStatement>();
+
+        /**
+         * The listener to notify of every statement and batch executed. {@code null} for none.
+         */
+        private final MigrationListener listener;
+
+        /**
+         * The name of the script to report to the listener.
+         */
+        private final String script;
+
+        /**
+         * Creates a new executor.
+         *
+         * @param jdbcTemplate The jdbc template to use to execute the statements.
+         * @param batchSize    The maximum number of statements per batch. 0 if batching is disabled.
+         * @param listener     The listener to notify of every statement and batch executed. {@code null} for none.
+         * @param script       The name of the script to report to the listener.
+         */
+        public SqlStatementExecutor(JdbcTemplate jdbcTemplate, int batchSize, MigrationListener listener, String script) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.batchSize = (batchSize > 1) && supportsBatchUpdates(jdbcTemplate) ? batchSize : 0;
+            this.listener = listener;
+            this.script = script;
+        }
+
+        /**
+         * Checks whether the database driver supports JDBC batches.
+         *
+         * @param jdbcTemplate The jdbc template to check.
+         * @return {@code true} if it does, {@code false} if it doesn't.
+         */
+        private static boolean supportsBatchUpdates(JdbcTemplate jdbcTemplate) {
+            try {
+                return jdbcTemplate.getMetaData().supportsBatchUpdates();
+            } catch (SQLException e) {
+                LOG.debug("Unable to check for JDBC batch support, executing statements one by one: " + e.getMessage());
+                return false;
             }
-        } catch (IOException e) {
-            throw new IllegalStateException("Cannot parse lines", e);
         }
 
-        return lines;
+        /**
+         * Executes this statement, or queues it for the next batch if it can be batched.
+         *
+         * @param sqlStatement The statement to execute.
+         */
+        public void execute(SqlStatement sqlStatement) {
+            if ((batchSize > 0) && sqlStatement.isBatchable()) {
+                batch.add(sqlStatement);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+                return;
+            }
+
+            flush();
+            executeStatement(sqlStatement);
+        }
+
+        /**
+         * Sends all queued statements to the database.
+         */
+        public void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            if (batch.size() == 1) {
+                executeStatement(batch.get(0));
+                batch.clear();
+                return;
+            }
+
+            List<String> sqls = new ArrayList<String>();
+            for (SqlStatement sqlStatement : batch) {
+                sqls.add(sqlStatement.getSql());
+            }
+
+            LOG.debug("Executing batch of " + sqls.size() + " statements starting at line "
+                    + batch.get(0).getLineNumber());
+            long start = System.currentTimeMillis();
+            try {
+                jdbcTemplate.executeBatch(sqls);
+            } catch (BatchUpdateException e) {
+                SqlStatement failedStatement = findFailedStatement(e.getUpdateCounts());
+                if (failedStatement == null) {
+                    throw new FlywayException("Error executing batch of statements at lines "
+                            + batch.get(0).getLineNumber() + "-" + batch.get(batch.size() - 1).getLineNumber(), e);
+                }
+                throw new FlywayException("Error executing statement at line " + failedStatement.getLineNumber()
+                        + ": " + failedStatement.getSql(), e);
+            } catch (SQLException e) {
+                throw new FlywayException("Error executing batch of statements at lines "
+                        + batch.get(0).getLineNumber() + "-" + batch.get(batch.size() - 1).getLineNumber(), e);
+            }
+
+            if (listener != null) {
+                listener.batchExecuted(script, batch.get(0).getLineNumber(),
+                        batch.get(batch.size() - 1).getLineNumber(), batch.size(), System.currentTimeMillis() - start);
+            }
+            batch.clear();
+        }
+
+        /**
+         * Finds the statement of the current batch that made it fail, based on the update counts reported by the
+         * driver. Drivers either stop at the failing statement (and only report the counts of the statements before
+         * it) or carry on and mark the failed statements with {@link Statement#EXECUTE_FAILED}.
+         *
+         * @param updateCounts The update counts reported by the driver.
+         * @return The failed statement. {@code null} if it could not be determined.
+         */
+        private SqlStatement findFailedStatement(int[] updateCounts) {
+            if (updateCounts == null) {
+                return null;
+            }
+
+            if (updateCounts.length < batch.size()) {
+                return batch.get(updateCounts.length);
+            }
+
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return batch.get(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Executes this statement against the database on its own.
+         *
+         * @param sqlStatement The statement to execute.
+         */
+        private void executeStatement(SqlStatement sqlStatement) {
+            String sql = sqlStatement.getSql();
+            LOG.debug("Executing SQL: " + sql);
+
+            long start = System.currentTimeMillis();
+            int updateCount;
+            try {
+                updateCount = jdbcTemplate.executeStatement(sql);
+            } catch (SQLException e) {
+                throw new FlywayException("Error executing statement at line " + sqlStatement.getLineNumber()
+                        + ": " + sql, e);
+            }
+
+            if (listener != null) {
+                listener.statementExecuted(script, sqlStatement.getLineNumber(), sql,
+                        System.currentTimeMillis() - start, updateCount);
+            }
+        }
     }
 }
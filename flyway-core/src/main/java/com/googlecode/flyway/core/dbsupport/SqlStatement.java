@@ -35,6 +35,11 @@ public class SqlStatement {
      */
     private String sql;
 
+    /**
+     * Whether this is a plain DML statement that can safely be sent to the database as part of a JDBC batch.
+     */
+    private boolean batchable;
+
     /**
      * Creates a new sql statement.
      *
@@ -42,8 +47,21 @@ public class SqlStatement {
      * @param sql        The sql to send to the database.
      */
     public SqlStatement(int lineNumber, String sql) {
+        this(lineNumber, sql, false);
+    }
+
+    /**
+     * Creates a new sql statement.
+     *
+     * @param lineNumber The original line number where the statement was located in the script it came from.
+     * @param sql        The sql to send to the database.
+     * @param batchable  Whether this is a plain DML statement that can safely be sent to the database as part of a
+     *                   JDBC batch.
+     */
+    public SqlStatement(int lineNumber, String sql, boolean batchable) {
         this.lineNumber = lineNumber;
         this.sql = sql;
+        this.batchable = batchable;
     }
 
     /**
@@ -59,4 +77,11 @@ public class SqlStatement {
     public String getSql() {
         return sql;
     }
+
+    /**
+     * @return Whether this is a plain DML statement that can safely be sent to the database as part of a JDBC batch.
+     */
+    public boolean isBatchable() {
+        return batchable;
+    }
 }
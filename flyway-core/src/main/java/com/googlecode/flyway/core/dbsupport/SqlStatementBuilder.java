@@ -24,6 +24,12 @@ import java.util.List;
  * Builds a SQL statement, one line at a time.
  */
 public class SqlStatementBuilder {
+    /**
+     * The characters separating the tokens of a line when looking for string literal and comment delimiters. These
+     * are the special characters that naturally occur in SQL, but do not open or close string literals.
+     */
+    private static final String TOKEN_SEPARATORS = " @<>;:=|(),";
+
     /**
      * The current statement, as it is being built.
      */
@@ -44,6 +50,11 @@ public class SqlStatementBuilder {
      */
     private boolean terminated;
 
+    /**
+     * Flag indicating whether the current statement starts like a plain DML statement (INSERT, UPDATE or DELETE).
+     */
+    private boolean dml;
+
     /**
      * Are we currently inside a ' multi-line string literal.
      */
@@ -112,7 +123,17 @@ public class SqlStatementBuilder {
      * @return The assembled statement, with the delimiter stripped off.
      */
     public SqlStatement getSqlStatement() {
-        return new SqlStatement(lineNumber, statement.toString());
+        return new SqlStatement(lineNumber, statement.toString(), isBatchable());
+    }
+
+    /**
+     * Checks whether the statement being built can be sent to the database as part of a JDBC batch. This is only the
+     * case for plain DML statements that were terminated by the default delimiter.
+     *
+     * @return {@code true} if it can, {@code false} if it can't.
+     */
+    protected boolean isBatchable() {
+        return dml && getDefaultDelimiter().equals(delimiter);
     }
 
     /**
@@ -160,6 +181,10 @@ public class SqlStatementBuilder {
 
         String lineSimplified = simplifyLine(line);
 
+        if (statement.length() == 0) {
+            dml = isDmlStatementStart(lineSimplified);
+        }
+
         if (endsWithOpenMultilineStringLiteral(lineSimplified)) {
             statement.append(line);
             return;
@@ -170,20 +195,71 @@ public class SqlStatementBuilder {
         statement.append(line);
 
         if (lineTerminatesStatement(lineSimplified, delimiter)) {
-            //TODO: Check if the delimiter can be stripped from the existing statement instead
-            statement = new StringBuilder(stripDelimiter(statement.toString(), delimiter));
+            stripDelimiter(statement, delimiter);
             terminated = true;
         }
     }
 
     /**
-     * Simplifies this line to make it easier to parse.
+     * Simplifies this line to make it easier to parse: all whitespace is collapsed to single spaces, leading and
+     * trailing whitespace is removed and all characters are converted to upper case. This is done in a single pass
+     * over the line as it happens for every line of every script.
      *
      * @param line The line to simplify.
      * @return The simplified line.
      */
     protected String simplifyLine(String line) {
-        return line.replaceAll("\\s+", " ").trim().toUpperCase();
+        int start = 0;
+        int end = line.length();
+        while ((start < end) && (line.charAt(start) <= ' ')) {
+            start++;
+        }
+        while ((end > start) && (line.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+
+        char[] simplified = new char[end - start];
+        int length = 0;
+        boolean previousWhitespace = false;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (isWhitespace(c)) {
+                if (!previousWhitespace) {
+                    simplified[length++] = ' ';
+                }
+                previousWhitespace = true;
+            } else {
+                simplified[length++] = Character.toUpperCase(c);
+                previousWhitespace = false;
+            }
+        }
+        return new String(simplified, 0, length);
+    }
+
+    /**
+     * Checks whether this character is whitespace within a line.
+     *
+     * @param c The character to check.
+     * @return {@code true} if it is, {@code false} if it isn't.
+     */
+    private static boolean isWhitespace(char c) {
+        return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\r') || (c == '\f') || (c == '\u000B');
+    }
+
+    /**
+     * Checks whether this simplified first line of a statement starts a plain DML statement.
+     *
+     * @param line The simplified line to check.
+     * @return {@code true} if it does, {@code false} if it doesn't.
+     */
+    private boolean isDmlStatementStart(String line) {
+        for (String keyword : new String[]{"INSERT", "UPDATE", "DELETE"}) {
+            if (line.startsWith(keyword)
+                    && ((line.length() == keyword.length()) || (line.charAt(keyword.length()) == ' '))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -221,15 +297,40 @@ public class SqlStatementBuilder {
     }
 
     /**
-     * Strips this delimiter from this sql statement.
+     * Strips this delimiter from this sql statement, in place. The delimiter is matched case-insensitively.
      *
-     * @param sql       The statement to parse.
+     * @param sql       The statement to strip.
      * @param delimiter The delimiter to strip.
-     * @return The sql statement without delimiter.
      */
     /* private -> testing */
-    static String stripDelimiter(String sql, Delimiter delimiter) {
-        return sql.substring(0, sql.toLowerCase().lastIndexOf(delimiter.getDelimiter().toLowerCase()));
+    static void stripDelimiter(StringBuilder sql, Delimiter delimiter) {
+        String delimiterString = delimiter.getDelimiter();
+        for (int i = sql.length() - delimiterString.length(); i >= 0; i--) {
+            if (regionMatchesIgnoreCase(sql, i, delimiterString)) {
+                sql.setLength(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the region of this sql statement starting at this offset matches this string, ignoring case.
+     *
+     * @param sql    The sql statement.
+     * @param offset The offset of the region within the statement.
+     * @param str    The string to compare the region to.
+     * @return {@code true} if it matches, {@code false} if not.
+     */
+    private static boolean regionMatchesIgnoreCase(StringBuilder sql, int offset, String str) {
+        for (int j = 0; j < str.length(); j++) {
+            char c1 = sql.charAt(offset + j);
+            char c2 = str.charAt(j);
+            if ((c1 != c2) && (Character.toUpperCase(c1) != Character.toUpperCase(c2))
+                    && (Character.toLowerCase(c1) != Character.toLowerCase(c2))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -261,10 +362,7 @@ public class SqlStatementBuilder {
      *         literal. {@code false} if not.
      */
     protected boolean endsWithOpenMultilineStringLiteral(String line) {
-        //Ignore all special characters that naturally occur in SQL, but are not opening or closing string literals
-        String[] tokens = StringUtils.tokenizeToStringArray(line, " @<>;:=|(),");
-
-        List<TokenType> delimitingTokens = extractStringLiteralDelimitingTokens(tokens);
+        List<TokenType> delimitingTokens = extractStringLiteralDelimitingTokens(extractCandidateTokens(line));
 
         for (TokenType delimitingToken : delimitingTokens) {
             if (!insideQuoteStringLiteral && !insideAlternateQuoteStringLiteral
@@ -291,6 +389,47 @@ public class SqlStatementBuilder {
         return insideQuoteStringLiteral || insideAlternateQuoteStringLiteral;
     }
 
+    /**
+     * Scans this line in a single pass and extracts the tokens that may open or close a string literal or a comment.
+     * Tokens made up solely of characters for which {@link #isStringLiteralOrCommentChar(char)} is {@code false} can
+     * never do so and are skipped without being materialized.
+     *
+     * @param line The line to scan.
+     * @return The candidate tokens, trimmed, in order.
+     */
+    private List<String> extractCandidateTokens(String line) {
+        List<String> tokens = new ArrayList<String>();
+
+        int tokenStart = 0;
+        boolean candidate = false;
+        int length = line.length();
+        for (int i = 0; i <= length; i++) {
+            if ((i == length) || (TOKEN_SEPARATORS.indexOf(line.charAt(i)) >= 0)) {
+                if (candidate) {
+                    tokens.add(line.substring(tokenStart, i).trim());
+                }
+                tokenStart = i + 1;
+                candidate = false;
+            } else if (!candidate && isStringLiteralOrCommentChar(line.charAt(i))) {
+                candidate = true;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Checks whether this character can be part of a token that opens or closes a string literal or a comment. Dialects
+     * that support additional quoting styles or comment markers (see {@link #extractAlternateOpenQuote(String)} and
+     * {@link #isSingleLineComment(String)}) must include the characters these start with.
+     *
+     * @param c The character to check.
+     * @return {@code true} if it can, {@code false} if it can't.
+     */
+    protected boolean isStringLiteralOrCommentChar(char c) {
+        return (c == '\'') || (c == '-') || (c == '/');
+    }
+
     /**
      * Extract the type of all tokens that potentially delimit string literals.
      *
@@ -298,7 +437,7 @@ public class SqlStatementBuilder {
      * @return The list of potentially delimiting string literals token types per token. Tokens that do not have any
      *         impact on string delimiting are discarded.
      */
-    private List<TokenType> extractStringLiteralDelimitingTokens(String[] tokens) {
+    private List<TokenType> extractStringLiteralDelimitingTokens(List<String> tokens) {
         List<TokenType> delimitingTokens = new ArrayList<TokenType>();
         for (String token : tokens) {
             String cleanToken = removeCharsetCasting(removeEscapedQuotes(token));
@@ -209,4 +209,25 @@ public abstract class Table extends SchemaObject {
      * @throws SQLException when this table in this schema could not be locked.
      */
     protected abstract void doLock() throws SQLException;
+
+    /**
+     * Removes all rows from this table, keeping its structure.
+     */
+    public void truncate() {
+        try {
+            doTruncate();
+        } catch (SQLException e) {
+            throw new FlywayException("Unable to truncate table " + this, e);
+        }
+    }
+
+    /**
+     * Removes all rows from this table, keeping its structure. By default this is a plain delete, which works on every
+     * database as long as the tables referencing this one have been emptied first.
+     *
+     * @throws SQLException when this table could not be truncated.
+     */
+    protected void doTruncate() throws SQLException {
+        jdbcTemplate.execute("DELETE FROM " + this);
+    }
 }
@@ -69,29 +69,22 @@ public class DB2Schema extends Schema {
     protected void doClean() throws SQLException {
         // MQTs are dropped when the backing views or tables are dropped
         // Indexes in DB2 are dropped when the corresponding table is dropped
+        CatalogSnapshot snapshot = snapshot();
 
-        // views
-        for (String dropStatement : generateDropStatements(name, "V", "VIEW")) {
-            jdbcTemplate.execute(dropStatement);
+        for (String objectType : new String[]{"VIEW", "ALIAS"}) {
+            for (String objectName : snapshot.getObjectNames(objectType)) {
+                jdbcTemplate.execute("DROP " + objectType + " " + dbSupport.quote(name, objectName));
+            }
         }
 
-        // aliases
-        for (String dropStatement : generateDropStatements(name, "A", "ALIAS")) {
-            jdbcTemplate.execute(dropStatement);
+        for (String tableName : snapshot.getTablesInDropOrder()) {
+            getTable(tableName).drop();
         }
 
-        for (Table table : allTables()) {
-            table.drop();
-        }
-
-        // sequences
-        for (String dropStatement : generateDropStatementsForSequences(name)) {
-            jdbcTemplate.execute(dropStatement);
-        }
-
-        // procedures
-        for (String dropStatement : generateDropStatementsForProcedures(name)) {
-            jdbcTemplate.execute(dropStatement);
+        for (String objectType : new String[]{"SEQUENCE", "PROCEDURE"}) {
+            for (String objectName : snapshot.getObjectNames(objectType)) {
+                jdbcTemplate.execute("DROP " + objectType + " " + dbSupport.quote(name, objectName));
+            }
         }
 
         for (Function function : allFunctions()) {
@@ -103,62 +96,39 @@ public class DB2Schema extends Schema {
         }
     }
 
-    /**
-     * Generates DROP statements for the procedures in this schema.
-     *
-     * @param schema The schema of the objects.
-     * @return The drop statements.
-     * @throws SQLException when the statements could not be generated.
-     */
-    private List<String> generateDropStatementsForProcedures(String schema) throws SQLException {
-        String dropProcGenQuery = "select rtrim(PROCNAME) from SYSCAT.PROCEDURES where PROCSCHEMA = '" + schema + "'";
-        return buildDropStatements("DROP PROCEDURE", dropProcGenQuery, schema);
-    }
-
-    /**
-     * Generates DROP statements for the sequences in this schema.
-     *
-     * @param schema The schema of the objects.
-     * @return The drop statements.
-     * @throws SQLException when the statements could not be generated.
-     */
-    private List<String> generateDropStatementsForSequences(String schema) throws SQLException {
-        String dropSeqGenQuery = "select rtrim(SEQNAME) from SYSCAT.SEQUENCES where SEQSCHEMA = '" + schema
-                + "' and SEQTYPE='S'";
-        return buildDropStatements("DROP SEQUENCE", dropSeqGenQuery, schema);
-    }
-
-    /**
-     * Generates DROP statements for this type of table, representing this type of object in this schema.
-     *
-     * @param schema     The schema of the objects.
-     * @param tableType  The type of table (Can be T, V, S, ...).
-     * @param objectType The type of object.
-     * @return The drop statements.
-     * @throws SQLException when the statements could not be generated.
-     */
-    private List<String> generateDropStatements(String schema, String tableType, String objectType) throws SQLException {
-        String dropTablesGenQuery = "select rtrim(TABNAME) from SYSCAT.TABLES where TYPE='" + tableType + "' and TABSCHEMA = '"
-                + schema + "'";
-        return buildDropStatements("DROP " + objectType, dropTablesGenQuery, schema);
+    @Override
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        return querySnapshot(
+                "SELECT CASE TYPE WHEN 'V' THEN 'VIEW' WHEN 'A' THEN 'ALIAS' ELSE 'TABLE' END AS OBJECT_TYPE,"
+                        + " RTRIM(TABNAME) AS OBJECT_NAME FROM SYSCAT.TABLES WHERE TABSCHEMA = ? AND TYPE IN ('V', 'A', 'T')"
+                        + " UNION ALL SELECT 'SEQUENCE' AS OBJECT_TYPE, RTRIM(SEQNAME) AS OBJECT_NAME FROM SYSCAT.SEQUENCES WHERE SEQSCHEMA = ? AND SEQTYPE = 'S'"
+                        + " UNION ALL SELECT 'PROCEDURE' AS OBJECT_TYPE, RTRIM(PROCNAME) AS OBJECT_NAME FROM SYSCAT.PROCEDURES WHERE PROCSCHEMA = ?",
+                name, name, name);
     }
 
     /**
-     * Builds the drop statements for database objects in this schema.
-     *
-     * @param dropPrefix The drop command for the database object (e.g. 'drop table').
-     * @param query      The query to get all present database objects
-     * @param schema     The schema for which to build the statements.
-     * @return The statements.
-     * @throws SQLException when the drop statements could not be built.
+     * Drops the views, aliases, tables, sequences and procedures of this schema in a single compound statement.
      */
-    private List<String> buildDropStatements(final String dropPrefix, final String query, String schema) throws SQLException {
-        List<String> dropStatements = new ArrayList<String>();
-        List<String> dbObjects = jdbcTemplate.queryForStringList(query);
-        for (String dbObject : dbObjects) {
-            dropStatements.add(dropPrefix + " " + dbSupport.quote(schema, dbObject));
-        }
-        return dropStatements;
+    @Override
+    protected String generateServerSideCleanStatement() throws SQLException {
+        String schema = dbSupport.toLiteral(name);
+        String quotedSchema = dbSupport.toLiteral(dbSupport.quote(name));
+        return "BEGIN\n" +
+                "  FOR t AS SELECT RTRIM(TABNAME) AS OBJECT_NAME, TYPE AS OBJECT_TYPE FROM SYSCAT.TABLES\n" +
+                "      WHERE TABSCHEMA = " + schema + " AND TYPE IN ('V', 'A', 'T')\n" +
+                "      ORDER BY CASE TYPE WHEN 'V' THEN 0 WHEN 'A' THEN 1 ELSE 2 END DO\n" +
+                "    EXECUTE IMMEDIATE 'DROP ' || CASE t.OBJECT_TYPE WHEN 'V' THEN 'VIEW' WHEN 'A' THEN 'ALIAS' ELSE 'TABLE' END\n" +
+                "        || ' ' || " + quotedSchema + " || '.\"' || t.OBJECT_NAME || '\"';\n" +
+                "  END FOR;\n" +
+                "  FOR s AS SELECT RTRIM(SEQNAME) AS OBJECT_NAME FROM SYSCAT.SEQUENCES\n" +
+                "      WHERE SEQSCHEMA = " + schema + " AND SEQTYPE = 'S' DO\n" +
+                "    EXECUTE IMMEDIATE 'DROP SEQUENCE ' || " + quotedSchema + " || '.\"' || s.OBJECT_NAME || '\"';\n" +
+                "  END FOR;\n" +
+                "  FOR p AS SELECT RTRIM(SPECIFICNAME) AS OBJECT_NAME FROM SYSCAT.PROCEDURES\n" +
+                "      WHERE PROCSCHEMA = " + schema + " DO\n" +
+                "    EXECUTE IMMEDIATE 'DROP SPECIFIC PROCEDURE ' || " + quotedSchema + " || '.\"' || p.OBJECT_NAME || '\"';\n" +
+                "  END FOR;\n" +
+                "END";
     }
 
     @Override
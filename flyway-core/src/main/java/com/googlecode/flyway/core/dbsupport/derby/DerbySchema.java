@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.dbsupport.derby;
 
+import com.googlecode.flyway.core.dbsupport.CatalogSnapshot;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
@@ -64,45 +65,51 @@ public class DerbySchema extends Schema {
 
     @Override
     protected void doClean() throws SQLException {
-        for (String statement : generateDropStatementsForConstraints()) {
-            jdbcTemplate.execute(statement);
+        CatalogSnapshot snapshot = snapshot();
+
+        // Derby can't drop tables with cascade: drop them in dependency order, after the foreign keys of any cycles
+        for (CatalogSnapshot.ForeignKey foreignKey : snapshot.getForeignKeysToDropFirst()) {
+            jdbcTemplate.execute("ALTER TABLE " + dbSupport.quote(name, foreignKey.getTableName())
+                    + " DROP CONSTRAINT " + dbSupport.quote(foreignKey.getConstraintName()));
         }
 
-        List<String> viewNames = listObjectNames("TABLE", "TABLETYPE='V'");
-        for (String statement : generateDropStatements("VIEW", viewNames, "")) {
+        for (String statement : generateDropStatements("VIEW", snapshot.getObjectNames("VIEW"), "")) {
             jdbcTemplate.execute(statement);
         }
 
-        for (Table table : allTables()) {
-            table.drop();
+        for (String tableName : snapshot.getTablesInDropOrder()) {
+            getTable(tableName).drop();
         }
 
-        List<String> sequenceNames = listObjectNames("SEQUENCE", "");
-        for (String statement : generateDropStatements("SEQUENCE", sequenceNames, "RESTRICT")) {
+        for (String statement : generateDropStatements("SEQUENCE", snapshot.getObjectNames("SEQUENCE"), "RESTRICT")) {
             jdbcTemplate.execute(statement);
         }
     }
 
-    /**
-     * Generate the statements for dropping all the constraints in this schema.
-     *
-     * @return The list of statements.
-     * @throws SQLException when the statements could not be generated.
-     */
-    private List<String> generateDropStatementsForConstraints() throws SQLException {
-        List<Map<String, String>> results = jdbcTemplate.queryForList("SELECT c.constraintname, t.tablename FROM sys.sysconstraints c" +
-                " INNER JOIN sys.systables t ON c.tableid = t.tableid" +
-                " INNER JOIN sys.sysschemas s ON c.schemaid = s.schemaid" +
-                " WHERE c.type = 'F' AND s.schemaname = ?", name);
-
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> result : results) {
-            String dropStatement = "ALTER TABLE " + dbSupport.quote(name, result.get("TABLENAME"))
-                    + " DROP CONSTRAINT " + dbSupport.quote(result.get("CONSTRAINTNAME"));
-
-            statements.add(dropStatement);
+    @Override
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        CatalogSnapshot snapshot = querySnapshot(
+                "SELECT CASE WHEN t.tabletype = 'T' THEN 'TABLE' ELSE 'VIEW' END AS OBJECT_TYPE, t.tablename AS OBJECT_NAME"
+                        + " FROM sys.systables t INNER JOIN sys.sysschemas s ON t.schemaid = s.schemaid"
+                        + " WHERE s.schemaname = ? AND t.tabletype IN ('T', 'V')"
+                        + " UNION ALL SELECT 'SEQUENCE' AS OBJECT_TYPE, q.sequencename AS OBJECT_NAME FROM sys.syssequences q"
+                        + " INNER JOIN sys.sysschemas s ON q.schemaid = s.schemaid WHERE s.schemaname = ?",
+                name, name);
+
+        List<Map<String, String>> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT t.tablename, c.constraintname, rt.tablename AS referencedtablename FROM sys.sysconstraints c"
+                        + " INNER JOIN sys.systables t ON c.tableid = t.tableid"
+                        + " INNER JOIN sys.sysschemas s ON c.schemaid = s.schemaid"
+                        + " INNER JOIN sys.sysforeignkeys f ON c.constraintid = f.constraintid"
+                        + " INNER JOIN sys.sysconstraints rc ON f.keyconstraintid = rc.constraintid"
+                        + " INNER JOIN sys.systables rt ON rc.tableid = rt.tableid"
+                        + " WHERE c.type = 'F' AND s.schemaname = ? AND rt.schemaid = c.schemaid", name);
+        for (Map<String, String> foreignKey : foreignKeys) {
+            snapshot.addForeignKey(foreignKey.get("TABLENAME"), foreignKey.get("CONSTRAINTNAME"),
+                    foreignKey.get("REFERENCEDTABLENAME"));
         }
-        return statements;
+
+        return snapshot;
     }
 
     /**
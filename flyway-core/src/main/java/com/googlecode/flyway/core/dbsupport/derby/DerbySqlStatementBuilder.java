@@ -28,4 +28,9 @@ public class DerbySqlStatementBuilder extends SqlStatementBuilder {
         }
         return null;
     }
+
+    @Override
+    protected boolean isStringLiteralOrCommentChar(char c) {
+        return (c == '$') || super.isStringLiteralOrCommentChar(c);
+    }
 }
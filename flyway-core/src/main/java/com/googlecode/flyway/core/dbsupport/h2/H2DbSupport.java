@@ -19,12 +19,15 @@ import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
+import com.googlecode.flyway.core.dbsupport.Table;
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.List;
 
 /**
  * H2 database specific support
@@ -70,6 +73,50 @@ public class H2DbSupport extends DbSupport {
         jdbcTemplate.execute("SET SCHEMA " + schema);
     }
 
+    /**
+     * Truncates the tables with their referential integrity switched off. Unlike SET REFERENTIAL_INTEGRITY, which
+     * affects the whole database, this only touches the tables being truncated.
+     */
+    @Override
+    protected void doTruncate(Schema[] schemas, Table... excludedTables) throws SQLException {
+        List<Table> tables = getTablesToTruncate(schemas, excludedTables);
+        for (Table table : tables) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " SET REFERENTIAL_INTEGRITY FALSE");
+        }
+        try {
+            for (Table table : tables) {
+                table.truncate();
+            }
+        } finally {
+            for (Table table : tables) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    @Override
+    protected void doSaveSnapshot(Schema[] schemas, File file) throws SQLException {
+        StringBuilder statement = new StringBuilder("SCRIPT TO ").append(toLiteral(file.getAbsolutePath()))
+                .append(" SCHEMA ");
+        for (int i = 0; i < schemas.length; i++) {
+            if (i > 0) {
+                statement.append(", ");
+            }
+            statement.append(schemas[i]);
+        }
+        jdbcTemplate.execute(statement.toString());
+    }
+
+    @Override
+    protected void doRestoreSnapshot(Schema[] schemas, File file) throws SQLException {
+        jdbcTemplate.execute("RUNSCRIPT FROM " + toLiteral(file.getAbsolutePath()));
+    }
+
     public boolean supportsDdlTransactions() {
         return false;
     }
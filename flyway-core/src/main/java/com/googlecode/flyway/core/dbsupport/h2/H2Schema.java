@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.dbsupport.h2;
 
+import com.googlecode.flyway.core.dbsupport.CatalogSnapshot;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
@@ -66,21 +67,21 @@ public class H2Schema extends Schema {
 
     @Override
     protected void doClean() throws SQLException {
-        for (Table table : allTables()) {
-            table.drop();
+        CatalogSnapshot snapshot = snapshot();
+
+        for (String tableName : snapshot.getTablesInDropOrder()) {
+            getTable(tableName).drop();
         }
 
-        List<String> sequenceNames = listObjectNames("SEQUENCE", "IS_GENERATED = false");
-        for (String statement : generateDropStatements("SEQUENCE", sequenceNames, "")) {
+        for (String statement : generateDropStatements("SEQUENCE", snapshot.getObjectNames("SEQUENCE"), "")) {
             jdbcTemplate.execute(statement);
         }
 
-        List<String> constantNames = listObjectNames("CONSTANT", "");
-        for (String statement : generateDropStatements("CONSTANT", constantNames, "")) {
+        for (String statement : generateDropStatements("CONSTANT", snapshot.getObjectNames("CONSTANT"), "")) {
             jdbcTemplate.execute(statement);
         }
 
-        List<String> domainNames = listObjectNames("DOMAIN", "");
+        List<String> domainNames = snapshot.getObjectNames("DOMAIN");
         if (!domainNames.isEmpty()) {
             if (name.equals(dbSupport.getCurrentSchema().getName())) {
                 for (String statement : generateDropStatementsForCurrentSchema("DOMAIN", domainNames, "")) {
@@ -93,6 +94,20 @@ public class H2Schema extends Schema {
         }
     }
 
+    @Override
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        return querySnapshot(
+                "SELECT 'TABLE' AS OBJECT_TYPE, TABLE_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.TABLES"
+                        + " WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'TABLE'"
+                        + " UNION ALL SELECT 'SEQUENCE' AS OBJECT_TYPE, SEQUENCE_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.SEQUENCES"
+                        + " WHERE SEQUENCE_SCHEMA = ? AND IS_GENERATED = false"
+                        + " UNION ALL SELECT 'CONSTANT' AS OBJECT_TYPE, CONSTANT_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.CONSTANTS"
+                        + " WHERE CONSTANT_SCHEMA = ?"
+                        + " UNION ALL SELECT 'DOMAIN' AS OBJECT_TYPE, DOMAIN_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.DOMAINS"
+                        + " WHERE DOMAIN_SCHEMA = ?",
+                name, name, name, name);
+    }
+
     /**
      * Generate the statements for dropping all the objects of this type in this schema.
      *
@@ -28,4 +28,9 @@ public class H2SqlStatementBuilder extends SqlStatementBuilder {
         }
         return null;
     }
+
+    @Override
+    protected boolean isStringLiteralOrCommentChar(char c) {
+        return (c == '$') || super.isStringLiteralOrCommentChar(c);
+    }
 }
@@ -43,6 +43,11 @@ public class H2Table extends Table {
         jdbcTemplate.execute("DROP TABLE " + dbSupport.quote(schema.getName(), name) + " CASCADE");
     }
 
+    @Override
+    protected void doTruncate() throws SQLException {
+        jdbcTemplate.execute("TRUNCATE TABLE " + this);
+    }
+
     @Override
     protected boolean doExists() throws SQLException {
         return exists(null, schema, name);
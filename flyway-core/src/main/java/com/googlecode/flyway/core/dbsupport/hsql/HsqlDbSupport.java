@@ -21,15 +21,41 @@ import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 import com.googlecode.flyway.core.util.jdbc.JdbcUtils;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * HsqlDb-specific support
  */
 public class HsqlDbSupport extends DbSupport {
+    /**
+     * Matches the lines of a script switching to another schema. Group 1 is the name of the schema.
+     */
+    private static final Pattern SET_SCHEMA_PATTERN = Pattern.compile("^SET SCHEMA (\"(?:[^\"]|\"\")+\"|\\S+)$");
+
+    /**
+     * Matches the lines of a script creating or altering a schema object. Group 1 is the name of the schema the
+     * object lives in, as the objects are always qualified by Hsql.
+     */
+    private static final Pattern SCHEMA_OBJECT_PATTERN =
+            Pattern.compile("^(?:CREATE|ALTER) [^\"]*?(\"(?:[^\"]|\"\")+\"|[A-Za-z_][A-Za-z0-9_$]*)\\.");
+
+    /**
+     * Matches the unicode escapes Hsql uses in scripts for all non-ascii characters and for backslashes.
+     */
+    private static final Pattern UNICODE_ESCAPE_PATTERN = Pattern.compile("\\\\u([0-9a-fA-F]{4})");
+
     /**
      * Creates a new instance.
      *
@@ -72,6 +98,105 @@ public class HsqlDbSupport extends DbSupport {
         jdbcTemplate.execute("SET SCHEMA " + schema);
     }
 
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    /**
+     * Saves a script of the whole database. Only the parts belonging to the schemas are restored.
+     */
+    @Override
+    protected void doSaveSnapshot(Schema[] schemas, File file) throws SQLException {
+        jdbcTemplate.execute("SCRIPT " + toLiteral(file.getAbsolutePath()));
+    }
+
+    /**
+     * Replays the statements of the script that belong to the schemas. Hsql writes one statement per line, with the
+     * database settings, users and grants first, then the objects schema by schema and finally the data schema by
+     * schema, each preceded by a SET SCHEMA line.
+     */
+    @Override
+    protected void doRestoreSnapshot(Schema[] schemas, File file) throws SQLException, IOException {
+        Set<String> schemaNames = new HashSet<String>();
+        for (Schema schema : schemas) {
+            schemaNames.add(schema.getName());
+        }
+
+        Schema originalSchema = getSchema(doGetCurrentSchema());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "ISO-8859-1"));
+        try {
+            boolean inSchema = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = unescape(line);
+
+                Matcher setSchemaMatcher = SET_SCHEMA_PATTERN.matcher(line);
+                if (setSchemaMatcher.matches()) {
+                    inSchema = schemaNames.contains(unquote(setSchemaMatcher.group(1)));
+                    if (inSchema) {
+                        jdbcTemplate.executeStatement(line);
+                    }
+                    continue;
+                }
+
+                if (line.startsWith("CREATE SCHEMA ")) {
+                    // The schemas have already been created
+                    continue;
+                }
+
+                Matcher schemaObjectMatcher = SCHEMA_OBJECT_PATTERN.matcher(line);
+                if (schemaObjectMatcher.lookingAt()) {
+                    if (schemaNames.contains(unquote(schemaObjectMatcher.group(1)))) {
+                        jdbcTemplate.executeStatement(line);
+                    }
+                    continue;
+                }
+
+                if (inSchema && line.startsWith("INSERT INTO ")) {
+                    jdbcTemplate.executeStatement(line);
+                }
+            }
+        } finally {
+            reader.close();
+            doSetCurrentSchema(originalSchema);
+        }
+    }
+
+    /**
+     * Replaces the unicode escapes in this line of a script by the characters they represent.
+     *
+     * @param line The line of the script.
+     * @return The line without unicode escapes.
+     */
+    private static String unescape(String line) {
+        if (line.indexOf('\\') < 0) {
+            return line;
+        }
+
+        Matcher matcher = UNICODE_ESCAPE_PATTERN.matcher(line);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            char c = (char) Integer.parseInt(matcher.group(1), 16);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(String.valueOf(c)));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * Removes the quotes around this identifier, if any.
+     *
+     * @param identifier The identifier as it appears in a script.
+     * @return The name it represents.
+     */
+    private static String unquote(String identifier) {
+        if (identifier.startsWith("\"")) {
+            return identifier.substring(1, identifier.length() - 1).replace("\"\"", "\"");
+        }
+        return identifier;
+    }
+
     public boolean supportsDdlTransactions() {
         return false;
     }
@@ -15,13 +15,13 @@
  */
 package com.googlecode.flyway.core.dbsupport.hsql;
 
+import com.googlecode.flyway.core.dbsupport.CatalogSnapshot;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -62,31 +62,25 @@ public class HsqlSchema extends Schema {
 
     @Override
     protected void doClean() throws SQLException {
-        for (Table table : allTables()) {
-            table.drop();
-        }
+        CatalogSnapshot snapshot = snapshot();
 
-        for (String statement : generateDropStatementsForSequences()) {
-            jdbcTemplate.execute(statement);
+        for (String tableName : snapshot.getTablesInDropOrder()) {
+            getTable(tableName).drop();
         }
-    }
-
-    /**
-     * Generates the statements to drop the sequences in this schema.
-     *
-     * @return The drop statements.
-     * @throws SQLException when the drop statements could not be generated.
-     */
-    private List<String> generateDropStatementsForSequences() throws SQLException {
-        List<String> sequenceNames = jdbcTemplate.queryForStringList(
-                "SELECT SEQUENCE_NAME FROM INFORMATION_SCHEMA.SYSTEM_SEQUENCES where SEQUENCE_SCHEMA = ?", name);
 
-        List<String> statements = new ArrayList<String>();
-        for (String seqName : sequenceNames) {
-            statements.add("DROP SEQUENCE " + dbSupport.quote(name, seqName));
+        for (String sequenceName : snapshot.getObjectNames("SEQUENCE")) {
+            jdbcTemplate.execute("DROP SEQUENCE " + dbSupport.quote(name, sequenceName));
         }
+    }
 
-        return statements;
+    @Override
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        return querySnapshot(
+                "SELECT 'TABLE' AS OBJECT_TYPE, TABLE_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.SYSTEM_TABLES"
+                        + " WHERE TABLE_SCHEM = ? AND TABLE_TYPE = 'TABLE'"
+                        + " UNION ALL SELECT 'SEQUENCE' AS OBJECT_TYPE, SEQUENCE_NAME AS OBJECT_NAME FROM INFORMATION_SCHEMA.SYSTEM_SEQUENCES"
+                        + " WHERE SEQUENCE_SCHEMA = ?",
+                name, name);
     }
 
     @Override
@@ -55,6 +55,12 @@ public class MySQLDbSupport extends DbSupport {
         jdbcTemplate.execute("USE " + schema);
     }
 
+    @Override
+    protected boolean doSetForeignKeyChecks(boolean enabled) throws SQLException {
+        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = " + (enabled ? "1" : "0"));
+        return true;
+    }
+
     public boolean supportsDdlTransactions() {
         return false;
     }
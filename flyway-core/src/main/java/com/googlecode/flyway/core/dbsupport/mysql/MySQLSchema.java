@@ -15,15 +15,14 @@
  */
 package com.googlecode.flyway.core.dbsupport.mysql;
 
+import com.googlecode.flyway.core.dbsupport.CatalogSnapshot;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.JdbcTemplate;
 import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.Table;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * MySQL implementation of Schema.
@@ -68,58 +67,32 @@ public class MySQLSchema extends Schema {
 
     @Override
     protected void doClean() throws SQLException {
-        for (String statement : cleanRoutines()) {
-            jdbcTemplate.execute(statement);
-        }
+        CatalogSnapshot snapshot = snapshot();
 
-        for (String statement : cleanViews()) {
-            jdbcTemplate.execute(statement);
+        for (String routineType : new String[]{"PROCEDURE", "FUNCTION"}) {
+            for (String routineName : snapshot.getObjectNames(routineType)) {
+                jdbcTemplate.execute("DROP " + routineType + " " + dbSupport.quote(name, routineName));
+            }
         }
 
-        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
-        for (Table table : allTables()) {
-            table.drop();
+        for (String viewName : snapshot.getObjectNames("VIEW")) {
+            jdbcTemplate.execute("DROP VIEW " + dbSupport.quote(name, viewName));
         }
-        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
-    }
-
-    /**
-     * Generate the statements to clean the routines in this schema.
-     *
-     * @return The list of statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanRoutines() throws SQLException {
-        List<Map<String, String>> routineNames =
-                jdbcTemplate.queryForList(
-                        "SELECT routine_name, routine_type FROM information_schema.routines WHERE routine_schema=?",
-                        name);
 
-        List<String> statements = new ArrayList<String>();
-        for (Map<String, String> row : routineNames) {
-            String routineName = row.get("routine_name");
-            String routineType = row.get("routine_type");
-            statements.add("DROP " + routineType + " " + dbSupport.quote(name, routineName));
+        dbSupport.setForeignKeyChecks(false);
+        for (String tableName : snapshot.getTablesInDropOrder()) {
+            getTable(tableName).drop();
         }
-        return statements;
+        dbSupport.setForeignKeyChecks(true);
     }
 
-    /**
-     * Generate the statements to clean the views in this schema.
-     *
-     * @return The list of statements.
-     * @throws SQLException when the clean statements could not be generated.
-     */
-    private List<String> cleanViews() throws SQLException {
-        List<String> viewNames =
-                jdbcTemplate.queryForStringList(
-                        "SELECT table_name FROM information_schema.views WHERE table_schema=?", name);
-
-        List<String> statements = new ArrayList<String>();
-        for (String viewName : viewNames) {
-            statements.add("DROP VIEW " + dbSupport.quote(name, viewName));
-        }
-        return statements;
+    @Override
+    protected CatalogSnapshot doSnapshot() throws SQLException {
+        return querySnapshot(
+                "SELECT CASE table_type WHEN 'VIEW' THEN 'VIEW' ELSE 'TABLE' END AS OBJECT_TYPE, table_name AS OBJECT_NAME"
+                        + " FROM information_schema.tables WHERE table_schema=? AND table_type IN ('BASE TABLE', 'VIEW')"
+                        + " UNION ALL SELECT routine_type AS OBJECT_TYPE, routine_name AS OBJECT_NAME FROM information_schema.routines WHERE routine_schema=?",
+                name, name);
     }
 
     @Override
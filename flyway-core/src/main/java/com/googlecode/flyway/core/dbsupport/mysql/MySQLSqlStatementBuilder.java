@@ -29,6 +29,13 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
      * The keyword that indicates a change in delimiter.
      */
     private static final String DELIMITER_KEYWORD = "DELIMITER";
+
+    /**
+     * Matches MySQL-specific code hidden in comments such as /*!50003 ... *&#47;.
+     */
+    private static final Pattern COMMENT_DIRECTIVE_PATTERN =
+            Pattern.compile("^" + Pattern.quote("/*!") + "\\d{5} .*" + Pattern.quote("*/") + ";?");
+
     private final String[] charSets = {
             "ARMSCII8","ASCII","BIG5","BINARY","CP1250","CP1251","CP1256","CP1257","CP850","CP852","CP866","CP932",
             "DEC8","EUCJPMS","EUCKR","GB2312","GBK","GEOSTD8","GREEK","HEBREW","HP8","KEYBCS2","KOI8R","KOI8U","LATIN1",
@@ -55,7 +62,7 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     public boolean isCommentDirective(String line) {
-        return line.matches("^" + Pattern.quote("/*!") + "\\d{5} .*" + Pattern.quote("*/") + ";?");
+        return COMMENT_DIRECTIVE_PATTERN.matcher(line).matches();
     }
 
     @Override
@@ -63,6 +70,11 @@ public class MySQLSqlStatementBuilder extends SqlStatementBuilder {
         return line.startsWith("--") || line.startsWith("#");
     }
 
+    @Override
+    protected boolean isStringLiteralOrCommentChar(char c) {
+        return (c == '"') || (c == '#') || super.isStringLiteralOrCommentChar(c);
+    }
+
     @Override
     protected String removeEscapedQuotes(String token) {
         String noEscapedBackslashes = StringUtils.replaceAll(token, "\\\\","");
@@ -43,6 +43,11 @@ public class MySQLTable extends Table {
         jdbcTemplate.execute("DROP TABLE " + dbSupport.quote(schema.getName(), name));
     }
 
+    @Override
+    protected void doTruncate() throws SQLException {
+        jdbcTemplate.execute("TRUNCATE TABLE " + this);
+    }
+
     @Override
     protected boolean doExists() throws SQLException {
         return exists(schema, null, name);
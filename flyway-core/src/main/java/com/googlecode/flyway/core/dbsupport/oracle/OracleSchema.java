@@ -161,6 +161,47 @@ public class OracleSchema extends Schema {
                 && (jdbcTemplate.queryForInt("SELECT COUNT(*) FROM all_views WHERE view_name = 'RESOURCE_VIEW'") > 0);
     }
 
+    /**
+     * Drops the materialized views, sequences, routines, packages, synonyms, triggers, views and tables of this schema
+     * in a single anonymous PL/SQL block. Every drop commits on its own. Queue tables, index-organized tables and tables
+     * with a domain (e.g. spatial) index are left to {@link #doClean()}, as they must be dropped through DBMS_AQADM or
+     * only after their spatial metadata and indexes are gone. XML tables are object tables and never appear in
+     * all_tables.
+     */
+    @Override
+    protected String generateServerSideCleanStatement() throws SQLException {
+        if ("SYSTEM".equals(name.toUpperCase())) {
+            // Refused by doClean()
+            return null;
+        }
+
+        String schema = dbSupport.toLiteral(name);
+        String quotedSchema = dbSupport.toLiteral(dbSupport.quote(name));
+        return "BEGIN\n" +
+                "  FOR r IN (SELECT object_type, object_name FROM all_objects WHERE owner = " + schema + "\n" +
+                "      AND object_type IN ('MATERIALIZED VIEW', 'SEQUENCE', 'FUNCTION', 'PACKAGE', 'PROCEDURE', 'SYNONYM', 'TRIGGER', 'VIEW')\n" +
+                // Ignore Spatial Index Sequences as they get dropped automatically when the index gets dropped.
+                "      AND object_name NOT LIKE 'MDRS_%$'\n" +
+                // Leave the views and rules of queue tables to DBMS_AQADM.DROP_QUEUE_TABLE
+                "      AND object_name NOT LIKE 'AQ$%'\n" +
+                "      ORDER BY CASE object_type WHEN 'MATERIALIZED VIEW' THEN 0 ELSE 1 END) LOOP\n" +
+                "    EXECUTE IMMEDIATE 'DROP ' || r.object_type || ' ' || " + quotedSchema + " || '.\"' || r.object_name || '\"'\n" +
+                "        || CASE r.object_type WHEN 'MATERIALIZED VIEW' THEN ' PRESERVE TABLE' WHEN 'VIEW' THEN ' CASCADE CONSTRAINTS' END;\n" +
+                "  END LOOP;\n" +
+                "  FOR r IN (SELECT t.table_name FROM all_tables t WHERE t.owner = " + schema + "\n" +
+                "      AND t.table_name NOT LIKE 'BIN$%' AND t.table_name NOT LIKE 'MDRT_%$'\n" +
+                "      AND t.table_name NOT LIKE 'MLOG$%' AND t.table_name NOT LIKE 'RUPD$%'\n" +
+                "      AND t.table_name NOT LIKE 'DR$%' AND t.table_name NOT LIKE 'SYS_IOT_OVER_%'\n" +
+                "      AND t.table_name NOT LIKE 'AQ$%' AND t.iot_type IS NULL\n" +
+                "      AND t.nested != 'YES' AND t.secondary != 'Y'\n" +
+                "      AND NOT EXISTS (SELECT 1 FROM all_queue_tables q WHERE q.owner = t.owner AND q.queue_table = t.table_name)\n" +
+                "      AND NOT EXISTS (SELECT 1 FROM all_indexes i\n" +
+                "          WHERE i.table_owner = t.owner AND i.table_name = t.table_name AND i.index_type = 'DOMAIN')) LOOP\n" +
+                "    EXECUTE IMMEDIATE 'DROP TABLE ' || " + quotedSchema + " || '.\"' || r.table_name || '\" CASCADE CONSTRAINTS PURGE';\n" +
+                "  END LOOP;\n" +
+                "END;";
+    }
+
     /**
      * Generates the drop statements for all database objects of this type.
      *
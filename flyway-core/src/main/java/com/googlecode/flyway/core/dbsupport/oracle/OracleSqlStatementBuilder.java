@@ -19,6 +19,8 @@ import com.googlecode.flyway.core.dbsupport.Delimiter;
 import com.googlecode.flyway.core.dbsupport.SqlStatementBuilder;
 import com.googlecode.flyway.core.util.StringUtils;
 
+import java.util.regex.Pattern;
+
 /**
  * SqlStatementBuilder supporting Oracle-specific PL/SQL constructs.
  */
@@ -28,6 +30,11 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
      */
     private static final Delimiter PLSQL_DELIMITER = new Delimiter("/", true);
 
+    /**
+     * Matches the start of an anonymous PL/SQL block.
+     */
+    private static final Pattern PLSQL_BLOCK_START_PATTERN = Pattern.compile("DECLARE|DECLARE\\s.*|BEGIN|BEGIN\\s.*");
+
     /**
      * Holds the beginning of the statement.
      */
@@ -35,7 +42,7 @@ public class OracleSqlStatementBuilder extends SqlStatementBuilder {
 
     @Override
     protected Delimiter changeDelimiterIfNecessary(String line, Delimiter delimiter) {
-        if (line.matches("DECLARE|DECLARE\\s.*") || line.matches("BEGIN|BEGIN\\s.*")) {
+        if (PLSQL_BLOCK_START_PATTERN.matcher(line).matches()) {
             return PLSQL_DELIMITER;
         }
 
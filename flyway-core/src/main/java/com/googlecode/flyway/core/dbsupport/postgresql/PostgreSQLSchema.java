@@ -103,6 +103,42 @@ public class PostgreSQLSchema extends Schema {
         }
     }
 
+    /**
+     * Drops the tables, sequences, routines, enums and domains of this schema in a single anonymous DO block.
+     * Requires PostgreSQL 9.0 or newer.
+     */
+    @Override
+    protected String generateServerSideCleanStatement() throws SQLException {
+        String schema = dbSupport.toLiteral(name);
+        return "DO $flyway_clean$\n" +
+                "DECLARE\n" +
+                "  r RECORD;\n" +
+                "BEGIN\n" +
+                // Views and child tables are dropped with their parent table by cascade
+                "  FOR r IN SELECT c.relname FROM pg_catalog.pg_class c\n" +
+                "      INNER JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace\n" +
+                "      WHERE n.nspname = " + schema + " AND c.relkind = 'r'\n" +
+                "      AND NOT EXISTS (SELECT 1 FROM pg_catalog.pg_inherits i WHERE i.inhrelid = c.oid) LOOP\n" +
+                "    EXECUTE 'DROP TABLE IF EXISTS ' || quote_ident(" + schema + ") || '.' || quote_ident(r.relname) || ' CASCADE';\n" +
+                "  END LOOP;\n" +
+                "  FOR r IN SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema = " + schema + " LOOP\n" +
+                "    EXECUTE 'DROP SEQUENCE IF EXISTS ' || quote_ident(" + schema + ") || '.' || quote_ident(r.sequence_name);\n" +
+                "  END LOOP;\n" +
+                "  FOR r IN SELECT p.proname, oidvectortypes(p.proargtypes) AS args, p.proisagg FROM pg_catalog.pg_proc p\n" +
+                "      INNER JOIN pg_catalog.pg_namespace n ON n.oid = p.pronamespace WHERE n.nspname = " + schema + " LOOP\n" +
+                "    EXECUTE 'DROP ' || CASE WHEN r.proisagg THEN 'AGGREGATE' ELSE 'FUNCTION' END || ' IF EXISTS '\n" +
+                "        || quote_ident(" + schema + ") || '.' || quote_ident(r.proname) || '(' || r.args || ') CASCADE';\n" +
+                "  END LOOP;\n" +
+                "  FOR r IN SELECT t.typname, t.typtype FROM pg_catalog.pg_type t\n" +
+                "      INNER JOIN pg_catalog.pg_namespace n ON n.oid = t.typnamespace\n" +
+                "      WHERE n.nspname = " + schema + " AND t.typtype IN ('d', 'e') LOOP\n" +
+                "    EXECUTE 'DROP ' || CASE WHEN r.typtype = 'd' THEN 'DOMAIN' ELSE 'TYPE' END || ' IF EXISTS '\n" +
+                "        || quote_ident(" + schema + ") || '.' || quote_ident(r.typname) || ' CASCADE';\n" +
+                "  END LOOP;\n" +
+                "END\n" +
+                "$flyway_clean$";
+    }
+
     /**
      * Generates the statements for dropping the sequences in this schema.
      *
@@ -30,12 +30,22 @@ public class PostgreSQLSqlStatementBuilder extends SqlStatementBuilder {
     /*private -> for testing*/
     static final String DOLLAR_QUOTE_REGEX = "\\$[A-Za-z0-9_]*\\$.*";
 
+    /**
+     * Compiled version of DOLLAR_QUOTE_REGEX.
+     */
+    private static final Pattern DOLLAR_QUOTE_PATTERN = Pattern.compile(DOLLAR_QUOTE_REGEX);
+
     @Override
     protected String extractAlternateOpenQuote(String token) {
-        Matcher matcher = Pattern.compile(DOLLAR_QUOTE_REGEX).matcher(token);
+        Matcher matcher = DOLLAR_QUOTE_PATTERN.matcher(token);
         if (matcher.find()) {
             return token.substring(matcher.start(), matcher.end());
         }
         return null;
     }
+
+    @Override
+    protected boolean isStringLiteralOrCommentChar(char c) {
+        return (c == '$') || super.isStringLiteralOrCommentChar(c);
+    }
 }
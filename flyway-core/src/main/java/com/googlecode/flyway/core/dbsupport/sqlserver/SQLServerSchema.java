@@ -102,6 +102,36 @@ public class SQLServerSchema extends Schema {
         }
     }
 
+    /**
+     * Drops the foreign keys, routines, views, tables, synonyms and types of this schema in a single T-SQL batch,
+     * which builds the drop statements from the catalog and executes them as dynamic sql.
+     */
+    @Override
+    protected String generateServerSideCleanStatement() throws SQLException {
+        String schema = "N" + dbSupport.toLiteral(name);
+        String qualifiedName = "QUOTENAME(s.name) + N'.' + QUOTENAME(o.name)";
+        return "DECLARE @sql NVARCHAR(MAX);\n" +
+                "SET @sql = N'';\n" +
+                "SELECT @sql = @sql + N'ALTER TABLE ' + QUOTENAME(s.name) + N'.' + QUOTENAME(t.name)\n" +
+                "    + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N';'\n" +
+                "  FROM sys.foreign_keys fk INNER JOIN sys.tables t ON fk.parent_object_id = t.object_id\n" +
+                "  INNER JOIN sys.schemas s ON t.schema_id = s.schema_id WHERE s.name = " + schema + ";\n" +
+                "SELECT @sql = @sql + N'DROP ' + CASE WHEN o.type = 'P' THEN N'PROCEDURE' ELSE N'FUNCTION' END + N' '\n" +
+                "    + " + qualifiedName + " + N';'\n" +
+                "  FROM sys.objects o INNER JOIN sys.schemas s ON o.schema_id = s.schema_id\n" +
+                "  WHERE s.name = " + schema + " AND o.type IN ('P', 'FN', 'IF', 'TF');\n" +
+                "SELECT @sql = @sql + N'DROP VIEW ' + " + qualifiedName + " + N';'\n" +
+                "  FROM sys.views o INNER JOIN sys.schemas s ON o.schema_id = s.schema_id WHERE s.name = " + schema + ";\n" +
+                "SELECT @sql = @sql + N'DROP TABLE ' + " + qualifiedName + " + N';'\n" +
+                "  FROM sys.tables o INNER JOIN sys.schemas s ON o.schema_id = s.schema_id WHERE s.name = " + schema + ";\n" +
+                "SELECT @sql = @sql + N'DROP SYNONYM ' + " + qualifiedName + " + N';'\n" +
+                "  FROM sys.synonyms o INNER JOIN sys.schemas s ON o.schema_id = s.schema_id WHERE s.name = " + schema + ";\n" +
+                "SELECT @sql = @sql + N'DROP TYPE ' + " + qualifiedName + " + N';'\n" +
+                "  FROM sys.types o INNER JOIN sys.schemas s ON o.schema_id = s.schema_id\n" +
+                "  WHERE o.is_user_defined = 1 AND s.name = " + schema + ";\n" +
+                "EXEC sp_executesql @sql;";
+    }
+
     /**
      * Cleans the foreign keys in this schema.
      *
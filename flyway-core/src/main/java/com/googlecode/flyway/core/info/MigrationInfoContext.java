@@ -46,6 +46,11 @@ public class MigrationInfoContext {
      */
     public MigrationVersion lastApplied = MigrationVersion.EMPTY;
 
+    /**
+     * The parallel group of the last applied migration. {@code null} if it doesn't belong to one.
+     */
+    public String lastAppliedParallelGroup;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -57,6 +62,8 @@ public class MigrationInfoContext {
         if (init != null ? !init.equals(context.init) : context.init != null) return false;
         if (!lastApplied.equals(context.lastApplied)) return false;
         if (!lastResolved.equals(context.lastResolved)) return false;
+        if (lastAppliedParallelGroup != null ? !lastAppliedParallelGroup.equals(context.lastAppliedParallelGroup) : context.lastAppliedParallelGroup != null)
+            return false;
         return target.equals(context.target);
     }
 
@@ -67,6 +74,7 @@ public class MigrationInfoContext {
         result = 31 * result + (init != null ? init.hashCode() : 0);
         result = 31 * result + lastResolved.hashCode();
         result = 31 * result + lastApplied.hashCode();
+        result = 31 * result + (lastAppliedParallelGroup != null ? lastAppliedParallelGroup.hashCode() : 0);
         return result;
     }
 }
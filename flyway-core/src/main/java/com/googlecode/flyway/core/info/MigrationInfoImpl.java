@@ -45,6 +45,11 @@ public class MigrationInfoImpl implements MigrationInfo {
      */
     private final MigrationInfoContext context;
 
+    /**
+     * The state of the migration. {@code null} if not computed yet.
+     */
+    private MigrationState state;
+
     /**
      * Creates a new MigrationInfoImpl.
      *
@@ -101,7 +106,25 @@ public class MigrationInfoImpl implements MigrationInfo {
         return appliedMigration.getScript();
     }
 
+    /**
+     * Retrieves the state of the migration. It is computed on first access and kept from then on, so the context must
+     * not change anymore by then.
+     *
+     * @return The state of the migration.
+     */
     public MigrationState getState() {
+        if (state == null) {
+            state = computeState();
+        }
+        return state;
+    }
+
+    /**
+     * Computes the state of the migration from the context.
+     *
+     * @return The state of the migration.
+     */
+    private MigrationState computeState() {
         if (appliedMigration == null) {
             if (resolvedMigration.getVersion().compareTo(context.init) < 0) {
                 return MigrationState.PREINIT;
@@ -109,7 +132,8 @@ public class MigrationInfoImpl implements MigrationInfo {
             if (resolvedMigration.getVersion().compareTo(context.target) > 0) {
                 return MigrationState.ABOVE_TARGET;
             }
-            if ((resolvedMigration.getVersion().compareTo(context.lastApplied) < 0) && !context.outOfOrder) {
+            if ((resolvedMigration.getVersion().compareTo(context.lastApplied) < 0) && !context.outOfOrder
+                    && !isInLastAppliedParallelGroup()) {
                 return MigrationState.IGNORED;
             }
             return MigrationState.PENDING;
@@ -143,6 +167,18 @@ public class MigrationInfoImpl implements MigrationInfo {
         return MigrationState.FAILED;
     }
 
+    /**
+     * Checks whether this migration belongs to the same parallel group as the last applied migration. Such a migration
+     * failed while the other migrations of its group succeeded, and must still be applied even though it has a lower
+     * version.
+     *
+     * @return {@code true} if it does, {@code false} if not.
+     */
+    private boolean isInLastAppliedParallelGroup() {
+        String parallelGroup = resolvedMigration.getParallelGroup();
+        return (parallelGroup != null) && parallelGroup.equals(context.lastAppliedParallelGroup);
+    }
+
     public Date getInstalledOn() {
         if (appliedMigration != null) {
             return appliedMigration.getInstalledOn();
@@ -27,14 +27,11 @@ import com.googlecode.flyway.core.resolver.ResolvedMigration;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 
 /**
- * Default implementation of MigrationInfoService.
+ * Default implementation of MigrationInfoService. The state of every migration is computed once per refresh, along
+ * with the indexes of the migrations in every category, so the queries never need to rescan all migrations.
  */
 public class MigrationInfoServiceImpl implements MigrationInfoService {
     /**
@@ -61,9 +58,39 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
     private boolean outOfOrder;
 
     /**
-     * The migrations infos calculated at the last refresh.
+     * The migrations infos calculated at the last refresh, sorted by version.
      */
-    private List<MigrationInfoImpl> migrationInfos;
+    private MigrationInfoImpl[] migrationInfos;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the pending migrations.
+     */
+    private int[] pendingIndexes;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the applied migrations.
+     */
+    private int[] appliedIndexes;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the resolved migrations.
+     */
+    private int[] resolvedIndexes;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the failed migrations.
+     */
+    private int[] failedIndexes;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the future migrations.
+     */
+    private int[] futureIndexes;
+
+    /**
+     * The indexes in {@link #migrationInfos} of the out of order migrations.
+     */
+    private int[] outOfOrderIndexes;
 
     /**
      * Creates a new MigrationInfoServiceImpl.
@@ -87,94 +114,199 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
         List<ResolvedMigration> availableMigrations = migrationResolver.resolveMigrations();
         List<AppliedMigration> appliedMigrations = metaDataTable.allAppliedMigrations();
 
-        migrationInfos = mergeAvailableAndAppliedMigrations(availableMigrations, appliedMigrations);
+        List<MigrationInfoImpl> mergedMigrationInfos =
+                mergeAvailableAndAppliedMigrations(availableMigrations, appliedMigrations);
+        migrationInfos = mergedMigrationInfos.toArray(new MigrationInfoImpl[mergedMigrationInfos.size()]);
+        indexStates();
     }
 
     /**
-     * Merges the available and the applied migrations to produce one fully aggregated and consolidated list.
+     * Merges the available and the applied migrations to produce one fully aggregated and consolidated list. Both lists
+     * are normally already sorted by version, in which case they are merged in a single pass without sorting.
      *
      * @param resolvedMigrations The available migrations.
      * @param appliedMigrations  The applied migrations.
-     * @return The complete list of migrations.
+     * @return The complete list of migrations, sorted by version.
      */
     /* private -> testing */
     List<MigrationInfoImpl> mergeAvailableAndAppliedMigrations(List<ResolvedMigration> resolvedMigrations, List<AppliedMigration> appliedMigrations) {
+        List<ResolvedMigration> sortedResolvedMigrations = sortedByVersion(resolvedMigrations);
+        List<AppliedMigration> sortedAppliedMigrations = sortedByVersion(appliedMigrations);
+
         MigrationInfoContext context = new MigrationInfoContext();
         context.outOfOrder = outOfOrder;
         context.target = target;
-
-        Map<MigrationVersion, ResolvedMigration> resolvedMigrationsMap = new TreeMap<MigrationVersion, ResolvedMigration>();
-        for (ResolvedMigration resolvedMigration : resolvedMigrations) {
-            MigrationVersion version = resolvedMigration.getVersion();
-            if (version.compareTo(context.lastResolved) > 0) {
-                context.lastResolved = version;
-            }
-            resolvedMigrationsMap.put(version, resolvedMigration);
+        if (!sortedResolvedMigrations.isEmpty()) {
+            context.lastResolved = sortedResolvedMigrations.get(sortedResolvedMigrations.size() - 1).getVersion();
+        }
+        if (!sortedAppliedMigrations.isEmpty()) {
+            context.lastApplied = sortedAppliedMigrations.get(sortedAppliedMigrations.size() - 1).getVersion();
         }
-
-        Map<MigrationVersion, AppliedMigration> appliedMigrationsMap = new TreeMap<MigrationVersion, AppliedMigration>();
         for (AppliedMigration appliedMigration : appliedMigrations) {
-            MigrationVersion version = appliedMigration.getVersion();
-            if (version.compareTo(context.lastApplied) > 0) {
-                context.lastApplied = version;
-            }
             if (appliedMigration.getType() == MigrationType.INIT) {
-                context.init = version;
+                context.init = appliedMigration.getVersion();
             }
-            appliedMigrationsMap.put(version, appliedMigration);
         }
 
-        Set<MigrationVersion> allVersions = new HashSet<MigrationVersion>();
-        allVersions.addAll(resolvedMigrationsMap.keySet());
-        allVersions.addAll(appliedMigrationsMap.keySet());
+        List<MigrationInfoImpl> migrationInfos =
+                new ArrayList<MigrationInfoImpl>(Math.max(sortedResolvedMigrations.size(), sortedAppliedMigrations.size()));
+        int resolvedIndex = 0;
+        int appliedIndex = 0;
+        while ((resolvedIndex < sortedResolvedMigrations.size()) || (appliedIndex < sortedAppliedMigrations.size())) {
+            ResolvedMigration resolvedMigration = null;
+            AppliedMigration appliedMigration = null;
+
+            int compared;
+            if (resolvedIndex >= sortedResolvedMigrations.size()) {
+                compared = 1;
+            } else if (appliedIndex >= sortedAppliedMigrations.size()) {
+                compared = -1;
+            } else {
+                compared = sortedResolvedMigrations.get(resolvedIndex).getVersion()
+                        .compareTo(sortedAppliedMigrations.get(appliedIndex).getVersion());
+            }
+
+            if (compared <= 0) {
+                resolvedIndex = lastWithSameVersion(sortedResolvedMigrations, resolvedIndex);
+                resolvedMigration = sortedResolvedMigrations.get(resolvedIndex++);
+            }
+            if (compared >= 0) {
+                appliedIndex = lastWithSameVersion(sortedAppliedMigrations, appliedIndex);
+                appliedMigration = sortedAppliedMigrations.get(appliedIndex++);
+                if ((resolvedMigration != null) && (appliedIndex == sortedAppliedMigrations.size())) {
+                    context.lastAppliedParallelGroup = resolvedMigration.getParallelGroup();
+                }
+            }
 
-        List<MigrationInfoImpl> migrationInfos = new ArrayList<MigrationInfoImpl>();
-        for (MigrationVersion version : allVersions) {
-            ResolvedMigration resolvedMigration = resolvedMigrationsMap.get(version);
-            AppliedMigration appliedMigration = appliedMigrationsMap.get(version);
             migrationInfos.add(new MigrationInfoImpl(resolvedMigration, appliedMigration, context));
         }
 
-        Collections.sort(migrationInfos);
-
         return migrationInfos;
     }
 
-    public MigrationInfo[] all() {
-        return migrationInfos.toArray(new MigrationInfoImpl[migrationInfos.size()]);
+    /**
+     * Sorts these migrations by version, unless they already are.
+     *
+     * @param migrations The migrations.
+     * @return The migrations sorted by version. The original list if it was already sorted.
+     */
+    private static <T extends Comparable<T>> List<T> sortedByVersion(List<T> migrations) {
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i - 1).compareTo(migrations.get(i)) > 0) {
+                List<T> sortedMigrations = new ArrayList<T>(migrations);
+                Collections.sort(sortedMigrations);
+                return sortedMigrations;
+            }
+        }
+        return migrations;
     }
 
-    public MigrationInfo current() {
-        for (int i = migrationInfos.size() - 1; i >= 0; i--) {
-            MigrationInfo migrationInfo = migrationInfos.get(i);
-            if (migrationInfo.getState().isApplied()) {
-                return migrationInfo;
+    /**
+     * Skips the migrations with the same version as the one at this index. Like with a map keyed by version, only the
+     * last of these migrations is taken into account.
+     *
+     * @param migrations The migrations, sorted by version.
+     * @param index      The index of the first migration with this version.
+     * @return The index of the last migration with this version.
+     */
+    private static <T extends Comparable<T>> int lastWithSameVersion(List<T> migrations, int index) {
+        while ((index + 1 < migrations.size()) && (migrations.get(index).compareTo(migrations.get(index + 1)) == 0)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Computes the state of every migration once and indexes the migrations of every category.
+     */
+    private void indexStates() {
+        int[] pending = new int[migrationInfos.length];
+        int[] applied = new int[migrationInfos.length];
+        int[] resolved = new int[migrationInfos.length];
+        int[] failed = new int[migrationInfos.length];
+        int[] future = new int[migrationInfos.length];
+        int[] outOfOrder = new int[migrationInfos.length];
+        int pendingCount = 0;
+        int appliedCount = 0;
+        int resolvedCount = 0;
+        int failedCount = 0;
+        int futureCount = 0;
+        int outOfOrderCount = 0;
+
+        for (int i = 0; i < migrationInfos.length; i++) {
+            MigrationState state = migrationInfos[i].getState();
+            if (state == MigrationState.PENDING) {
+                pending[pendingCount++] = i;
+            }
+            if (state.isApplied()) {
+                applied[appliedCount++] = i;
+            }
+            if (state.isResolved()) {
+                resolved[resolvedCount++] = i;
+            }
+            if (state.isFailed()) {
+                failed[failedCount++] = i;
+            }
+            if ((state == MigrationState.FUTURE_SUCCESS) || (state == MigrationState.FUTURE_FAILED)) {
+                future[futureCount++] = i;
+            }
+            if (state == MigrationState.OUT_OF_ORDER) {
+                outOfOrder[outOfOrderCount++] = i;
             }
         }
 
-        return null;
+        pendingIndexes = trim(pending, pendingCount);
+        appliedIndexes = trim(applied, appliedCount);
+        resolvedIndexes = trim(resolved, resolvedCount);
+        failedIndexes = trim(failed, failedCount);
+        futureIndexes = trim(future, futureCount);
+        outOfOrderIndexes = trim(outOfOrder, outOfOrderCount);
     }
 
-    public MigrationInfoImpl[] pending() {
-        List<MigrationInfoImpl> pendingMigrations = new ArrayList<MigrationInfoImpl>();
-        for (MigrationInfoImpl migrationInfo : migrationInfos) {
-            if (MigrationState.PENDING == migrationInfo.getState()) {
-                pendingMigrations.add(migrationInfo);
-            }
+    /**
+     * Trims this array of indexes to its actual length.
+     *
+     * @param indexes The array of indexes.
+     * @param count   The number of indexes in the array.
+     * @return The trimmed array.
+     */
+    private static int[] trim(int[] indexes, int count) {
+        int[] trimmed = new int[count];
+        System.arraycopy(indexes, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    /**
+     * Retrieves the infos of the migrations at these indexes.
+     *
+     * @param indexes The indexes in {@link #migrationInfos}.
+     * @return The infos, in version order.
+     */
+    private MigrationInfoImpl[] select(int[] indexes) {
+        MigrationInfoImpl[] selected = new MigrationInfoImpl[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            selected[i] = migrationInfos[indexes[i]];
         }
+        return selected;
+    }
 
-        return pendingMigrations.toArray(new MigrationInfoImpl[pendingMigrations.size()]);
+    public MigrationInfo[] all() {
+        return migrationInfos.clone();
     }
 
-    public MigrationInfo[] applied() {
-        List<MigrationInfo> appliedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isApplied()) {
-                appliedMigrations.add(migrationInfo);
-            }
+    public MigrationInfo current() {
+        if (appliedIndexes.length == 0) {
+            return null;
         }
+        return migrationInfos[appliedIndexes[appliedIndexes.length - 1]];
+    }
+
+    public MigrationInfoImpl[] pending() {
+        return select(pendingIndexes);
+    }
 
-        return appliedMigrations.toArray(new MigrationInfo[appliedMigrations.size()]);
+    public MigrationInfo[] applied() {
+        return select(appliedIndexes);
     }
 
     /**
@@ -183,14 +315,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The resolved migrations. An empty array if none.
      */
     public MigrationInfo[] resolved() {
-        List<MigrationInfo> resolvedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isResolved()) {
-                resolvedMigrations.add(migrationInfo);
-            }
-        }
-
-        return resolvedMigrations.toArray(new MigrationInfo[resolvedMigrations.size()]);
+        return select(resolvedIndexes);
     }
 
     /**
@@ -199,14 +324,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The failed migrations. An empty array if none.
      */
     public MigrationInfo[] failed() {
-        List<MigrationInfo> failedMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState().isFailed()) {
-                failedMigrations.add(migrationInfo);
-            }
-        }
-
-        return failedMigrations.toArray(new MigrationInfo[failedMigrations.size()]);
+        return select(failedIndexes);
     }
 
     /**
@@ -215,15 +333,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The future migrations. An empty array if none.
      */
     public MigrationInfo[] future() {
-        List<MigrationInfo> futureMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if ((migrationInfo.getState() == MigrationState.FUTURE_SUCCESS)
-                    || (migrationInfo.getState() == MigrationState.FUTURE_FAILED)) {
-                futureMigrations.add(migrationInfo);
-            }
-        }
-
-        return futureMigrations.toArray(new MigrationInfo[futureMigrations.size()]);
+        return select(futureIndexes);
     }
 
     /**
@@ -232,14 +342,7 @@ public class MigrationInfoServiceImpl implements MigrationInfoService {
      * @return The out of order migrations. An empty array if none.
      */
     public MigrationInfo[] outOfOrder() {
-        List<MigrationInfo> outOfOrderMigrations = new ArrayList<MigrationInfo>();
-        for (MigrationInfo migrationInfo : migrationInfos) {
-            if (migrationInfo.getState() == MigrationState.OUT_OF_ORDER) {
-                outOfOrderMigrations.add(migrationInfo);
-            }
-        }
-
-        return outOfOrderMigrations.toArray(new MigrationInfo[outOfOrderMigrations.size()]);
+        return select(outOfOrderIndexes);
     }
 
     /**
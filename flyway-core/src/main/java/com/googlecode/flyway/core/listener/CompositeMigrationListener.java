@@ -0,0 +1,131 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.listener;
+
+import com.googlecode.flyway.core.api.MigrationInfo;
+import com.googlecode.flyway.core.api.MigrationListener;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+/**
+ * Listener that passes every event on to a number of other listeners. A listener throwing an exception doesn't prevent
+ * the others from being notified, nor does it affect the operation being reported on.
+ */
+public class CompositeMigrationListener implements MigrationListener {
+    private static final Log LOG = LogFactory.getLog(CompositeMigrationListener.class);
+
+    /**
+     * The listeners to notify.
+     */
+    private final MigrationListener[] listeners;
+
+    /**
+     * Creates a new CompositeMigrationListener.
+     *
+     * @param listeners The listeners to notify.
+     */
+    public CompositeMigrationListener(MigrationListener... listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * @return Whether there is at least one listener to notify.
+     */
+    public boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    public void resolveStarted() {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.resolveStarted();
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void resolveFinished(int migrationCount, long executionTime) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.resolveFinished(migrationCount, executionTime);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void lockAcquired(long waitTime) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.lockAcquired(waitTime);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void migrationStarted(MigrationInfo migrationInfo) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.migrationStarted(migrationInfo);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void migrationFinished(MigrationInfo migrationInfo, boolean success, long executionTime) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.migrationFinished(migrationInfo, success, executionTime);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void statementExecuted(String script, int lineNumber, String sql, long executionTime, int updateCount) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.statementExecuted(script, lineNumber, sql, executionTime, updateCount);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    public void batchExecuted(String script, int firstLineNumber, int lastLineNumber, int statementCount,
+                              long executionTime) {
+        for (MigrationListener listener : listeners) {
+            try {
+                listener.batchExecuted(script, firstLineNumber, lastLineNumber, statementCount, executionTime);
+            } catch (RuntimeException e) {
+                logFailure(listener, e);
+            }
+        }
+    }
+
+    /**
+     * Logs the failure of this listener.
+     *
+     * @param listener The listener that failed.
+     * @param e        The exception it threw.
+     */
+    private void logFailure(MigrationListener listener, RuntimeException e) {
+        LOG.warn("Migration listener " + listener.getClass().getName() + " failed: " + e.getMessage());
+    }
+}
@@ -17,6 +17,7 @@ package com.googlecode.flyway.core.metadatatable;
 
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.dbsupport.Schema;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
 
 import java.util.List;
 
@@ -49,6 +50,17 @@ public interface MetaDataTable {
      */
     List<AppliedMigration> allAppliedMigrations();
 
+    /**
+     * Checks whether exactly these migrations have been applied successfully, with matching types and checksums, so
+     * that there is nothing left to migrate. This is done in a single query, without creating, upgrading or locking
+     * the metadata table.
+     *
+     * @param migrations The available migrations, up to the target version.
+     * @return {@code true} if the schema is up to date. {@code false} if it isn't or if this can't be determined in a
+     *         single query, for example because the metadata table doesn't exist yet or has an older format.
+     */
+    boolean isUpToDate(List<ResolvedMigration> migrations);
+
     /**
      * Creates and initializes the Flyway metadata table.
      *
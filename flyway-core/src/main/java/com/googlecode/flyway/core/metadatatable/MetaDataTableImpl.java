@@ -24,7 +24,9 @@ import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.dbsupport.SqlScript;
 import com.googlecode.flyway.core.dbsupport.Table;
 import com.googlecode.flyway.core.resolver.MigrationResolver;
+import com.googlecode.flyway.core.resolver.ResolvedMigration;
 import com.googlecode.flyway.core.util.ClassPathResource;
+import com.googlecode.flyway.core.util.ObjectUtils;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.StopWatch;
 import com.googlecode.flyway.core.util.StringUtils;
@@ -72,6 +74,17 @@ public class MetaDataTableImpl implements MetaDataTable {
      */
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * The versions of all rows in the metadata table, sorted from oldest to newest. Used to calculate the version rank
+     * of new rows without having to reread the whole table. {@code null} if not loaded yet or no longer up to date.
+     */
+    private List<MigrationVersion> versionRankIndex;
+
+    /**
+     * The highest installed rank in the metadata table. Only valid while the version rank index is loaded.
+     */
+    private int maxInstalledRank;
+
     /**
      * Creates a new instance of the metadata table support.
      *
@@ -116,21 +129,40 @@ public class MetaDataTableImpl implements MetaDataTable {
         LOG.debug("Metadata table " + table + " created.");
     }
 
+    /**
+     * Discards the state cached from the metadata table, as other instances may have modified it since. Only the
+     * knowledge that the format of the metadata table is up to date is kept, so that it isn't checked again.
+     */
+    public void clearCache() {
+        versionRankIndex = null;
+    }
+
     public void lock() {
         createIfNotExists();
         table.lock();
+
+        // Other instances may have modified the metadata table before we acquired the lock
+        versionRankIndex = null;
     }
 
     public void addAppliedMigration(AppliedMigration appliedMigration) {
         createIfNotExists();
 
+        if (versionRankIndex == null) {
+            findAppliedMigrations();
+        }
+
         MigrationVersion version = appliedMigration.getVersion();
         try {
             int versionRank = calculateVersionRank(version);
+            int installedRank = maxInstalledRank + 1;
 
-            jdbcTemplate.update("UPDATE " + table
-                    + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
-                    + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+            if (versionRank <= versionRankIndex.size()) {
+                // Out of order: make room for the new row
+                jdbcTemplate.update("UPDATE " + table
+                        + " SET " + dbSupport.quote("version_rank") + " = " + dbSupport.quote("version_rank")
+                        + " + 1 WHERE " + dbSupport.quote("version_rank") + " >= ?", versionRank);
+            }
             jdbcTemplate.update("INSERT INTO " + table
                     + " (" + dbSupport.quote("version_rank")
                     + "," + dbSupport.quote("installed_rank")
@@ -145,7 +177,7 @@ public class MetaDataTableImpl implements MetaDataTable {
                     + ")"
                     + " VALUES (?, ?, ?, ?, ?, ?, ?, " + dbSupport.getCurrentUserFunction() + ", ?, ?)",
                     versionRank,
-                    calculateInstalledRank(),
+                    installedRank,
                     version.toString(),
                     appliedMigration.getDescription(),
                     appliedMigration.getType().name(),
@@ -153,6 +185,9 @@ public class MetaDataTableImpl implements MetaDataTable {
                     appliedMigration.getChecksum(),
                     appliedMigration.getExecutionTime(),
                     appliedMigration.isSuccess());
+
+            versionRankIndex.add(versionRank - 1, version);
+            maxInstalledRank = installedRank;
             LOG.debug("MetaData table " + table + " successfully updated to reflect changes");
         } catch (SQLException e) {
             throw new FlywayException("Unable to insert row for version '" + version + "' in metadata table " + table, e);
@@ -160,43 +195,85 @@ public class MetaDataTableImpl implements MetaDataTable {
     }
 
     /**
-     * Calculates the installed rank for the new migration to be inserted.
+     * Calculate the rank for this new version about to be inserted.
      *
-     * @return The installed rank.
+     * @param version The version to calculated for.
+     * @return The rank.
      */
-    private int calculateInstalledRank() throws SQLException {
-        int currentMax = jdbcTemplate.queryForInt("SELECT MAX(" + dbSupport.quote("installed_rank") + ")"
-                + " FROM " + table);
-        return currentMax + 1;
+    private int calculateVersionRank(MigrationVersion version) {
+        int low = 0;
+        int high = versionRankIndex.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (version.compareTo(versionRankIndex.get(middle)) < 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low + 1;
     }
 
     /**
-     * Calculate the rank for this new version about to be inserted.
+     * Rebuilds the version rank index from these rows.
      *
-     * @param version The version to calculated for.
-     * @return The rank.
+     * @param appliedMigrations All the rows of the metadata table.
      */
-    private int calculateVersionRank(MigrationVersion version) throws SQLException {
-        List<String> versions = jdbcTemplate.queryForStringList("select " + dbSupport.quote("version") + " from " + table);
-
-        List<MigrationVersion> migrationVersions = new ArrayList<MigrationVersion>();
-        for (String versionStr : versions) {
-            migrationVersions.add(new MigrationVersion(versionStr));
+    private void updateVersionRankIndex(List<AppliedMigration> appliedMigrations) {
+        versionRankIndex = new ArrayList<MigrationVersion>(appliedMigrations.size());
+        maxInstalledRank = 0;
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            versionRankIndex.add(appliedMigration.getVersion());
+            maxInstalledRank = Math.max(maxInstalledRank, appliedMigration.getInstalledRank());
         }
+        Collections.sort(versionRankIndex);
+    }
 
-        Collections.sort(migrationVersions);
+    public List<AppliedMigration> allAppliedMigrations() {
+        return findAppliedMigrations();
+    }
 
-        for (int i = 0; i < migrationVersions.size(); i++) {
-            if (version.compareTo(migrationVersions.get(i)) < 0) {
-                return i + 1;
+    public boolean isUpToDate(List<ResolvedMigration> migrations) {
+        List<AppliedMigration> appliedMigrations;
+        try {
+            appliedMigrations = queryAppliedMigrations(selectAppliedMigrationsQuery());
+        } catch (SQLException e) {
+            LOG.debug("Unable to check whether metadata table " + table + " is up to date: " + e.getMessage());
+            return false;
+        }
+
+        MigrationVersion initVersion = null;
+        Map<MigrationVersion, AppliedMigration> appliedByVersion = new HashMap<MigrationVersion, AppliedMigration>();
+        for (AppliedMigration appliedMigration : appliedMigrations) {
+            if (!appliedMigration.isSuccess()) {
+                return false;
+            }
+            if (appliedMigration.getType() == MigrationType.INIT) {
+                initVersion = appliedMigration.getVersion();
+            } else if (appliedMigration.getType() != MigrationType.SCHEMA) {
+                appliedByVersion.put(appliedMigration.getVersion(), appliedMigration);
             }
         }
+        if (appliedByVersion.isEmpty()) {
+            // Brand new or freshly initialized schema. Leave it to a regular migration.
+            return false;
+        }
 
-        return migrationVersions.size() + 1;
-    }
+        int expectedCount = 0;
+        for (ResolvedMigration migration : migrations) {
+            if ((initVersion != null) && (migration.getVersion().compareTo(initVersion) <= 0)) {
+                continue;
+            }
+            expectedCount++;
 
-    public List<AppliedMigration> allAppliedMigrations() {
-        return findAppliedMigrations();
+            AppliedMigration appliedMigration = appliedByVersion.get(migration.getVersion());
+            if ((appliedMigration == null)
+                    || (appliedMigration.getType() != migration.getType())
+                    || !ObjectUtils.nullSafeEquals(appliedMigration.getChecksum(), migration.getChecksum())) {
+                return false;
+            }
+        }
+        return expectedCount == appliedByVersion.size();
     }
 
     /**
@@ -212,18 +289,7 @@ public class MetaDataTableImpl implements MetaDataTable {
 
         createIfNotExists();
 
-        String query = "SELECT " + dbSupport.quote("version_rank")
-                + "," + dbSupport.quote("installed_rank")
-                + "," + dbSupport.quote("version")
-                + "," + dbSupport.quote("description")
-                + "," + dbSupport.quote("type")
-                + "," + dbSupport.quote("script")
-                + "," + dbSupport.quote("checksum")
-                + "," + dbSupport.quote("installed_on")
-                + "," + dbSupport.quote("installed_by")
-                + "," + dbSupport.quote("execution_time")
-                + "," + dbSupport.quote("success")
-                + " FROM " + table;
+        String query = selectAppliedMigrationsQuery();
 
         if (migrationTypes.length > 0) {
             query += " WHERE " + dbSupport.quote("type") + " IN (";
@@ -239,29 +305,62 @@ public class MetaDataTableImpl implements MetaDataTable {
         query += " ORDER BY " + dbSupport.quote("version_rank");
 
         try {
-            return jdbcTemplate.query(query, new RowMapper<AppliedMigration>() {
-                public AppliedMigration mapRow(final ResultSet rs) throws SQLException {
-                    return new AppliedMigration(
-                            rs.getInt("version_rank"),
-                            rs.getInt("installed_rank"),
-                            new MigrationVersion(rs.getString("version")),
-                            rs.getString("description"),
-                            MigrationType.valueOf(rs.getString("type")),
-                            rs.getString("script"),
-                            toInteger((Number) rs.getObject("checksum")),
-                            rs.getTimestamp("installed_on"),
-                            rs.getString("installed_by"),
-                            toInteger((Number) rs.getObject("execution_time")),
-                            rs.getBoolean("success")
-                    );
-                }
-            });
+            List<AppliedMigration> appliedMigrations = queryAppliedMigrations(query);
+            if (migrationTypes.length == 0) {
+                updateVersionRankIndex(appliedMigrations);
+            }
+            return appliedMigrations;
         } catch (SQLException e) {
             throw new FlywayException("Error while retrieving the list of applied migrations from metadata table "
                     + table, e);
         }
     }
 
+    /**
+     * @return The query selecting all columns of the rows of the metadata table, without any condition.
+     */
+    private String selectAppliedMigrationsQuery() {
+        return "SELECT " + dbSupport.quote("version_rank")
+                + "," + dbSupport.quote("installed_rank")
+                + "," + dbSupport.quote("version")
+                + "," + dbSupport.quote("description")
+                + "," + dbSupport.quote("type")
+                + "," + dbSupport.quote("script")
+                + "," + dbSupport.quote("checksum")
+                + "," + dbSupport.quote("installed_on")
+                + "," + dbSupport.quote("installed_by")
+                + "," + dbSupport.quote("execution_time")
+                + "," + dbSupport.quote("success")
+                + " FROM " + table;
+    }
+
+    /**
+     * Executes this query against the metadata table and maps the rows it returns.
+     *
+     * @param query The query selecting all columns of the metadata table.
+     * @return The applied migrations.
+     * @throws SQLException when the query failed.
+     */
+    private List<AppliedMigration> queryAppliedMigrations(String query) throws SQLException {
+        return jdbcTemplate.query(query, new RowMapper<AppliedMigration>() {
+            public AppliedMigration mapRow(final ResultSet rs) throws SQLException {
+                return new AppliedMigration(
+                        rs.getInt("version_rank"),
+                        rs.getInt("installed_rank"),
+                        MigrationVersion.fromVersion(rs.getString("version")),
+                        rs.getString("description"),
+                        MigrationType.valueOf(rs.getString("type")),
+                        rs.getString("script"),
+                        toInteger((Number) rs.getObject("checksum")),
+                        rs.getTimestamp("installed_on"),
+                        rs.getString("installed_by"),
+                        toInteger((Number) rs.getObject("execution_time")),
+                        rs.getBoolean("success")
+                );
+            }
+        });
+    }
+
     /**
      * Converts this number into an Integer.
      *
@@ -309,6 +408,7 @@ public class MetaDataTableImpl implements MetaDataTable {
         } catch (SQLException e) {
             throw new FlywayException("Unable to repair metadata table " + table, e);
         }
+        versionRankIndex = null;
 
         stopWatch.stop();
 
@@ -157,7 +157,7 @@ public class MetaDataTableTo20FormatUpgrader {
 
         List<MigrationVersion> migrationVersions = new ArrayList<MigrationVersion>(versions.size());
         for (String version : versions) {
-            migrationVersions.add(new MigrationVersion(version));
+            migrationVersions.add(MigrationVersion.fromVersion(version));
         }
 
         Collections.sort(migrationVersions);
@@ -16,27 +16,41 @@
 package com.googlecode.flyway.core.resolver;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.resolver.java.JavaMigrationResolver;
 import com.googlecode.flyway.core.resolver.jdbc.JdbcMigrationResolver;
 import com.googlecode.flyway.core.resolver.spring.SpringJdbcMigrationResolver;
+import com.googlecode.flyway.core.resolver.sql.SqlMigrationChecksumCache;
 import com.googlecode.flyway.core.resolver.sql.SqlMigrationResolver;
 import com.googlecode.flyway.core.util.FeatureDetector;
 import com.googlecode.flyway.core.util.Location;
 import com.googlecode.flyway.core.util.Locations;
+import com.googlecode.flyway.core.util.NamedDaemonThreadFactory;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Facility for retrieving and sorting the available migrations from the classpath through the various migration
- * resolvers.
+ * resolvers. The migrations are only resolved once, even when several threads request them at the same time.
  */
 public class CompositeMigrationResolver implements MigrationResolver {
     /**
@@ -79,12 +93,28 @@ public class CompositeMigrationResolver implements MigrationResolver {
      */
     private final String placeholderSuffix;
 
+    /**
+     * The maximum number of plain DML statements to send to the database in a single JDBC batch. 0 to disable batching.
+     */
+    private final int statementBatchSize;
+
+    /**
+     * The file in which to cache the checksums of sql migrations. {@code null} to always calculate them from the
+     * scripts.
+     */
+    private final String checksumCacheFile;
+
     /**
      * The available migrations, sorted by version, newest first. An empty list is returned when no migrations can be
      * found.
      */
     private List<ResolvedMigration> availableMigrations;
 
+    /**
+     * The listener to notify of the resolution and of every sql statement executed. {@code null} for none.
+     */
+    private final MigrationListener migrationListener;
+
     /**
      * Creates a new CompositeMigrationResolver.
      *
@@ -96,8 +126,14 @@ public class CompositeMigrationResolver implements MigrationResolver {
      * @param placeholders       A map of &lt;placeholder, replacementValue&gt; to apply to sql migration scripts.
      * @param placeholderPrefix  The prefix of every placeholder.
      * @param placeholderSuffix  The suffix of every placeholder.
+     * @param statementBatchSize The maximum number of plain DML statements to send to the database in a single JDBC
+     *                           batch. 0 to disable batching.
+     * @param checksumCacheFile  The file in which to cache the checksums of sql migrations. {@code null} to always
+     *                           calculate them from the scripts.
+     * @param migrationListener  The listener to notify of the resolution and of every sql statement executed.
+     *                           {@code null} for none.
      */
-    public CompositeMigrationResolver(DbSupport dbSupport, Locations locations, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix) {
+    public CompositeMigrationResolver(DbSupport dbSupport, Locations locations, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, Map<String, String> placeholders, String placeholderPrefix, String placeholderSuffix, int statementBatchSize, String checksumCacheFile, MigrationListener migrationListener) {
         this.dbSupport = dbSupport;
         this.locations = locations;
         this.encoding = encoding;
@@ -106,6 +142,9 @@ public class CompositeMigrationResolver implements MigrationResolver {
         this.placeholders = placeholders;
         this.placeholderPrefix = placeholderPrefix;
         this.placeholderSuffix = placeholderSuffix;
+        this.statementBatchSize = statementBatchSize;
+        this.checksumCacheFile = checksumCacheFile;
+        this.migrationListener = migrationListener;
     }
 
     /**
@@ -115,14 +154,61 @@ public class CompositeMigrationResolver implements MigrationResolver {
      *         can be found.
      * @throws FlywayException when the available migrations have overlapping versions.
      */
-    public List<ResolvedMigration> resolveMigrations() {
+    public synchronized List<ResolvedMigration> resolveMigrations() {
         if (availableMigrations == null) {
-            availableMigrations = doFindAvailableMigrations();
+            if (migrationListener == null) {
+                availableMigrations = doFindAvailableMigrations();
+            } else {
+                long start = System.currentTimeMillis();
+                migrationListener.resolveStarted();
+                availableMigrations = doFindAvailableMigrations();
+                migrationListener.resolveFinished(availableMigrations.size(), System.currentTimeMillis() - start);
+            }
         }
 
         return availableMigrations;
     }
 
+    /**
+     * Calculates a fingerprint of the available migrations and of the placeholders replaced in them. It changes as soon
+     * as a migration is added, removed or renamed, or the contents of a sql migration change. The contents of java
+     * migrations are only covered when they provide a checksum.
+     *
+     * @param scope Where the migrations are applied, such as the schemas and the metadata table, to tell apart the
+     *              same migrations applied to different places.
+     * @return The fingerprint, as a string of hex digits.
+     */
+    public String getFingerprint(String... scope) {
+        StringBuilder contents = new StringBuilder();
+        for (String part : scope) {
+            contents.append(part).append('\n');
+        }
+        for (ResolvedMigration migration : resolveMigrations()) {
+            contents.append(migration.getVersion()).append('|')
+                    .append(migration.getDescription()).append('|')
+                    .append(migration.getType()).append('|')
+                    .append(migration.getScript()).append('|')
+                    .append(migration.getChecksum()).append('\n');
+        }
+        contents.append(placeholderPrefix).append('|').append(placeholderSuffix).append('\n');
+        for (Map.Entry<String, String> placeholder : new TreeMap<String, String>(placeholders).entrySet()) {
+            contents.append(placeholder.getKey()).append('=').append(placeholder.getValue()).append('\n');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(contents.toString().getBytes("UTF-8"));
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new FlywayException("Unable to calculate the fingerprint of the migrations", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new FlywayException("Unable to calculate the fingerprint of the migrations", e);
+        }
+    }
+
     /**
      * Finds all available migrations using all migration resolvers (sql, java, ...).
      *
@@ -133,19 +219,30 @@ public class CompositeMigrationResolver implements MigrationResolver {
     private List<ResolvedMigration> doFindAvailableMigrations() throws FlywayException {
         PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, placeholderPrefix, placeholderSuffix);
 
+        SqlMigrationChecksumCache checksumCache = null;
+        if (checksumCacheFile != null) {
+            checksumCache = new SqlMigrationChecksumCache(new File(checksumCacheFile));
+        }
+
+        // Shared by all resolvers so that every location is scanned only once
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
         Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
 
         for (Location location : locations.getLocations()) {
-            migrationResolvers.add(new SqlMigrationResolver(dbSupport, location, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix));
-            migrationResolvers.add(new JdbcMigrationResolver(location));
+            migrationResolvers.add(new SqlMigrationResolver(dbSupport, location, placeholderReplacer, encoding, sqlMigrationPrefix, sqlMigrationSuffix, statementBatchSize, checksumCache, classPathScanner, migrationListener));
+            migrationResolvers.add(new JdbcMigrationResolver(location, classPathScanner));
 
             if (FeatureDetector.isSpringJdbcAvailable()) {
-                migrationResolvers.add(new SpringJdbcMigrationResolver(location));
-                migrationResolvers.add(new JavaMigrationResolver(location));
+                migrationResolvers.add(new SpringJdbcMigrationResolver(location, classPathScanner));
+                migrationResolvers.add(new JavaMigrationResolver(location, classPathScanner));
             }
         }
 
         List<ResolvedMigration> migrations = new ArrayList<ResolvedMigration>(collectMigrations(migrationResolvers));
+        if (checksumCache != null) {
+            checksumCache.save();
+        }
         Collections.sort(migrations);
 
         checkForIncompatibilities(migrations);
@@ -161,13 +258,79 @@ public class CompositeMigrationResolver implements MigrationResolver {
      */
     /* private -> for testing */
     static Collection<ResolvedMigration> collectMigrations(Collection<MigrationResolver> migrationResolvers) {
-        Set<ResolvedMigration> migrations = new HashSet<ResolvedMigration>();
-        for (MigrationResolver migrationResolver : migrationResolvers) {
-            migrations.addAll(migrationResolver.resolveMigrations());
+        return collectMigrations(migrationResolvers, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Collects all the migrations for all migration resolvers.
+     *
+     * @param migrationResolvers The migration resolvers to check.
+     * @param maxThreads         The maximum number of resolvers to run concurrently.
+     * @return All migrations.
+     */
+    /* private -> for testing */
+    static Collection<ResolvedMigration> collectMigrations(Collection<MigrationResolver> migrationResolvers, int maxThreads) {
+        Set<ResolvedMigration> migrations = new LinkedHashSet<ResolvedMigration>();
+        for (List<ResolvedMigration> resolvedMigrations : resolveInParallel(migrationResolvers, maxThreads)) {
+            migrations.addAll(resolvedMigrations);
         }
         return migrations;
     }
 
+    /**
+     * Lets all these migration resolvers resolve their migrations concurrently, on a bounded pool. Each resolver
+     * typically scans a single location of a single type, so the classpath scans and file reads of the different
+     * resolvers overlap instead of adding up.
+     *
+     * @param migrationResolvers The migration resolvers to use.
+     * @param maxThreads         The maximum number of resolvers to run concurrently.
+     * @return The migrations of each resolver, in the same order as the resolvers.
+     */
+    private static List<List<ResolvedMigration>> resolveInParallel(Collection<MigrationResolver> migrationResolvers, int maxThreads) {
+        List<List<ResolvedMigration>> results = new ArrayList<List<ResolvedMigration>>();
+
+        int threads = Math.min(migrationResolvers.size(), maxThreads);
+        if (threads <= 1) {
+            for (MigrationResolver migrationResolver : migrationResolvers) {
+                results.add(migrationResolver.resolveMigrations());
+            }
+            return results;
+        }
+
+        ExecutorService executorService =
+                Executors.newFixedThreadPool(threads, new NamedDaemonThreadFactory("flyway-resolver"));
+
+        try {
+            List<Future<List<ResolvedMigration>>> futures = new ArrayList<Future<List<ResolvedMigration>>>();
+            for (final MigrationResolver migrationResolver : migrationResolvers) {
+                futures.add(executorService.submit(new Callable<List<ResolvedMigration>>() {
+                    public List<ResolvedMigration> call() {
+                        return migrationResolver.resolveMigrations();
+                    }
+                }));
+            }
+
+            for (Future<List<ResolvedMigration>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while resolving migrations", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlywayException("Unable to resolve migrations", cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     /**
      * Checks for incompatible migrations.
      *
@@ -21,9 +21,17 @@ import com.googlecode.flyway.core.util.Pair;
 
 /**
  * Parsing support for migrations that use the standard Flyway version + description embedding in their name. These
- * migrations have names like 1_2__Description .
+ * migrations have names like 1_2__Description . Migrations that may be applied concurrently with their neighbours
+ * additionally embed the name of their parallel group behind the version: 1_2_PARALLEL_group__Description . As the
+ * version may only contain digits, dots and underscores, no name that was valid before can carry this marker by
+ * accident.
  */
 public class MigrationInfoHelper {
+    /**
+     * The marker between the version and the name of the parallel group of a migration.
+     */
+    private static final String PARALLEL_GROUP_MARKER = "_PARALLEL_";
+
     /**
      * Prevents instantiation.
      */
@@ -32,7 +40,8 @@ public class MigrationInfoHelper {
     }
 
     /**
-     * Extracts the schema version and the description from a migration name formatted as 1_2__Description.
+     * Extracts the schema version and the description from a migration name formatted as 1_2__Description or
+     * 1_2_PARALLEL_group__Description.
      *
      * @param migrationName The migration name to parse. Should not contain any folders or packages.
      * @return The extracted schema version.
@@ -51,8 +60,50 @@ public class MigrationInfoHelper {
         } else {
             version = cleanMigrationName.substring(0, descriptionPos);
             description = cleanMigrationName.substring(descriptionPos + 2).replaceAll("_", " ");
+
+            int parallelGroupPos = findParallelGroup(version);
+            if (parallelGroupPos >= 0) {
+                version = version.substring(0, parallelGroupPos);
+            }
         }
 
-        return Pair.of(new MigrationVersion(version), description);
+        return Pair.of(MigrationVersion.fromVersion(version), description);
+    }
+
+    /**
+     * Extracts the name of the parallel group from a migration name formatted as 1_2_PARALLEL_group__Description.
+     *
+     * @param migrationName The migration name to parse. Should not contain any folders or packages.
+     * @return The name of the parallel group. {@code null} if the migration doesn't belong to one.
+     */
+    public static String extractParallelGroup(String migrationName, String prefix, String suffix) {
+        String cleanMigrationName = migrationName.substring(prefix.length(), migrationName.length() - suffix.length());
+
+        int descriptionPos = cleanMigrationName.indexOf("__");
+        if (descriptionPos < 0) {
+            return null;
+        }
+
+        String version = cleanMigrationName.substring(0, descriptionPos);
+        int parallelGroupPos = findParallelGroup(version);
+        if (parallelGroupPos < 0) {
+            return null;
+        }
+        return version.substring(parallelGroupPos + PARALLEL_GROUP_MARKER.length());
+    }
+
+    /**
+     * Finds the marker of the parallel group at the end of this version.
+     *
+     * @param version The version part of a migration name, formatted as 1_2_PARALLEL_group.
+     * @return The position of the marker separating the version from the group. {@code -1} if the version isn't
+     * followed by a parallel group.
+     */
+    private static int findParallelGroup(String version) {
+        int parallelGroupPos = version.indexOf(PARALLEL_GROUP_MARKER);
+        if ((parallelGroupPos < 0) || (parallelGroupPos + PARALLEL_GROUP_MARKER.length() == version.length())) {
+            return -1;
+        }
+        return parallelGroupPos;
     }
 }
@@ -57,6 +57,11 @@ public class ResolvedMigration implements Comparable<ResolvedMigration> {
      */
     private MigrationExecutor executor;
 
+    /**
+     * The parallel group of this migration. {@code null} if it is always applied on its own.
+     */
+    private String parallelGroup;
+
     /**
      * @return The target version of this migration.
      */
@@ -155,6 +160,21 @@ public class ResolvedMigration implements Comparable<ResolvedMigration> {
         this.executor = executor;
     }
 
+    /**
+     * @return The parallel group of this migration. Consecutive pending migrations of the same group are applied
+     * concurrently. {@code null} if it is always applied on its own.
+     */
+    public String getParallelGroup() {
+        return parallelGroup;
+    }
+
+    /**
+     * @param parallelGroup The parallel group of this migration. {@code null} if it is always applied on its own.
+     */
+    public void setParallelGroup(String parallelGroup) {
+        this.parallelGroup = parallelGroup;
+    }
+
     public int compareTo(ResolvedMigration o) {
         return version.compareTo(o.version);
     }
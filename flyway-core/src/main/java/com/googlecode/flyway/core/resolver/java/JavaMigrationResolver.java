@@ -44,13 +44,20 @@ public class JavaMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the migration classes on the classpath.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
-     * @param location The base package on the classpath where to migrations are located.
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes on the classpath.
      */
-    public JavaMigrationResolver(Location location) {
+    public JavaMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,7 +68,7 @@ public class JavaMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), JavaMigration.class);
+            Class<?>[] classes = classPathScanner.scanForClasses(location.getPath(), JavaMigration.class);
             for (Class<?> clazz : classes) {
                 JavaMigration javaMigration = (JavaMigration) ClassUtils.instantiate(clazz.getName());
 
@@ -94,9 +101,10 @@ public class JavaMigrationResolver implements MigrationResolver {
 
         MigrationVersion version;
         String description;
+        String parallelGroup = null;
         if (javaMigration instanceof JavaMigrationInfoProvider) {
             JavaMigrationInfoProvider infoProvider = (JavaMigrationInfoProvider) javaMigration;
-            version = new MigrationVersion(infoProvider.getVersion().toString());
+            version = MigrationVersion.fromVersion(infoProvider.getVersion().toString());
             description = infoProvider.getDescription();
             if (!StringUtils.hasText(description)) {
                 throw new FlywayException("Missing description for migration " + version);
@@ -106,6 +114,8 @@ public class JavaMigrationResolver implements MigrationResolver {
                     MigrationInfoHelper.extractVersionAndDescription(ClassUtils.getShortName(javaMigration.getClass()), "V", "");
             version = info.getLeft();
             description = info.getRight();
+            parallelGroup =
+                    MigrationInfoHelper.extractParallelGroup(ClassUtils.getShortName(javaMigration.getClass()), "V", "");
         }
 
         String script = javaMigration.getClass().getName();
@@ -115,6 +125,7 @@ public class JavaMigrationResolver implements MigrationResolver {
         resolvedMigration.setDescription(description);
         resolvedMigration.setScript(script);
         resolvedMigration.setChecksum(checksum);
+        resolvedMigration.setParallelGroup(parallelGroup);
         resolvedMigration.setType(MigrationType.SPRING_JDBC);
         return resolvedMigration;
     }
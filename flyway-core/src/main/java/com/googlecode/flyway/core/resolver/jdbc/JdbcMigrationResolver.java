@@ -44,13 +44,20 @@ public class JdbcMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the migration classes on the classpath.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
-     * @param location The base package on the classpath where to migrations are located.
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes on the classpath.
      */
-    public JdbcMigrationResolver(Location location) {
+    public JdbcMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,7 +68,7 @@ public class JdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), JdbcMigration.class);
+            Class<?>[] classes = classPathScanner.scanForClasses(location.getPath(), JdbcMigration.class);
             for (Class<?> clazz : classes) {
                 JdbcMigration jdbcMigration = (JdbcMigration) ClassUtils.instantiate(clazz.getName());
 
@@ -94,6 +101,7 @@ public class JdbcMigrationResolver implements MigrationResolver {
 
         MigrationVersion version;
         String description;
+        String parallelGroup = null;
         if (jdbcMigration instanceof MigrationInfoProvider) {
             MigrationInfoProvider infoProvider = (MigrationInfoProvider) jdbcMigration;
             version = infoProvider.getVersion();
@@ -106,6 +114,8 @@ public class JdbcMigrationResolver implements MigrationResolver {
                     MigrationInfoHelper.extractVersionAndDescription(ClassUtils.getShortName(jdbcMigration.getClass()), "V", "");
             version = info.getLeft();
             description = info.getRight();
+            parallelGroup =
+                    MigrationInfoHelper.extractParallelGroup(ClassUtils.getShortName(jdbcMigration.getClass()), "V", "");
         }
 
         String script = jdbcMigration.getClass().getName();
@@ -116,6 +126,7 @@ public class JdbcMigrationResolver implements MigrationResolver {
         resolvedMigration.setDescription(description);
         resolvedMigration.setScript(script);
         resolvedMigration.setChecksum(checksum);
+        resolvedMigration.setParallelGroup(parallelGroup);
         resolvedMigration.setType(MigrationType.JDBC);
         return resolvedMigration;
     }
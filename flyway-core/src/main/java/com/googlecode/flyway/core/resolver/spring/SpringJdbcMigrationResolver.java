@@ -44,13 +44,20 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
      */
     private final Location location;
 
+    /**
+     * The scanner to use to find the migration classes on the classpath.
+     */
+    private final ClassPathScanner classPathScanner;
+
     /**
      * Creates a new instance.
      *
-     * @param location The base package on the classpath where to migrations are located.
+     * @param location         The base package on the classpath where to migrations are located.
+     * @param classPathScanner The scanner to use to find the migration classes on the classpath.
      */
-    public SpringJdbcMigrationResolver(Location location) {
+    public SpringJdbcMigrationResolver(Location location, ClassPathScanner classPathScanner) {
         this.location = location;
+        this.classPathScanner = classPathScanner;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -61,7 +68,7 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
         }
 
         try {
-            Class<?>[] classes = new ClassPathScanner().scanForClasses(location.getPath(), SpringJdbcMigration.class);
+            Class<?>[] classes = classPathScanner.scanForClasses(location.getPath(), SpringJdbcMigration.class);
             for (Class<?> clazz : classes) {
                 SpringJdbcMigration springJdbcMigration = (SpringJdbcMigration) ClassUtils.instantiate(clazz.getName());
 
@@ -94,6 +101,7 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
 
         MigrationVersion version;
         String description;
+        String parallelGroup = null;
         if (springJdbcMigration instanceof MigrationInfoProvider) {
             MigrationInfoProvider infoProvider = (MigrationInfoProvider) springJdbcMigration;
             version = infoProvider.getVersion();
@@ -106,6 +114,8 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
                     MigrationInfoHelper.extractVersionAndDescription(ClassUtils.getShortName(springJdbcMigration.getClass()), "V", "");
             version = info.getLeft();
             description = info.getRight();
+            parallelGroup =
+                    MigrationInfoHelper.extractParallelGroup(ClassUtils.getShortName(springJdbcMigration.getClass()), "V", "");
         }
 
         String script = springJdbcMigration.getClass().getName();
@@ -115,6 +125,7 @@ public class SpringJdbcMigrationResolver implements MigrationResolver {
         resolvedMigration.setDescription(description);
         resolvedMigration.setScript(script);
         resolvedMigration.setChecksum(checksum);
+        resolvedMigration.setParallelGroup(parallelGroup);
         resolvedMigration.setType(MigrationType.SPRING_JDBC);
         return resolvedMigration;
     }
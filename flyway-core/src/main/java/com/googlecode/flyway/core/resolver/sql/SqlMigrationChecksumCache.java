@@ -0,0 +1,184 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.resolver.sql;
+
+import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Persistent cache of the checksums of sql migrations. Each entry is keyed on the location of the resource and holds
+ * its fingerprint (size and last modification time of a file, crc of a jar entry) together with its checksum. As long
+ * as the fingerprint of a resource is unchanged, its checksum is taken from the cache instead of being calculated from
+ * its contents. Entries whose fingerprint changed are recalculated and entries for resources that are no longer
+ * present are dropped when the cache is saved.
+ */
+public class SqlMigrationChecksumCache {
+    private static final Log LOG = LogFactory.getLog(SqlMigrationChecksumCache.class);
+
+    /**
+     * The file the cache is persisted to.
+     */
+    private final File cacheFile;
+
+    /**
+     * The entries loaded from the cache file. Keyed by resource location. Values are fingerprint|checksum.
+     */
+    private final Properties loadedEntries = new Properties();
+
+    /**
+     * The entries of the resources looked up since the cache was loaded. These are the ones that will be saved.
+     */
+    private final Properties currentEntries = new Properties();
+
+    /**
+     * Whether the current entries differ from the ones that were loaded.
+     */
+    private boolean modified;
+
+    /**
+     * Creates a new checksum cache and loads its entries from this file, if it exists.
+     *
+     * @param cacheFile The file the cache is persisted to.
+     */
+    public SqlMigrationChecksumCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+
+        if (!cacheFile.isFile()) {
+            return;
+        }
+
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(cacheFile);
+            loadedEntries.load(inputStream);
+        } catch (IOException e) {
+            LOG.warn("Unable to load sql migration checksum cache " + cacheFile + ", ignoring it: " + e.getMessage());
+            loadedEntries.clear();
+        } finally {
+            close(inputStream);
+        }
+    }
+
+    /**
+     * Retrieves the cached checksum for this resource.
+     *
+     * @param resource    The resource to look up.
+     * @param fingerprint The current fingerprint of the resource. {@code null} if it has none.
+     * @return The checksum. {@code null} if it is not cached or if the resource changed since it was cached.
+     */
+    public synchronized Integer getChecksum(Resource resource, String fingerprint) {
+        if (fingerprint == null) {
+            return null;
+        }
+
+        String entry = loadedEntries.getProperty(resource.getLocation());
+        if (entry == null) {
+            return null;
+        }
+
+        int separator = entry.lastIndexOf('|');
+        if ((separator < 0) || !fingerprint.equals(entry.substring(0, separator))) {
+            return null;
+        }
+
+        try {
+            Integer checksum = Integer.valueOf(entry.substring(separator + 1));
+            currentEntries.setProperty(resource.getLocation(), entry);
+            return checksum;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the checksum of this resource in the cache.
+     *
+     * @param resource    The resource whose checksum was calculated.
+     * @param fingerprint The current fingerprint of the resource. {@code null} if it has none.
+     * @param checksum    The checksum.
+     */
+    public synchronized void putChecksum(Resource resource, String fingerprint, int checksum) {
+        if (fingerprint == null) {
+            return;
+        }
+
+        currentEntries.setProperty(resource.getLocation(), fingerprint + "|" + checksum);
+        modified = true;
+    }
+
+    /**
+     * Persists the cache to its file, if it changed. Failures are logged, but do not fail the resolution of the
+     * migrations.
+     */
+    public synchronized void save() {
+        if (!modified && (currentEntries.size() == loadedEntries.size())) {
+            return;
+        }
+
+        // Unique per save, so that concurrent processes saving the same cache never write into each other's file
+        File tempFile = new File(cacheFile.getPath() + "." + System.nanoTime() + ".tmp");
+        OutputStream outputStream = null;
+        try {
+            File parentDir = cacheFile.getAbsoluteFile().getParentFile();
+            if ((parentDir != null) && !parentDir.isDirectory() && !parentDir.mkdirs()) {
+                throw new IOException("Unable to create directory " + parentDir);
+            }
+
+            outputStream = new FileOutputStream(tempFile);
+            currentEntries.store(outputStream, "Flyway sql migration checksum cache");
+            outputStream.close();
+            outputStream = null;
+
+            if (!tempFile.renameTo(cacheFile) && !(cacheFile.delete() && tempFile.renameTo(cacheFile))) {
+                throw new IOException("Unable to rename " + tempFile + " to " + cacheFile);
+            }
+            LOG.debug("Saved " + currentEntries.size() + " entries to sql migration checksum cache " + cacheFile);
+        } catch (IOException e) {
+            LOG.warn("Unable to save sql migration checksum cache " + cacheFile + ": " + e.getMessage());
+        } finally {
+            close(outputStream);
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOG.warn("Unable to delete temporary sql migration checksum cache " + tempFile);
+            }
+        }
+    }
+
+    /**
+     * Closes this stream, ignoring any errors.
+     *
+     * @param closeable The stream to close. Does nothing if {@code null}.
+     */
+    private static void close(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.googlecode.flyway.core.resolver.sql;
 
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
 import com.googlecode.flyway.core.dbsupport.SqlScript;
 import com.googlecode.flyway.core.resolver.MigrationExecutor;
@@ -50,6 +51,21 @@ public class SqlMigrationExecutor implements MigrationExecutor {
      */
     private final String encoding;
 
+    /**
+     * The maximum number of plain DML statements to send to the database in a single JDBC batch. 0 to disable batching.
+     */
+    private final int statementBatchSize;
+
+    /**
+     * The listener to notify of every statement executed. {@code null} for none.
+     */
+    private final MigrationListener migrationListener;
+
+    /**
+     * The name of the script to report to the listener.
+     */
+    private final String script;
+
     /**
      * Creates a new sql script migration based on this sql script.
      *
@@ -57,18 +73,23 @@ public class SqlMigrationExecutor implements MigrationExecutor {
      * @param sqlScriptResource   The resource containing the sql script.
      * @param placeholderReplacer The placeholder replacer to apply to sql migration scripts.
      * @param encoding            The encoding of this Sql migration.
+     * @param statementBatchSize  The maximum number of plain DML statements to send to the database in a single JDBC
+     *                            batch. 0 to disable batching.
+     * @param migrationListener   The listener to notify of every statement executed. {@code null} for none.
+     * @param script              The name of the script to report to the listener.
      */
-    public SqlMigrationExecutor(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding) {
+    public SqlMigrationExecutor(DbSupport dbSupport, Resource sqlScriptResource, PlaceholderReplacer placeholderReplacer, String encoding, int statementBatchSize, MigrationListener migrationListener, String script) {
         this.dbSupport = dbSupport;
         this.sqlScriptResource = sqlScriptResource;
         this.encoding = encoding;
         this.placeholderReplacer = placeholderReplacer;
+        this.statementBatchSize = statementBatchSize;
+        this.migrationListener = migrationListener;
+        this.script = script;
     }
 
     public void execute(Connection connection) {
-        String sqlScriptSource = sqlScriptResource.loadAsString(encoding);
-        String sqlScriptSourceNoPlaceholders = placeholderReplacer.replacePlaceholders(sqlScriptSource);
-        SqlScript sqlScript = new SqlScript(sqlScriptSourceNoPlaceholders, dbSupport);
-        sqlScript.execute(new JdbcTemplate(connection, 0));
+        SqlScript sqlScript = new SqlScript(sqlScriptResource.loadAsReader(encoding), placeholderReplacer, dbSupport);
+        sqlScript.execute(new JdbcTemplate(connection, 0), statementBatchSize, migrationListener, script);
     }
 }
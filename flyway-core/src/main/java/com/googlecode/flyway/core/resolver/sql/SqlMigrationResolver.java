@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.resolver.sql;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.api.MigrationType;
 import com.googlecode.flyway.core.api.MigrationVersion;
 import com.googlecode.flyway.core.dbsupport.DbSupport;
@@ -70,6 +71,26 @@ public class SqlMigrationResolver implements MigrationResolver {
      */
     private final String sqlMigrationSuffix;
 
+    /**
+     * The maximum number of plain DML statements to send to the database in a single JDBC batch. 0 to disable batching.
+     */
+    private final int statementBatchSize;
+
+    /**
+     * The cache of the checksums of sql migrations. {@code null} to always calculate them from the scripts.
+     */
+    private final SqlMigrationChecksumCache checksumCache;
+
+    /**
+     * The scanner to use to find the sql migrations on the classpath.
+     */
+    private final ClassPathScanner classPathScanner;
+
+    /**
+     * The listener to notify of every statement executed. {@code null} for none.
+     */
+    private final MigrationListener migrationListener;
+
     /**
      * Creates a new instance.
      *
@@ -79,14 +100,24 @@ public class SqlMigrationResolver implements MigrationResolver {
      * @param encoding            The encoding of Sql migrations.
      * @param sqlMigrationPrefix  The prefix for sql migrations
      * @param sqlMigrationSuffix  The suffix for sql migrations
+     * @param statementBatchSize  The maximum number of plain DML statements to send to the database in a single JDBC
+     *                            batch. 0 to disable batching.
+     * @param checksumCache       The cache of the checksums of sql migrations. {@code null} to always calculate them
+     *                            from the scripts.
+     * @param classPathScanner    The scanner to use to find the sql migrations on the classpath.
+     * @param migrationListener   The listener to notify of every statement executed. {@code null} for none.
      */
-    public SqlMigrationResolver(DbSupport dbSupport, Location location, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix) {
+    public SqlMigrationResolver(DbSupport dbSupport, Location location, PlaceholderReplacer placeholderReplacer, String encoding, String sqlMigrationPrefix, String sqlMigrationSuffix, int statementBatchSize, SqlMigrationChecksumCache checksumCache, ClassPathScanner classPathScanner, MigrationListener migrationListener) {
         this.dbSupport = dbSupport;
         this.location = location;
         this.placeholderReplacer = placeholderReplacer;
         this.encoding = encoding;
         this.sqlMigrationPrefix = sqlMigrationPrefix;
         this.sqlMigrationSuffix = sqlMigrationSuffix;
+        this.statementBatchSize = statementBatchSize;
+        this.checksumCache = checksumCache;
+        this.classPathScanner = classPathScanner;
+        this.migrationListener = migrationListener;
     }
 
     public List<ResolvedMigration> resolveMigrations() {
@@ -96,7 +127,7 @@ public class SqlMigrationResolver implements MigrationResolver {
         try {
             if (location.isClassPath()) {
                 resources =
-                        new ClassPathScanner().scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
+                        classPathScanner.scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
             } else if (location.isFileSystem()) {
                 resources =
                         new FileSystemScanner().scanForResources(location.getPath(), sqlMigrationPrefix, sqlMigrationSuffix);
@@ -105,7 +136,7 @@ public class SqlMigrationResolver implements MigrationResolver {
             for (Resource resource : resources) {
                 ResolvedMigration resolvedMigration = extractMigrationInfo(resource);
                 resolvedMigration.setPhysicalLocation(resource.getLocationOnDisk());
-                resolvedMigration.setExecutor(new SqlMigrationExecutor(dbSupport, resource, placeholderReplacer, encoding));
+                resolvedMigration.setExecutor(new SqlMigrationExecutor(dbSupport, resource, placeholderReplacer, encoding, statementBatchSize, migrationListener, resolvedMigration.getScript()));
 
                 migrations.add(resolvedMigration);
             }
@@ -130,10 +161,12 @@ public class SqlMigrationResolver implements MigrationResolver {
                 MigrationInfoHelper.extractVersionAndDescription(resource.getFilename(), sqlMigrationPrefix, sqlMigrationSuffix);
         migration.setVersion(info.getLeft());
         migration.setDescription(info.getRight());
+        migration.setParallelGroup(
+                MigrationInfoHelper.extractParallelGroup(resource.getFilename(), sqlMigrationPrefix, sqlMigrationSuffix));
 
         migration.setScript(extractScriptName(resource));
 
-        migration.setChecksum(calculateChecksum(resource.loadAsBytes()));
+        migration.setChecksum(getChecksum(resource));
         migration.setType(MigrationType.SQL);
         return migration;
     }
@@ -173,6 +206,28 @@ public class SqlMigrationResolver implements MigrationResolver {
         return withoutPathAndSuffix;
     }
 
+    /**
+     * Retrieves the checksum of this resource, from the cache if possible.
+     *
+     * @param resource The resource to get the checksum for.
+     * @return The crc-32 checksum of its contents.
+     */
+    private int getChecksum(Resource resource) {
+        if (checksumCache == null) {
+            return calculateChecksum(resource.loadAsBytes());
+        }
+
+        String fingerprint = resource.getFingerprint();
+        Integer checksum = checksumCache.getChecksum(resource, fingerprint);
+        if (checksum != null) {
+            return checksum;
+        }
+
+        int calculatedChecksum = calculateChecksum(resource.loadAsBytes());
+        checksumCache.putChecksum(resource, fingerprint, calculatedChecksum);
+        return calculatedChecksum;
+    }
+
     /**
      * Calculates the checksum of these bytes.
      *
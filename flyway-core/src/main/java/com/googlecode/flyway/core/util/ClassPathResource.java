@@ -16,32 +16,61 @@
 package com.googlecode.flyway.core.util;
 
 import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.util.logging.Log;
+import com.googlecode.flyway.core.util.logging.LogFactory;
+import com.googlecode.flyway.core.util.scanner.classpath.JarFileClassPathLocationScanner;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * A resource on the classpath.
  */
 public class ClassPathResource implements Comparable<ClassPathResource>, Resource {
+    private static final Log LOG = LogFactory.getLog(ClassPathResource.class);
+
     /**
      * The location of the resource on the classpath.
      */
     private String location;
 
+    /**
+     * The scanner that found this resource, whose index of jar entries its fingerprint is taken from. {@code null} to
+     * read the fingerprint from the jar itself.
+     */
+    private JarFileClassPathLocationScanner jarFileClassPathLocationScanner;
+
     /**
      * Creates a new ClassPathResource.
      *
      * @param location The location of the resource on the classpath.
      */
     public ClassPathResource(String location) {
+        this(location, null);
+    }
+
+    /**
+     * Creates a new ClassPathResource.
+     *
+     * @param location                        The location of the resource on the classpath.
+     * @param jarFileClassPathLocationScanner The scanner that found this resource, whose index of jar entries its
+     *                                        fingerprint is taken from. {@code null} to read the fingerprint from the
+     *                                        jar itself.
+     */
+    public ClassPathResource(String location, JarFileClassPathLocationScanner jarFileClassPathLocationScanner) {
         this.location = location;
+        this.jarFileClassPathLocationScanner = jarFileClassPathLocationScanner;
     }
 
     public String getLocation() {
@@ -88,6 +117,14 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
         }
     }
 
+    public Reader loadAsReader(String encoding) {
+        InputStream inputStream = getClassLoader().getResourceAsStream(location);
+        if (inputStream == null) {
+            throw new FlywayException("Unable to obtain inputstream for resource: " + location);
+        }
+        return new InputStreamReader(inputStream, Charset.forName(encoding));
+    }
+
     public byte[] loadAsBytes() {
         try {
             InputStream inputStream = getClassLoader().getResourceAsStream(location);
@@ -100,6 +137,48 @@ public class ClassPathResource implements Comparable<ClassPathResource>, Resourc
         }
     }
 
+    public String getFingerprint() {
+        URL url = getUrl();
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                File file = new File(URLDecoder.decode(url.getPath(), "UTF-8"));
+                if (!file.isFile()) {
+                    return null;
+                }
+                return "file:" + file.length() + ":" + file.lastModified();
+            }
+
+            if ("jar".equals(url.getProtocol())) {
+                if (jarFileClassPathLocationScanner != null) {
+                    return jarFileClassPathLocationScanner.getFingerprint(url, location);
+                }
+
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    JarURLConnection jarConnection = (JarURLConnection) connection;
+                    // Keep the jar out of the JVM-wide cache, so it isn't left open (and locked on Windows)
+                    jarConnection.setUseCaches(false);
+                    JarFile jarFile = jarConnection.getJarFile();
+                    try {
+                        JarEntry jarEntry = jarFile.getJarEntry(jarConnection.getEntryName());
+                        if ((jarEntry != null) && (jarEntry.getCrc() != -1)) {
+                            return "jar:" + jarEntry.getSize() + ":" + jarEntry.getCrc();
+                        }
+                    } finally {
+                        jarFile.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Unable to compute fingerprint of resource " + location + ": " + e.getMessage());
+        }
+        return null;
+    }
+
     public String getFilename() {
         return location.substring(location.lastIndexOf("/") + 1);
     }
@@ -80,6 +80,20 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
         }
     }
 
+    /**
+     * Opens a reader for the contents of this resource. The caller is responsible for closing it.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    public Reader loadAsReader(String encoding) {
+        try {
+            return new InputStreamReader(new FileInputStream(location), Charset.forName(encoding));
+        } catch (IOException e) {
+            throw new FlywayException("Unable to load filesystem resource: " + location.getPath() + " (encoding: " + encoding + ")", e);
+        }
+    }
+
     /**
      * Loads this resource as a byte array.
      *
@@ -94,6 +108,18 @@ public class FileSystemResource implements Resource, Comparable<FileSystemResour
         }
     }
 
+    /**
+     * Computes a fingerprint of this resource based on the size and the last modification time of the file.
+     *
+     * @return The fingerprint. {@code null} if the file does not exist.
+     */
+    public String getFingerprint() {
+        if (!location.isFile()) {
+            return null;
+        }
+        return "file:" + location.length() + ":" + location.lastModified();
+    }
+
     /**
      * @return The filename of this resource, without the path.
      */
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for the worker threads of Flyway. The threads are daemons, so they never keep the JVM alive, and are
+ * numbered after a common prefix. They inherit the context classloader of the thread creating the factory, as
+ * migrations, resolvers and custom DbSupport implementations are looked up through it.
+ */
+public class NamedDaemonThreadFactory implements ThreadFactory {
+    /**
+     * The prefix of the thread names.
+     */
+    private final String prefix;
+
+    /**
+     * The context classloader to give to the threads.
+     */
+    private final ClassLoader classLoader;
+
+    /**
+     * The number of threads created so far.
+     */
+    private int count;
+
+    /**
+     * Creates a new thread factory for threads named prefix-1, prefix-2, ...
+     *
+     * @param prefix The prefix of the thread names.
+     */
+    public NamedDaemonThreadFactory(String prefix) {
+        this.prefix = prefix;
+        this.classLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    public synchronized Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + "-" + (++count));
+        thread.setContextClassLoader(classLoader);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -21,8 +21,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Tool for replacing placeholders.
@@ -62,43 +60,84 @@ public class PlaceholderReplacer {
     }
 
     /**
-     * Replaces the placeholders in this input string with their corresponding values.
+     * Replaces the placeholders in this input string with their corresponding values. The input is scanned only once:
+     * all placeholder expressions are substituted in a single output buffer and expressions without a corresponding
+     * value are detected along the way. Replacement values are not scanned for placeholders themselves.
      *
      * @param input The input to process.
      * @return The input string with all placeholders replaced.
+     * @throws FlywayException when the input contains placeholder expressions without a corresponding value.
      */
     public String replacePlaceholders(String input) {
-        String noPlaceholders = input;
+        if ((placeholderPrefix.length() == 0) || (placeholderSuffix.length() == 0)) {
+            return input;
+        }
 
-        for (String placeholder : placeholders.keySet()) {
-            String searchTerm = placeholderPrefix + placeholder + placeholderSuffix;
-            noPlaceholders = StringUtils.replaceAll(noPlaceholders, searchTerm, placeholders.get(placeholder));
+        int expressionStart = input.indexOf(placeholderPrefix);
+        if (expressionStart < 0) {
+            return input;
         }
-        checkForUnmatchedPlaceholderExpression(noPlaceholders);
 
-        return noPlaceholders;
-    }
+        StringBuilder output = new StringBuilder(input.length() + 16);
+        Set<String> unmatchedPlaceHolderExpressions = null;
+        int copied = 0;
+        while (expressionStart >= 0) {
+            int nameStart = expressionStart + placeholderPrefix.length();
+            int suffixStart = findPlaceholderSuffix(input, nameStart);
+            if (suffixStart < 0) {
+                expressionStart = input.indexOf(placeholderPrefix, expressionStart + 1);
+                continue;
+            }
 
-    /**
-     * Check for unmatched placeholder expressions in the input string and throw
-     * a FlywayException if they do not have corresponding values.
-     *
-     * @param input The input string.
-     * @throws FlywayException An exception listing the unmatched expressions.
-     */
-    private void checkForUnmatchedPlaceholderExpression(String input) {
-        String regex = Pattern.quote(placeholderPrefix) + "(.+?)" + Pattern.quote(placeholderSuffix);
-        Matcher matcher = Pattern.compile(regex).matcher(input);
+            String placeholder = input.substring(nameStart, suffixStart);
+            if (placeholder.contains(placeholderPrefix)) {
+                // The expression starts at the next prefix. Ex.: ${abc${def}
+                expressionStart = input.indexOf(placeholderPrefix, expressionStart + 1);
+                continue;
+            }
 
-        Set<String> unmatchedPlaceHolderExpressions = new TreeSet<String>();
-        while (matcher.find()) {
-            unmatchedPlaceHolderExpressions.add(matcher.group());
+            int expressionEnd = suffixStart + placeholderSuffix.length();
+            String value = placeholders.get(placeholder);
+            if (value == null) {
+                if (unmatchedPlaceHolderExpressions == null) {
+                    unmatchedPlaceHolderExpressions = new TreeSet<String>();
+                }
+                unmatchedPlaceHolderExpressions.add(input.substring(expressionStart, expressionEnd));
+            } else {
+                output.append(input, copied, expressionStart).append(value);
+                copied = expressionEnd;
+            }
+            expressionStart = input.indexOf(placeholderPrefix, expressionEnd);
         }
 
-        if (!unmatchedPlaceHolderExpressions.isEmpty()) {
+        if (unmatchedPlaceHolderExpressions != null) {
             throw new FlywayException("No value provided for placeholder expressions: "
                     + StringUtils.collectionToCommaDelimitedString(unmatchedPlaceHolderExpressions)
                     + ".  Check your configuration!");
         }
+
+        output.append(input, copied, input.length());
+        return output.toString();
+    }
+
+    /**
+     * Finds the suffix of the placeholder expression whose name starts at this index. The name must contain at least
+     * one character and may not span multiple lines.
+     *
+     * @param input     The input to search.
+     * @param nameStart The index of the first character of the placeholder name.
+     * @return The index of the suffix. {@code -1} if the expression is not terminated on this line.
+     */
+    private int findPlaceholderSuffix(String input, int nameStart) {
+        for (int i = nameStart; i < input.length(); i++) {
+            if ((i > nameStart) && input.startsWith(placeholderSuffix, i)) {
+                return i;
+            }
+            char c = input.charAt(i);
+            if ((c == '\n') || (c == '\r')) {
+                return -1;
+            }
+        }
+        return -1;
     }
 }
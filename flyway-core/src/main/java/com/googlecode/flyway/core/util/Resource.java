@@ -15,6 +15,8 @@
  */
 package com.googlecode.flyway.core.util;
 
+import java.io.Reader;
+
 /**
  * A loadable resource.
  */
@@ -39,6 +41,14 @@ public interface Resource {
      */
     String loadAsString(String encoding);
 
+    /**
+     * Opens a reader for the contents of this resource. The caller is responsible for closing it.
+     *
+     * @param encoding The encoding to use.
+     * @return The reader for the contents of the resource.
+     */
+    Reader loadAsReader(String encoding);
+
     /**
      * Loads this resource as a byte array.
      *
@@ -46,6 +56,14 @@ public interface Resource {
      */
     byte[] loadAsBytes();
 
+    /**
+     * Computes a fingerprint of this resource that changes whenever its contents change, without reading them. It is
+     * based on metadata such as the size and the last modification time of a file or the crc of a jar entry.
+     *
+     * @return The fingerprint. {@code null} if it can not be determined without reading the contents.
+     */
+    String getFingerprint();
+
     /**
      * @return The filename of this resource, without the path.
      */
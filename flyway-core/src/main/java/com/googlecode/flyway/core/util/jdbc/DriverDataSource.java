@@ -21,15 +21,27 @@ import com.googlecode.flyway.core.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Logger;
 
 /**
  * YAGNI: The simplest DataSource implementation that works for Flyway.
+ * <p/>
+ * It can optionally keep a small pool of idle connections, so that repeated commands don't have to connect to the
+ * database again each time. Pooled connections are validated before being reused and closed once they have been idle
+ * for too long. The init sqls are only executed once for each physical connection.
  */
 public class DriverDataSource implements DataSource {
     /**
@@ -57,6 +69,26 @@ public class DriverDataSource implements DataSource {
      */
     private String[] initSqls = new String[0];
 
+    /**
+     * The maximum number of idle connections to keep for reuse. 0 to disable pooling. (default: 0)
+     */
+    private int poolSize;
+
+    /**
+     * The time in milliseconds after which an idle connection is closed instead of being reused. (default: 60000)
+     */
+    private long maxIdleTime = 60000;
+
+    /**
+     * The idle connections available for reuse, the most recently used last.
+     */
+    private final LinkedList<IdleConnection> idleConnections = new LinkedList<IdleConnection>();
+
+    /**
+     * Whether the pool of this DataSource has been closed.
+     */
+    private boolean poolClosed;
+
     /**
      * Creates a new DriverDataSource.
      */
@@ -155,14 +187,170 @@ public class DriverDataSource implements DataSource {
         return initSqls;
     }
 
+    /**
+     * @return The maximum number of idle connections to keep for reuse. 0 if pooling is disabled. (default: 0)
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximum number of idle connections to keep for reuse. This doesn't limit the number of connections in
+     * use at the same time: connections returned while the pool is full are closed instead.
+     *
+     * @param poolSize The maximum number of idle connections to keep for reuse. 0 to disable pooling. (default: 0)
+     */
+    public void setPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new FlywayException("Invalid pool size: " + poolSize + ". It must be at least 0.");
+        }
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @return The time in milliseconds after which an idle connection is closed instead of being reused.
+     * (default: 60000)
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * @param maxIdleTime The time in milliseconds after which an idle connection is closed instead of being reused.
+     *                    (default: 60000)
+     */
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
     /**
      * This implementation delegates to {@code getConnectionFromDriver},
-     * using the default user and password of this DataSource.
+     * using the default user and password of this DataSource. When pooling is enabled, an idle connection is reused
+     * instead if possible.
      *
      * @see #getConnectionFromDriver(String, String)
      */
     public Connection getConnection() throws SQLException {
-        return getConnectionFromDriver(getUser(), getPassword());
+        if (poolSize == 0) {
+            return getConnectionFromDriver(getUser(), getPassword());
+        }
+
+        Connection connection = borrowIdleConnection();
+        if (connection == null) {
+            connection = getConnectionFromDriver(getUser(), getPassword());
+        }
+        return (Connection) Proxy.newProxyInstance(DriverDataSource.class.getClassLoader(),
+                new Class[]{Connection.class}, new PooledConnectionHandler(connection));
+    }
+
+    /**
+     * Closes all idle connections of the pool. Connections still in use are closed when they are returned. Pooling is
+     * disabled from now on.
+     */
+    public void close() {
+        List<IdleConnection> connectionsToClose;
+        synchronized (idleConnections) {
+            poolClosed = true;
+            connectionsToClose = new ArrayList<IdleConnection>(idleConnections);
+            idleConnections.clear();
+        }
+        for (IdleConnection idleConnection : connectionsToClose) {
+            JdbcUtils.closeConnection(idleConnection.connection);
+        }
+    }
+
+    /**
+     * Retrieves the most recently used valid idle connection from the pool. Expired and invalid idle connections are
+     * closed along the way.
+     *
+     * @return The connection. {@code null} if there is none.
+     */
+    private Connection borrowIdleConnection() {
+        while (true) {
+            List<IdleConnection> expiredConnections = new ArrayList<IdleConnection>();
+            IdleConnection idleConnection;
+            synchronized (idleConnections) {
+                long now = System.currentTimeMillis();
+                Iterator<IdleConnection> iterator = idleConnections.iterator();
+                while (iterator.hasNext()) {
+                    IdleConnection candidate = iterator.next();
+                    if (now - candidate.idleSince > maxIdleTime) {
+                        expiredConnections.add(candidate);
+                        iterator.remove();
+                    }
+                }
+                idleConnection = idleConnections.isEmpty() ? null : idleConnections.removeLast();
+            }
+
+            for (IdleConnection expiredConnection : expiredConnections) {
+                JdbcUtils.closeConnection(expiredConnection.connection);
+            }
+
+            if (idleConnection == null) {
+                return null;
+            }
+            if (isValid(idleConnection.connection)) {
+                return idleConnection.connection;
+            }
+            JdbcUtils.closeConnection(idleConnection.connection);
+        }
+    }
+
+    /**
+     * Checks whether this idle connection can still be used.
+     *
+     * @param connection The connection to check.
+     * @return {@code true} if it can be used, {@code false} if not.
+     */
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(5);
+        } catch (AbstractMethodError e) {
+            // Pre-JDBC 4 driver
+            return isOpen(connection);
+        } catch (SQLException e) {
+            return isOpen(connection);
+        }
+    }
+
+    /**
+     * Checks whether this connection is still open.
+     *
+     * @param connection The connection to check.
+     * @return {@code true} if it is open, {@code false} if not.
+     */
+    private boolean isOpen(Connection connection) {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns this connection to the pool after use. Any pending transaction is rolled back first. The connection is
+     * closed instead if it can no longer be used or the pool is already full.
+     *
+     * @param connection The connection to return.
+     */
+    private void returnConnection(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            JdbcUtils.closeConnection(connection);
+            return;
+        }
+
+        synchronized (idleConnections) {
+            if (!poolClosed && (idleConnections.size() < poolSize)) {
+                idleConnections.addLast(new IdleConnection(connection, System.currentTimeMillis()));
+                return;
+            }
+        }
+        JdbcUtils.closeConnection(connection);
     }
 
     /**
@@ -236,4 +424,86 @@ public class DriverDataSource implements DataSource {
     public Logger getParentLogger() {
         throw new UnsupportedOperationException("getParentLogger");
     }
+
+    /**
+     * An idle connection of the pool.
+     */
+    private static class IdleConnection {
+        /**
+         * The physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * The time in milliseconds since which the connection is idle.
+         */
+        private final long idleSince;
+
+        /**
+         * Creates a new idle connection.
+         *
+         * @param connection The physical connection.
+         * @param idleSince  The time in milliseconds since which the connection is idle.
+         */
+        private IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Handles the calls on a pooled connection. Closing it returns the physical connection to the pool instead.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        /**
+         * The physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Whether the pooled connection has been closed.
+         */
+        private boolean closed;
+
+        /**
+         * Creates a new handler for a pooled connection.
+         *
+         * @param connection The physical connection.
+         */
+        private PooledConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if ("equals".equals(methodName)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(methodName)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(methodName)) {
+                return "Pooled " + connection;
+            }
+            if ("close".equals(methodName)) {
+                if (!closed) {
+                    closed = true;
+                    returnConnection(connection);
+                }
+                return null;
+            }
+            if ("isClosed".equals(methodName)) {
+                return closed || connection.isClosed();
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been closed");
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
 }
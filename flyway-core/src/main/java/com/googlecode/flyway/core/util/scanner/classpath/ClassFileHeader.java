@@ -0,0 +1,200 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The header of a class file: its access flags and its direct supertypes. It is read straight from the bytes of the
+ * class file, without loading the class.
+ */
+class ClassFileHeader {
+    /**
+     * The magic number every class file starts with.
+     */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /**
+     * Access flag of interfaces.
+     */
+    private static final int ACC_INTERFACE = 0x0200;
+
+    /**
+     * Access flag of abstract classes.
+     */
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    /**
+     * The access flags of the class.
+     */
+    private final int accessFlags;
+
+    /**
+     * The internal name (with slashes) of the superclass. {@code null} for java/lang/Object.
+     */
+    private final String superClassName;
+
+    /**
+     * The internal names (with slashes) of the interfaces directly implemented by the class.
+     */
+    private final String[] interfaceNames;
+
+    /**
+     * Creates a new class file header.
+     *
+     * @param accessFlags    The access flags of the class.
+     * @param superClassName The internal name of the superclass.
+     * @param interfaceNames The internal names of the directly implemented interfaces.
+     */
+    private ClassFileHeader(int accessFlags, String superClassName, String[] interfaceNames) {
+        this.accessFlags = accessFlags;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+    }
+
+    /**
+     * @return Whether the class is abstract or an interface and can therefore not be instantiated.
+     */
+    public boolean isAbstract() {
+        return (accessFlags & (ACC_ABSTRACT | ACC_INTERFACE)) != 0;
+    }
+
+    /**
+     * @return The internal name (with slashes) of the superclass. {@code null} for java/lang/Object.
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    /**
+     * @return The internal names (with slashes) of the interfaces directly implemented by the class.
+     */
+    public String[] getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * Reads the header of this class file. Only the constant pool and the few bytes following it are read, the fields,
+     * methods and attributes are not. The stream is closed afterwards.
+     *
+     * @param inputStream The stream with the bytes of the class file.
+     * @return The header.
+     * @throws IOException when the stream could not be read or did not contain a valid class file.
+     */
+    public static ClassFileHeader read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a class file");
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+
+            int constantPoolCount = in.readUnsignedShort();
+            String[] utf8Entries = new String[constantPoolCount];
+            int[] classEntries = new int[constantPoolCount];
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8Entries[i] = in.readUTF();
+                        break;
+                    case 7: // Class
+                        classEntries[i] = in.readUnsignedShort();
+                        break;
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        skip(in, 2);
+                        break;
+                    case 15: // MethodHandle
+                        skip(in, 3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        skip(in, 4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        skip(in, 8);
+                        // Takes up two entries in the constant pool
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag: " + tag);
+                }
+            }
+
+            int accessFlags = in.readUnsignedShort();
+            in.readUnsignedShort(); // this class
+
+            String superClassName = resolveClassName(in.readUnsignedShort(), utf8Entries, classEntries);
+
+            String[] interfaceNames = new String[in.readUnsignedShort()];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = resolveClassName(in.readUnsignedShort(), utf8Entries, classEntries);
+            }
+
+            return new ClassFileHeader(accessFlags, superClassName, interfaceNames);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Resolves the name of the class referenced by this constant pool index.
+     *
+     * @param index        The index of the Class entry in the constant pool. 0 for none.
+     * @param utf8Entries  The Utf8 entries of the constant pool.
+     * @param classEntries The Class entries of the constant pool, pointing to the Utf8 entry of their name.
+     * @return The internal name of the class. {@code null} if the index is 0.
+     * @throws IOException when the index does not point to a valid Class entry.
+     */
+    private static String resolveClassName(int index, String[] utf8Entries, int[] classEntries) throws IOException {
+        if (index == 0) {
+            return null;
+        }
+
+        if ((index >= classEntries.length) || (classEntries[index] >= utf8Entries.length)
+                || (utf8Entries[classEntries[index]] == null)) {
+            throw new IOException("Invalid class reference in constant pool: " + index);
+        }
+        return utf8Entries[classEntries[index]];
+    }
+
+    /**
+     * Skips exactly this number of bytes.
+     *
+     * @param in    The stream to skip the bytes of.
+     * @param count The number of bytes to skip.
+     * @throws IOException when the end of the stream was reached.
+     */
+    private static void skip(DataInputStream in, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedByte();
+        }
+    }
+}
@@ -17,7 +17,6 @@ package com.googlecode.flyway.core.util.scanner.classpath;
 
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.util.ClassPathResource;
-import com.googlecode.flyway.core.util.ClassUtils;
 import com.googlecode.flyway.core.util.FeatureDetector;
 import com.googlecode.flyway.core.util.Resource;
 import com.googlecode.flyway.core.util.UrlUtils;
@@ -27,21 +26,36 @@ import com.googlecode.flyway.core.util.scanner.classpath.jboss.JBossVFSv2UrlReso
 import com.googlecode.flyway.core.util.scanner.classpath.jboss.JBossVFSv3ClassPathLocationScanner;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 /**
- * ClassPath scanner.
+ * ClassPath scanner. Every location is scanned only once per scanner instance: the names of the resources found there
+ * are kept in memory and all subsequent lookups for the same location (with any prefix and suffix) are served from
+ * them. Share a single instance to avoid rescanning the classpath.
  */
 public class ClassPathScanner {
     private static final Log LOG = LogFactory.getLog(ClassPathScanner.class);
 
+    /**
+     * The names of all resources found so far below each scanned location. Keyed by location.
+     */
+    private final Map<String, ResourceNames> resourceNameIndex = new HashMap<String, ResourceNames>();
+
+    /**
+     * The scanner for jar files, which keeps an index of the entries of every jar file it enumerated.
+     */
+    private final JarFileClassPathLocationScanner jarFileClassPathLocationScanner = new JarFileClassPathLocationScanner();
+
     /**
      * Scans the classpath for resources under the specified location, starting with the specified prefix and ending with
      * the specified suffix.
@@ -59,7 +73,7 @@ public class ClassPathScanner {
 
         Set<String> resourceNames = findResourceNames(path, prefix, suffix);
         for (String resourceName : resourceNames) {
-            resources.add(new ClassPathResource(resourceName));
+            resources.add(new ClassPathResource(resourceName, jarFileClassPathLocationScanner));
             LOG.debug("Found resource: " + resourceName);
         }
 
@@ -69,6 +83,9 @@ public class ClassPathScanner {
     /**
      * Scans the classpath for concrete classes under the specified package implementing this interface.
      * Non-instantiable abstract classes are filtered out.
+     * <p/>
+     * The headers of the class files are inspected first, so that only the classes that actually implement the interface
+     * get loaded. These are neither initialized nor instantiated by the scanner.
      *
      * @param location             The location (package) in the classpath to start scanning.
      *                             Subpackages are also scanned.
@@ -81,10 +98,26 @@ public class ClassPathScanner {
 
         List<Class<?>> classes = new ArrayList<Class<?>>();
 
+        String implementedInterfaceName = implementedInterface.getName().replace(".", "/");
+        Map<String, Boolean> subtypeCache = new HashMap<String, Boolean>();
+
         Set<String> resourceNames = findResourceNames(location, "", ".class");
         for (String resourceName : resourceNames) {
             String className = toClassName(resourceName);
-            Class<?> clazz = getClassLoader().loadClass(className);
+
+            ClassFileHeader header = readClassFileHeader(resourceName);
+            if (header != null) {
+                if (header.isAbstract()) {
+                    LOG.debug("Skipping abstract class: " + className);
+                    continue;
+                }
+
+                if (!isSubtype(header, implementedInterfaceName, subtypeCache)) {
+                    continue;
+                }
+            }
+
+            Class<?> clazz = Class.forName(className, false, getClassLoader());
 
             if (Modifier.isAbstract(clazz.getModifiers())) {
                 LOG.debug("Skipping abstract class: " + className);
@@ -96,8 +129,8 @@ public class ClassPathScanner {
             }
 
             try {
-                ClassUtils.instantiate(className);
-            } catch (Exception e) {
+                clazz.getConstructor();
+            } catch (NoSuchMethodException e) {
                 throw new FlywayException("Unable to instantiate class: " + className);
             }
 
@@ -108,6 +141,81 @@ public class ClassPathScanner {
         return classes.toArray(new Class<?>[classes.size()]);
     }
 
+    /**
+     * Checks whether the class with this header extends or implements this type, directly or indirectly. The headers of
+     * the supertypes are read from the classpath as well.
+     *
+     * @param header       The header of the class to check.
+     * @param typeName     The internal name (with slashes) of the type to look for.
+     * @param subtypeCache The results for the supertypes checked so far. Keyed by internal name.
+     * @return {@code true} if it does or if this could not be determined without loading the class, {@code false} if
+     * it definitely doesn't.
+     */
+    private boolean isSubtype(ClassFileHeader header, String typeName, Map<String, Boolean> subtypeCache) {
+        String superClassName = header.getSuperClassName();
+        if ((superClassName != null) && isSubtype(superClassName, typeName, subtypeCache)) {
+            return true;
+        }
+
+        for (String interfaceName : header.getInterfaceNames()) {
+            if (isSubtype(interfaceName, typeName, subtypeCache)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether this type is or extends or implements this other type, directly or indirectly.
+     *
+     * @param name         The internal name (with slashes) of the type to check.
+     * @param typeName     The internal name (with slashes) of the type to look for.
+     * @param subtypeCache The results for the types checked so far. Keyed by internal name.
+     * @return {@code true} if it does or if this could not be determined without loading the class, {@code false} if
+     * it definitely doesn't.
+     */
+    private boolean isSubtype(String name, String typeName, Map<String, Boolean> subtypeCache) {
+        if (name.equals(typeName)) {
+            return true;
+        }
+
+        if ("java/lang/Object".equals(name)) {
+            return false;
+        }
+
+        Boolean cached = subtypeCache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClassFileHeader header = readClassFileHeader(name + ".class");
+        boolean subtype = (header == null) || isSubtype(header, typeName, subtypeCache);
+        subtypeCache.put(name, subtype);
+        return subtype;
+    }
+
+    /**
+     * Reads the header of this class file from the classpath.
+     *
+     * @param resourceName The name of the class file resource.
+     * @return The header. {@code null} if it could not be read.
+     */
+    private ClassFileHeader readClassFileHeader(String resourceName) {
+        InputStream inputStream = getClassLoader().getResourceAsStream(resourceName);
+        if (inputStream == null) {
+            LOG.debug("Unable to find class file: " + resourceName);
+            return null;
+        }
+
+        try {
+            return ClassFileHeader.read(inputStream);
+        } catch (IOException e) {
+            LOG.debug("Unable to read class file: " + resourceName + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
     /**
      * Converts this resource name to a fully qualified class name.
      *
@@ -130,6 +238,32 @@ public class ClassPathScanner {
      * @throws IOException when scanning this location failed.
      */
     private Set<String> findResourceNames(String path, String prefix, String suffix) throws IOException {
+        ResourceNames resourceNames;
+        synchronized (resourceNameIndex) {
+            resourceNames = resourceNameIndex.get(path);
+            if (resourceNames == null) {
+                resourceNames = new ResourceNames();
+                resourceNameIndex.put(path, resourceNames);
+            }
+        }
+
+        synchronized (resourceNames) {
+            if (resourceNames.names == null) {
+                resourceNames.names = findAllResourceNames(path);
+            }
+        }
+
+        return filterResourceNames(resourceNames.names, prefix, suffix);
+    }
+
+    /**
+     * Finds all the resources names present at this location and below on the classpath.
+     *
+     * @param path The path on the classpath to scan.
+     * @return The resource names.
+     * @throws IOException when scanning this location failed.
+     */
+    private Set<String> findAllResourceNames(String path) throws IOException {
         Set<String> resourceNames = new TreeSet<String>();
 
         List<URL> locationsUrls = getLocationUrlsForPath(path);
@@ -149,7 +283,7 @@ public class ClassPathScanner {
             }
         }
 
-        return filterResourceNames(resourceNames, prefix, suffix);
+        return resourceNames;
     }
 
     /**
@@ -216,7 +350,7 @@ public class ClassPathScanner {
                 || "zip".equals(protocol) //WebLogic
                 || "wsjar".equals(protocol) //WebSphere
                 ) {
-            return new JarFileClassPathLocationScanner();
+            return jarFileClassPathLocationScanner;
         }
 
         if (FeatureDetector.isJBossVFSv3Available() && "vfs".equals(protocol)) {
@@ -261,4 +395,14 @@ public class ClassPathScanner {
         }
         return filteredResourceNames;
     }
+
+    /**
+     * Holder for the names of the resources found below a location, which is locked while the location is scanned.
+     */
+    private static class ResourceNames {
+        /**
+         * The resource names. {@code null} until the location has been scanned successfully.
+         */
+        private Set<String> names;
+    }
 }
@@ -23,25 +23,84 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 /**
- * ClassPathLocationScanner for jar files.
+ * ClassPathLocationScanner for jar files. The entries of every jar file are enumerated only once per scanner instance
+ * and kept in a sorted index, from which all subsequent lookups of locations and fingerprints within the same jar are
+ * served.
  */
 public class JarFileClassPathLocationScanner implements ClassPathLocationScanner {
+    /**
+     * The entries of the jar files scanned so far, sorted by name. Keyed by jar file url. Values are the fingerprints
+     * of the entries. {@code null} for entries whose crc isn't known.
+     */
+    private final Map<String, SortedMap<String, String>> jarEntryIndex = new HashMap<String, SortedMap<String, String>>();
+
     public Set<String> findResourceNames(String location, URL locationUrl) throws IOException {
-        JarFile jarFile = getJarFromUrl(locationUrl);
+        SortedMap<String, String> entries = getJarEntries(locationUrl);
+
+        Set<String> resourceNames = new TreeSet<String>();
+        for (String entryName : entries.tailMap(location).keySet()) {
+            if (!entryName.startsWith(location)) {
+                break;
+            }
+            resourceNames.add(entryName);
+        }
+        return resourceNames;
+    }
 
+    /**
+     * Retrieves the fingerprint (size and crc) of this entry from the index of its jar file, without opening the jar
+     * again if it was already scanned.
+     *
+     * @param resourceUrl The URL of the resource within the jar.
+     * @param entryName   The name of its entry within the jar.
+     * @return The fingerprint. {@code null} if the entry or its crc could not be found.
+     */
+    public String getFingerprint(URL resourceUrl, String entryName) {
         try {
-            return findResourceNamesFromJarFile(jarFile, location);
-        } finally {
-            jarFile.close();
+            return getJarEntries(resourceUrl).get(entryName);
+        } catch (IOException e) {
+            return null;
         }
     }
 
+    /**
+     * Retrieves all entries of the jar file represented by this URL, enumerating them if this is the first time this
+     * jar file is scanned.
+     *
+     * @param locationUrl The URL of the location within the jar.
+     * @return The fingerprints of the entries, sorted by entry name.
+     * @throws IOException when the jar could not be read.
+     */
+    private synchronized SortedMap<String, String> getJarEntries(URL locationUrl) throws IOException {
+        String jarUrl = locationUrl.toExternalForm();
+        int separatorIndex = jarUrl.indexOf("!/");
+        if (separatorIndex != -1) {
+            jarUrl = jarUrl.substring(0, separatorIndex);
+        }
+
+        SortedMap<String, String> entries = jarEntryIndex.get(jarUrl);
+        if (entries == null) {
+            JarFile jarFile = getJarFromUrl(locationUrl);
+            try {
+                entries = findEntriesFromJarFile(jarFile);
+            } finally {
+                jarFile.close();
+            }
+            jarEntryIndex.put(jarUrl, entries);
+        }
+        return entries;
+    }
+
     /**
      * Retrieves the Jar file represented by this URL.
      *
@@ -82,24 +141,24 @@ public class JarFileClassPathLocationScanner implements ClassPathLocationScanner
     }
 
     /**
-     * Finds all the resource names contained in this directory within this jar file.
+     * Finds all the entries contained in this jar file.
      *
-     * @param jarFile  The jar file.
-     * @param location The location to look under.
-     * @return The resource names.
-     * @throws java.io.IOException when reading the jar file failed.
+     * @param jarFile The jar file.
+     * @return The fingerprints of the entries, sorted by entry name.
      */
-    private Set<String> findResourceNamesFromJarFile(JarFile jarFile, String location) throws IOException {
-        Set<String> resourceNames = new TreeSet<String>();
+    private SortedMap<String, String> findEntriesFromJarFile(JarFile jarFile) {
+        SortedMap<String, String> entries = new TreeMap<String, String>();
 
-        Enumeration<JarEntry> entries = jarFile.entries();
-        while (entries.hasMoreElements()) {
-            String entryName = entries.nextElement().getName();
-            if (entryName.startsWith(location)) {
-                resourceNames.add(entryName);
+        Enumeration<JarEntry> jarEntries = jarFile.entries();
+        while (jarEntries.hasMoreElements()) {
+            JarEntry jarEntry = jarEntries.nextElement();
+            String fingerprint = null;
+            if (jarEntry.getCrc() != -1) {
+                fingerprint = "jar:" + jarEntry.getSize() + ":" + jarEntry.getCrc();
             }
+            entries.put(jarEntry.getName(), fingerprint);
         }
 
-        return resourceNames;
+        return entries;
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core;
+
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationListener;
+import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for FlywayFleet.
+ */
+public class FlywayFleetSmallTest {
+    /**
+     * Creates the Flyway instance whose configuration is shared by the tenants.
+     *
+     * @param database The name of the in-memory database.
+     * @return The Flyway instance.
+     */
+    private Flyway createConfiguration(String database) {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(new DriverDataSource(null, "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        flyway.setLocations("migration/sql");
+        return flyway;
+    }
+
+    @Test
+    public void migrateSchemas() {
+        MigrationListener listener = mock(MigrationListener.class);
+        Flyway flyway = createConfiguration("flyway_fleet_schemas");
+        flyway.setListeners(listener);
+
+        FlywayFleet fleet = new FlywayFleet(flyway);
+        fleet.setParallelism(3);
+        for (int i = 1; i <= 5; i++) {
+            fleet.addSchema("TENANT" + i);
+        }
+        FleetReport report = fleet.migrate();
+
+        assertTrue(report.isSuccess());
+        assertEquals(5, report.getTenantResults().size());
+        assertEquals(20, report.getMigrationCount());
+        for (int i = 1; i <= 5; i++) {
+            FleetReport.TenantResult tenantResult = report.getTenantResults().get(i - 1);
+            assertEquals("TENANT" + i, tenantResult.getTenant());
+            assertEquals(4, tenantResult.getMigrationCount());
+            assertNull(tenantResult.getException());
+        }
+
+        // The migrations are only resolved once for the whole fleet
+        verify(listener, times(1)).resolveStarted();
+        verify(listener, times(1)).resolveFinished(anyInt(), anyLong());
+
+        // Migrating again is a no-op for every tenant
+        report = fleet.migrate();
+        assertTrue(report.isSuccess());
+        assertEquals(0, report.getMigrationCount());
+
+        // The configuration of the fleet is left untouched
+        assertEquals(0, flyway.getSchemas().length);
+    }
+
+    @Test
+    public void failureIsolation() throws SQLException {
+        DataSource brokenDataSource = mock(DataSource.class);
+        when(brokenDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        FlywayFleet fleet = new FlywayFleet(createConfiguration("flyway_fleet_failure"));
+        fleet.setParallelism(2);
+        fleet.addSchema("TENANT1");
+        fleet.addDataSource("broken", brokenDataSource);
+        fleet.addSchema("TENANT2");
+        FleetReport report = fleet.migrate();
+
+        assertFalse(report.isSuccess());
+        assertEquals(1, report.getFailures().size());
+        assertEquals("broken", report.getFailures().get(0).getTenant());
+        assertTrue(report.getFailures().get(0).getException() instanceof FlywayException);
+        assertEquals(8, report.getMigrationCount());
+        assertTrue(report.getTenantResults().get(0).isSuccess());
+        assertTrue(report.getTenantResults().get(2).isSuccess());
+    }
+
+    @Test
+    public void migrateSequentially() {
+        FlywayFleet fleet = new FlywayFleet(createConfiguration("flyway_fleet_sequential"));
+        fleet.addTenant("both", null, "TENANT1", "TENANT2");
+        fleet.addTenant("other", null, "TENANT3");
+        FleetReport report = fleet.migrate();
+
+        assertTrue(report.isSuccess());
+        assertEquals(8, report.getMigrationCount());
+    }
+
+    @Test
+    public void executeOperation() {
+        FlywayFleet fleet = new FlywayFleet(createConfiguration("flyway_fleet_operation"));
+        fleet.setParallelism(2);
+        fleet.addSchema("TENANT1");
+        fleet.addSchema("TENANT2");
+        assertEquals(8, fleet.migrate().getMigrationCount());
+
+        FleetReport report = fleet.execute(new FlywayFleet.Operation() {
+            public int execute(String tenant, Flyway flyway) {
+                assertEquals(tenant, flyway.getSchemas()[0]);
+                flyway.clean();
+                return flyway.migrate();
+            }
+        });
+
+        assertTrue(report.isSuccess());
+        assertEquals(8, report.getMigrationCount());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void noTenants() {
+        new FlywayFleet(new Flyway()).migrate();
+    }
+
+    @Test(expected = FlywayException.class)
+    public void invalidParallelism() {
+        new FlywayFleet(new Flyway()).setParallelism(0);
+    }
+
+    @Test
+    public void copyConfiguration() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("name", "value");
+
+        Flyway original = new Flyway();
+        original.setSchemas("SCHEMA1");
+        original.setPlaceholders(placeholders);
+        original.setTarget("5");
+        original.setOutOfOrder(true);
+
+        Flyway copy = new Flyway(original);
+        original.setSchemas("SCHEMA2");
+        original.getPlaceholders().put("other", "value");
+
+        assertEquals("SCHEMA1", copy.getSchemas()[0]);
+        assertEquals(1, copy.getPlaceholders().size());
+        assertEquals("5", copy.getTarget().toString());
+        assertTrue(copy.isOutOfOrder());
+    }
+}
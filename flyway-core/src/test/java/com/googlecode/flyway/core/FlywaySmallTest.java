@@ -15,18 +15,16 @@
  */
 package com.googlecode.flyway.core;
 
-import com.googlecode.flyway.core.dbsupport.DbSupport;
-import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 import com.googlecode.flyway.core.validation.ValidationMode;
 import org.junit.Test;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * Test for the main Flyway class.
@@ -46,7 +44,7 @@ public class FlywaySmallTest {
         assertNotNull(flyway.getDataSource());
 
         flyway.execute(new Flyway.Command<Void>() {
-            public Void execute(Connection connectionMetaDataTable, Connection connectionUserObjects, DbSupport dbSupport, Schema[] schemas) {
+            public Void execute(FlywaySession session) {
                 assertEquals("PUBLIC", flyway.getSchemas()[0]);
                 return null;
             }
@@ -90,6 +88,89 @@ public class FlywaySmallTest {
         assertEquals(true, flyway.isOutOfOrder());
     }
 
+    @Test
+    public void configureMigrateBatchSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.migrateBatchSize", "0");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(0, flyway.getMigrateBatchSize());
+    }
+
+    @Test
+    public void configureStatementBatchSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.statementBatchSize", "100");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(100, flyway.getStatementBatchSize());
+    }
+
+    @Test
+    public void configureChecksumCacheFile() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.checksumCacheFile", "target/flyway-checksums.properties");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals("target/flyway-checksums.properties", flyway.getChecksumCacheFile());
+    }
+
+    @Test
+    public void configureCleanThreads() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.cleanThreads", "4");
+
+        Flyway flyway = new Flyway();
+        assertEquals(1, flyway.getCleanThreads());
+        flyway.configure(properties);
+
+        assertEquals(4, flyway.getCleanThreads());
+    }
+
+    @Test
+    public void configureSeedLocations() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.seedLocations", "db/seed,db/more_seed");
+
+        Flyway flyway = new Flyway();
+        assertEquals(0, flyway.getSeedLocations().length);
+        flyway.configure(properties);
+
+        assertEquals(2, flyway.getSeedLocations().length);
+        assertEquals("classpath:db/more_seed", flyway.getSeedLocations()[0]);
+        assertEquals("classpath:db/seed", flyway.getSeedLocations()[1]);
+    }
+
+    @Test
+    public void configureSnapshotDir() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.snapshotDir", "target/snapshots");
+
+        Flyway flyway = new Flyway();
+        assertNull(flyway.getSnapshotDir());
+        flyway.configure(properties);
+
+        assertEquals("target/snapshots", flyway.getSnapshotDir());
+    }
+
+    @Test
+    public void configurePoolSize() {
+        Properties properties = new Properties();
+        properties.setProperty("flyway.url", "jdbc:h2:mem:flyway_test;DB_CLOSE_DELAY=-1");
+        properties.setProperty("flyway.poolSize", "3");
+
+        Flyway flyway = new Flyway();
+        flyway.configure(properties);
+
+        assertEquals(3, ((DriverDataSource) flyway.getDataSource()).getPoolSize());
+    }
+
     @Test
     public void configureValidationMode() {
         Properties properties = new Properties();
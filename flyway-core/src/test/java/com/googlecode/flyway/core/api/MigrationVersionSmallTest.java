@@ -18,6 +18,8 @@ package com.googlecode.flyway.core.api;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -156,5 +158,49 @@ public class MigrationVersionSmallTest {
     public void alphaNumeric() {
         new MigrationVersion("1.2.1a-3");
     }
-}
 
+    @Test
+    public void underscores() {
+        final MigrationVersion v1 = new MigrationVersion("1_2_3");
+        assertEquals("1.2.3", v1.toString());
+        assertEquals(new MigrationVersion("1.2.3"), v1);
+    }
+
+    @Test
+    public void notEquals() {
+        assertFalse(new MigrationVersion("1.2").equals(new MigrationVersion("1.2.1")));
+        assertFalse(new MigrationVersion("1.2").equals(MigrationVersion.LATEST));
+        assertFalse(MigrationVersion.EMPTY.equals(new MigrationVersion("0")));
+    }
+
+    @Test
+    public void largest() {
+        final MigrationVersion v1 = new MigrationVersion("9223372036854775806");
+        final MigrationVersion v2 = new MigrationVersion("9223372036854775807");
+        assertTrue(v1.compareTo(v2) < 0);
+        assertTrue(v2.compareTo(MigrationVersion.LATEST) < 0);
+    }
+
+    @Test(expected = FlywayException.class)
+    public void tooLarge() {
+        new MigrationVersion("9223372036854775808");
+    }
+
+    @Test(expected = FlywayException.class)
+    public void emptyString() {
+        new MigrationVersion("");
+    }
+
+    @Test
+    public void fromVersion() {
+        final MigrationVersion v1 = MigrationVersion.fromVersion("1.2.3");
+        assertSame(v1, MigrationVersion.fromVersion("1.2.3"));
+        assertEquals(new MigrationVersion("1.2.3"), v1);
+        assertEquals("1.2.3", v1.toString());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void fromVersionInvalid() {
+        MigrationVersion.fromVersion("1.a");
+    }
+}
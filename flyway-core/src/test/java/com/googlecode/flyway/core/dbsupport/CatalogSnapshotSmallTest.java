@@ -0,0 +1,99 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.dbsupport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for CatalogSnapshot.
+ */
+public class CatalogSnapshotSmallTest {
+    @Test
+    public void empty() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+
+        assertTrue(snapshot.isEmpty());
+        assertTrue(snapshot.getObjectNames(CatalogSnapshot.TABLE).isEmpty());
+        assertTrue(snapshot.getTablesInDropOrder().isEmpty());
+        assertTrue(snapshot.getForeignKeysToDropFirst().isEmpty());
+    }
+
+    @Test
+    public void objectNames() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.addObject("SEQUENCE", "seq1");
+        snapshot.addObject("VIEW", "view1");
+        snapshot.addObject("SEQUENCE", "seq2");
+
+        assertFalse(snapshot.isEmpty());
+        assertEquals(Arrays.asList("seq1", "seq2"), snapshot.getObjectNames("SEQUENCE"));
+        assertEquals(Arrays.asList("view1"), snapshot.getObjectNames("VIEW"));
+        assertTrue(snapshot.getObjectNames(CatalogSnapshot.TABLE).isEmpty());
+    }
+
+    @Test
+    public void dropOrder() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.addObject(CatalogSnapshot.TABLE, "country");
+        snapshot.addObject(CatalogSnapshot.TABLE, "city");
+        snapshot.addObject(CatalogSnapshot.TABLE, "address");
+        snapshot.addObject(CatalogSnapshot.TABLE, "log");
+        snapshot.addForeignKey("city", "fk_city_country", "country");
+        snapshot.addForeignKey("address", "fk_address_city", "city");
+        snapshot.addForeignKey("address", "fk_address_country", "country");
+
+        assertEquals(Arrays.asList("address", "log", "city", "country"), snapshot.getTablesInDropOrder());
+        assertTrue(snapshot.getForeignKeysToDropFirst().isEmpty());
+    }
+
+    @Test
+    public void dropOrderSelfReference() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.addObject(CatalogSnapshot.TABLE, "employee");
+        snapshot.addObject(CatalogSnapshot.TABLE, "department");
+        snapshot.addForeignKey("employee", "fk_manager", "employee");
+        snapshot.addForeignKey("employee", "fk_department", "department");
+
+        assertEquals(Arrays.asList("employee", "department"), snapshot.getTablesInDropOrder());
+        assertTrue(snapshot.getForeignKeysToDropFirst().isEmpty());
+    }
+
+    @Test
+    public void dropOrderCycle() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.addObject(CatalogSnapshot.TABLE, "a");
+        snapshot.addObject(CatalogSnapshot.TABLE, "b");
+        snapshot.addObject(CatalogSnapshot.TABLE, "c");
+        snapshot.addObject(CatalogSnapshot.TABLE, "d");
+        snapshot.addForeignKey("a", "fk_a_b", "b");
+        snapshot.addForeignKey("b", "fk_b_a", "a");
+        snapshot.addForeignKey("d", "fk_d_a", "a");
+
+        List<CatalogSnapshot.ForeignKey> foreignKeys = snapshot.getForeignKeysToDropFirst();
+        assertEquals(2, foreignKeys.size());
+        assertEquals("fk_a_b", foreignKeys.get(0).getConstraintName());
+        assertEquals("fk_b_a", foreignKeys.get(1).getConstraintName());
+
+        assertEquals(Arrays.asList("c", "d", "a", "b"), snapshot.getTablesInDropOrder());
+    }
+}
@@ -15,18 +15,38 @@
  */
 package com.googlecode.flyway.core.dbsupport;
 
+import com.googlecode.flyway.core.api.FlywayException;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.dbsupport.mysql.MySQLDbSupport;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * Test for SqlScript.
@@ -282,6 +302,128 @@ public class SqlScriptSmallTest {
         assertEquals(2, sqlStatements.size());
     }
 
+    @Test
+    public void executeStreaming() throws Exception {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("table", "my_table");
+        String source = "\ufeffselect 1;\n" +
+                "-- comment\n" +
+                "\n" +
+                "insert into ${table} values (1);\n" +
+                "select 2";
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        new SqlScript(new StringReader(source), new PlaceholderReplacer(placeholders, "${", "}"), new MySQLDbSupport(null))
+                .execute(jdbcTemplate);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).executeStatement("select 1");
+        inOrder.verify(jdbcTemplate).executeStatement("insert into my_table values (1)");
+        inOrder.verify(jdbcTemplate).executeStatement("select 2");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void executeStreamingErrorLineNumber() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doThrow(new SQLException("Dummy")).when(jdbcTemplate).executeStatement("select\n2");
+
+        try {
+            PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(new HashMap<String, String>(), "${", "}");
+            new SqlScript(new StringReader("select 1;\n\nselect\n2;"), placeholderReplacer, new MySQLDbSupport(null))
+                    .execute(jdbcTemplate);
+            fail();
+        } catch (FlywayException e) {
+            assertTrue(e.getMessage().startsWith("Error executing statement at line 3"));
+        }
+    }
+
+    @Test
+    public void executeBatched() throws Exception {
+        String source = "create table t (i int);\n" +
+                "insert into t values (1);\n" +
+                "insert into t values (2);\n" +
+                "update t set i = 3;\n" +
+                "drop table t;\n" +
+                "delete from t;";
+
+        JdbcTemplate jdbcTemplate = mockBatchingJdbcTemplate();
+        sqlScript = new SqlScript(source, new MySQLDbSupport(null));
+        sqlScript.execute(jdbcTemplate, 2);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).executeStatement("create table t (i int)");
+        inOrder.verify(jdbcTemplate).executeBatch(Arrays.asList("insert into t values (1)", "insert into t values (2)"));
+        inOrder.verify(jdbcTemplate).executeStatement("update t set i = 3");
+        inOrder.verify(jdbcTemplate).executeStatement("drop table t");
+        inOrder.verify(jdbcTemplate).executeStatement("delete from t");
+    }
+
+    @Test
+    public void executeBatchedErrorLineNumber() throws Exception {
+        JdbcTemplate jdbcTemplate = mockBatchingJdbcTemplate();
+        when(jdbcTemplate.executeBatch(anyListOf(String.class))).thenThrow(new BatchUpdateException(new int[]{1}));
+
+        try {
+            new SqlScript("insert into t values (1);\n\ninsert into t\nvalues (2);", new MySQLDbSupport(null))
+                    .execute(jdbcTemplate, 10);
+            fail();
+        } catch (FlywayException e) {
+            assertTrue(e.getMessage().startsWith("Error executing statement at line 3"));
+        }
+    }
+
+    @Test
+    public void executeWithListener() throws Exception {
+        String source = "create table t (i int);\n" +
+                "insert into t values (1);\n" +
+                "insert into t values (2);\n" +
+                "\n" +
+                "update t set i = 3;";
+
+        JdbcTemplate jdbcTemplate = mockBatchingJdbcTemplate();
+        when(jdbcTemplate.executeBatch(anyListOf(String.class))).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO});
+        when(jdbcTemplate.executeStatement("update t set i = 3")).thenReturn(2);
+        MigrationListener listener = mock(MigrationListener.class);
+
+        new SqlScript(source, new MySQLDbSupport(null)).execute(jdbcTemplate, 2, listener, "V1__Test.sql");
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).statementExecuted(eq("V1__Test.sql"), eq(1), eq("create table t (i int)"), anyLong(), eq(0));
+        inOrder.verify(listener).batchExecuted(eq("V1__Test.sql"), eq(2), eq(3), eq(2), anyLong());
+        inOrder.verify(listener).statementExecuted(eq("V1__Test.sql"), eq(5), eq("update t set i = 3"), anyLong(), eq(2));
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void batchable() {
+        String source = "insert into t values (1);\n" +
+                "DELETE\nfrom t;\n" +
+                "select * from t;\n" +
+                "inserted_proc();\n" +
+                "DELIMITER $$\n" +
+                "insert into t values (2)$$";
+
+        List<SqlStatement> sqlStatements = sqlScript.parse(source);
+        assertEquals(5, sqlStatements.size());
+        assertTrue(sqlStatements.get(0).isBatchable());
+        assertTrue(sqlStatements.get(1).isBatchable());
+        assertFalse(sqlStatements.get(2).isBatchable());
+        assertFalse(sqlStatements.get(3).isBatchable());
+        assertFalse(sqlStatements.get(4).isBatchable());
+    }
+
+    /**
+     * @return A mock jdbc template whose connection reports JDBC batch support.
+     */
+    private JdbcTemplate mockBatchingJdbcTemplate() throws SQLException {
+        DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+        when(databaseMetaData.supportsBatchUpdates()).thenReturn(true);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getMetaData()).thenReturn(databaseMetaData);
+        return jdbcTemplate;
+    }
+
     @Ignore("Currently broken")
     @Test
     public void parseWithTrailingComment() {
@@ -16,6 +16,7 @@
 package com.googlecode.flyway.core.dbsupport;
 
 import com.googlecode.flyway.core.dbsupport.h2.H2SqlStatementBuilder;
+import com.googlecode.flyway.core.dbsupport.mysql.MySQLSqlStatementBuilder;
 import com.googlecode.flyway.core.dbsupport.oracle.OracleSqlStatementBuilder;
 import com.googlecode.flyway.core.dbsupport.postgresql.PostgreSQLSqlStatementBuilder;
 import com.googlecode.flyway.core.dbsupport.sqlserver.SQLServerSqlStatementBuilder;
@@ -100,7 +101,29 @@ public class SqlStatementBuilderSmallTest {
 
     @Test
     public void stripDelimiter() {
-        assertEquals("SELECT * FROM t WHERE a = 'Straßenpaß'",
-                SqlStatementBuilder.stripDelimiter("SELECT * FROM t WHERE a = 'Straßenpaß';", new Delimiter(";", false)));
+        StringBuilder sql = new StringBuilder("SELECT * FROM t WHERE a = 'Straßenpaß';");
+        SqlStatementBuilder.stripDelimiter(sql, new Delimiter(";", false));
+        assertEquals("SELECT * FROM t WHERE a = 'Straßenpaß'", sql.toString());
+    }
+
+    @Test
+    public void stripDelimiterCaseInsensitive() {
+        StringBuilder sql = new StringBuilder("CREATE TABLE go_table (i INT)\ngo");
+        SqlStatementBuilder.stripDelimiter(sql, new Delimiter("GO", true));
+        assertEquals("CREATE TABLE go_table (i INT)\n", sql.toString());
+    }
+
+    @Test
+    public void simplifyLine() {
+        SqlStatementBuilder sqlStatementBuilder = new SqlStatementBuilder();
+        assertEquals("", sqlStatementBuilder.simplifyLine(" \t "));
+        assertEquals("INSERT INTO T VALUES ('A B');", sqlStatementBuilder.simplifyLine("\tinsert  into\tt values ('a \t b');  "));
+    }
+
+    @Test
+    public void singleLineCommentHidesQuote() {
+        assertFalse(new H2SqlStatementBuilder().endsWithOpenMultilineStringLiteral("select 1 -- it's a comment"));
+        assertFalse(new MySQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("select 1 # it's a comment"));
+        assertTrue(new MySQLSqlStatementBuilder().endsWithOpenMultilineStringLiteral("select \"abc"));
     }
 }
@@ -15,13 +15,19 @@
  */
 package com.googlecode.flyway.core.dbsupport.derby;
 
+import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.migration.MigrationTestCase;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.Test;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Properties;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  * Test to demonstrate the migration functionality using Derby.
  */
@@ -50,4 +56,40 @@ public class DerbyMigrationMediumTest extends MigrationTestCase {
     protected String getQuoteLocation() {
         return "migration/quote";
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cleanCyclicForeignKeys() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE parent (id INT NOT NULL PRIMARY KEY, child_id INT)");
+        jdbcTemplate.execute("CREATE TABLE child (id INT NOT NULL PRIMARY KEY, parent_id INT REFERENCES parent(id))");
+        jdbcTemplate.execute("ALTER TABLE parent ADD CONSTRAINT fk_parent_child FOREIGN KEY (child_id) REFERENCES child(id)");
+        jdbcTemplate.execute("CREATE TABLE grandchild (id INT NOT NULL PRIMARY KEY, child_id INT REFERENCES child(id))");
+        jdbcTemplate.execute("CREATE VIEW children AS SELECT * FROM child");
+
+        flyway.clean();
+
+        assertTrue(dbSupport.getCurrentSchema().snapshot().isEmpty());
+    }
+
+    @Test
+    public void cleanServerSideFailure() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE parent (id INT NOT NULL PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE child (id INT NOT NULL PRIMARY KEY, parent_id INT REFERENCES parent(id))");
+
+        Schema schema = new DerbySchema(jdbcTemplate, dbSupport, dbSupport.getCurrentSchema().getName()) {
+            @Override
+            protected String generateServerSideCleanStatement() {
+                return "DROP TABLE no_such_table";
+            }
+        };
+        Connection connection = jdbcTemplate.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            schema.clean();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        assertEquals(0, schema.allTables().length);
+    }
+}
@@ -15,20 +15,29 @@
  */
 package com.googlecode.flyway.core.dbsupport.h2;
 
+import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.migration.MigrationTestCase;
 import com.googlecode.flyway.core.migration.SchemaVersion;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.io.FileWriter;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test to demonstrate the migration functionality using H2.
  */
 public class H2MigrationMediumTest extends MigrationTestCase {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Override
     protected DataSource createDataSource(Properties customProperties) {
         return new DriverDataSource(null, "jdbc:h2:mem:flyway_db;DB_CLOSE_DELAY=-1", "sa", "");
@@ -81,4 +90,81 @@ public class H2MigrationMediumTest extends MigrationTestCase {
         flyway.clean();
         flyway.migrate();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void snapshot() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        assertEquals(4, flyway.migrate());
+
+        File[] snapshotFiles = temporaryFolder.getRoot().listFiles();
+        assertEquals(1, snapshotFiles.length);
+
+        // Mark the snapshot to detect that it was restored instead of migrating
+        FileWriter writer = new FileWriter(snapshotFiles[0], true);
+        writer.write("CREATE TABLE snapshot_marker(id INT);\n");
+        writer.close();
+
+        flyway.clean();
+        assertEquals(4, flyway.migrate());
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM snapshot_marker"));
+        assertEquals(2, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+        assertEquals("Mr. Iße T", jdbcTemplate.queryForString("SELECT name FROM test_user WHERE id = 1"));
+        assertEquals(4, flyway.info().applied().length);
+        assertEquals(0, flyway.migrate());
+        flyway.validate();
+
+        flyway.clean();
+        flyway.setLocations(BASEDIR, "migration/outoforder");
+        flyway.migrate();
+        assertEquals(2, temporaryFolder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void snapshotPerSchema() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        flyway.setSchemas("SNAPSHOT_A");
+        assertEquals(4, flyway.migrate());
+
+        flyway.setSchemas("SNAPSHOT_B");
+        assertEquals(4, flyway.migrate());
+        assertEquals(0, flyway.migrate());
+        assertEquals(2, temporaryFolder.getRoot().listFiles().length);
+        flyway.clean();
+
+        flyway.setSchemas("SNAPSHOT_A");
+        flyway.clean();
+    }
+
+    @Test
+    public void snapshotWithoutMetaDataTable() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        assertEquals(4, flyway.migrate());
+
+        File snapshotFile = temporaryFolder.getRoot().listFiles()[0];
+        new FileWriter(snapshotFile).close();
+
+        flyway.clean();
+        assertEquals(4, flyway.migrate());
+        assertEquals(4, flyway.info().applied().length);
+        assertTrue(snapshotFile.length() > 0);
+    }
+
+    @Test
+    public void cleanServerSideFailure() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE parent (id INT NOT NULL PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE child (id INT NOT NULL PRIMARY KEY, parent_id INT REFERENCES parent(id))");
+
+        Schema schema = new H2Schema(jdbcTemplate, dbSupport, dbSupport.getCurrentSchema().getName()) {
+            @Override
+            protected String generateServerSideCleanStatement() {
+                return "DROP TABLE no_such_table";
+            }
+        };
+        schema.clean();
+
+        assertEquals(0, schema.allTables().length);
+    }
+}
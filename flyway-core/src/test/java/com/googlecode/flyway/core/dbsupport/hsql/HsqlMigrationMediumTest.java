@@ -19,17 +19,25 @@ import com.googlecode.flyway.core.dbsupport.Schema;
 import com.googlecode.flyway.core.migration.MigrationTestCase;
 import com.googlecode.flyway.core.migration.SchemaVersion;
 import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import javax.sql.DataSource;
+import java.io.File;
+import java.io.FileWriter;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test to demonstrate the migration functionality using Hsql.
  */
 public class HsqlMigrationMediumTest extends MigrationTestCase {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Override
     protected DataSource createDataSource(Properties customProperties) {
         return new DriverDataSource(null, "jdbc:hsqldb:mem:flyway_db", "SA", "");
@@ -76,4 +84,65 @@ public class HsqlMigrationMediumTest extends MigrationTestCase {
 
         schema.drop();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void snapshot() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        assertEquals(4, flyway.migrate());
+
+        File[] snapshotFiles = temporaryFolder.getRoot().listFiles();
+        assertEquals(1, snapshotFiles.length);
+
+        // Mark the snapshot to detect that it was restored instead of migrating
+        FileWriter writer = new FileWriter(snapshotFiles[0], true);
+        writer.write("CREATE MEMORY TABLE PUBLIC.SNAPSHOT_MARKER(ID INTEGER)\n");
+        writer.close();
+
+        flyway.clean();
+        assertEquals(4, flyway.migrate());
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM snapshot_marker"));
+        assertEquals(2, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+        assertEquals("Mr. Iße T", jdbcTemplate.queryForString("SELECT name FROM test_user WHERE id = 1"));
+        assertEquals(4, flyway.info().applied().length);
+        assertEquals(0, flyway.migrate());
+        flyway.validate();
+
+        flyway.clean();
+        flyway.setLocations(BASEDIR, "migration/outoforder");
+        flyway.migrate();
+        assertEquals(2, temporaryFolder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void snapshotPerSchema() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        flyway.setSchemas("SNAPSHOT_A");
+        assertEquals(4, flyway.migrate());
+
+        flyway.setSchemas("SNAPSHOT_B");
+        assertEquals(4, flyway.migrate());
+        assertEquals(0, flyway.migrate());
+        assertEquals(2, temporaryFolder.getRoot().listFiles().length);
+        flyway.clean();
+
+        flyway.setSchemas("SNAPSHOT_A");
+        flyway.clean();
+    }
+
+    @Test
+    public void snapshotWithoutMetaDataTable() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setSnapshotDir(temporaryFolder.getRoot().getPath());
+        assertEquals(4, flyway.migrate());
+
+        File snapshotFile = temporaryFolder.getRoot().listFiles()[0];
+        new FileWriter(snapshotFile).close();
+
+        flyway.clean();
+        assertEquals(4, flyway.migrate());
+        assertEquals(4, flyway.info().applied().length);
+        assertTrue(snapshotFile.length() > 0);
+    }
+}
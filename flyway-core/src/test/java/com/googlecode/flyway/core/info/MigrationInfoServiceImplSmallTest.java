@@ -139,6 +139,86 @@ public class MigrationInfoServiceImplSmallTest {
         assertEquals(0, migrationInfoService.pending().length);
     }
 
+    @Test
+    public void unsorted() {
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(3), createAvailableMigration(1), createAvailableMigration(2)),
+                        createMetaDataTable(createAppliedMigration(2), createAppliedMigration(1)),
+                        MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        assertEquals("2", migrationInfoService.current().getVersion().toString());
+        assertEquals(3, migrationInfoService.all().length);
+        assertEquals("1", migrationInfoService.all()[0].getVersion().toString());
+        assertEquals("3", migrationInfoService.all()[2].getVersion().toString());
+        assertEquals(2, migrationInfoService.applied().length);
+        assertEquals(1, migrationInfoService.pending().length);
+        assertEquals("3", migrationInfoService.pending()[0].getVersion().toString());
+    }
+
+    @Test
+    public void failedAndOutOfOrder() {
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(1), createAvailableMigration(2), createAvailableMigration(3)),
+                        createMetaDataTable(
+                                createAppliedMigration(1),
+                                new AppliedMigration(2, 3, new MigrationVersion("2"), "abc", MigrationType.SQL, "x", null,
+                                        new Date(), "sa", 123, true),
+                                new AppliedMigration(3, 2, new MigrationVersion("3"), "abc", MigrationType.SQL, "x", null,
+                                        new Date(), "sa", 123, false)),
+                        MigrationVersion.LATEST, true);
+        migrationInfoService.refresh();
+
+        assertEquals("3", migrationInfoService.current().getVersion().toString());
+        assertEquals(3, migrationInfoService.applied().length);
+        assertEquals(3, migrationInfoService.resolved().length);
+        assertEquals(1, migrationInfoService.outOfOrder().length);
+        assertEquals("2", migrationInfoService.outOfOrder()[0].getVersion().toString());
+        assertEquals(1, migrationInfoService.failed().length);
+        assertEquals(MigrationState.FAILED, migrationInfoService.failed()[0].getState());
+        assertEquals(0, migrationInfoService.future().length);
+        assertEquals(0, migrationInfoService.pending().length);
+    }
+
+    @Test
+    public void parallelGroupPartiallyApplied() {
+        ResolvedMigration first = createAvailableMigration(2);
+        first.setParallelGroup("indexes");
+        ResolvedMigration second = createAvailableMigration(3);
+        second.setParallelGroup("indexes");
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(1), first, second, createAvailableMigration(4)),
+                        createMetaDataTable(createAppliedMigration(1), createAppliedMigration(3)),
+                        MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        assertEquals("3", migrationInfoService.current().getVersion().toString());
+        assertEquals(MigrationState.PENDING, migrationInfoService.all()[1].getState());
+        assertEquals(2, migrationInfoService.pending().length);
+        assertEquals("2", migrationInfoService.pending()[0].getVersion().toString());
+        assertEquals("4", migrationInfoService.pending()[1].getVersion().toString());
+    }
+
+    @Test
+    public void parallelGroupNotLastApplied() {
+        ResolvedMigration first = createAvailableMigration(2);
+        first.setParallelGroup("indexes");
+        ResolvedMigration second = createAvailableMigration(3);
+        second.setParallelGroup("indexes");
+        MigrationInfoServiceImpl migrationInfoService =
+                new MigrationInfoServiceImpl(
+                        createMigrationResolver(createAvailableMigration(1), first, second, createAvailableMigration(4)),
+                        createMetaDataTable(createAppliedMigration(1), createAppliedMigration(3), createAppliedMigration(4)),
+                        MigrationVersion.LATEST, false);
+        migrationInfoService.refresh();
+
+        assertEquals(MigrationState.IGNORED, migrationInfoService.all()[1].getState());
+        assertEquals(0, migrationInfoService.pending().length);
+    }
+
     /**
      * Creates a new available migration with this version.
      *
@@ -16,8 +16,10 @@
 package com.googlecode.flyway.core.migration;
 
 import com.googlecode.flyway.core.Flyway;
+import com.googlecode.flyway.core.FlywaySession;
 import com.googlecode.flyway.core.api.FlywayException;
 import com.googlecode.flyway.core.api.MigrationInfo;
+import com.googlecode.flyway.core.api.MigrationListener;
 import com.googlecode.flyway.core.api.MigrationState;
 import com.googlecode.flyway.core.api.MigrationType;
 import com.googlecode.flyway.core.api.MigrationVersion;
@@ -38,6 +40,7 @@ import com.googlecode.flyway.core.util.Location;
 import com.googlecode.flyway.core.util.Locations;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
 import com.googlecode.flyway.core.util.Resource;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 import com.googlecode.flyway.core.validation.ValidationErrorMode;
 import com.googlecode.flyway.core.validation.ValidationMode;
 import org.junit.After;
@@ -55,6 +58,15 @@ import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test to demonstrate the migration functionality.
@@ -152,6 +164,101 @@ public abstract class MigrationTestCase {
         assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
     }
 
+    @Test
+    public void migrateBatch() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setMigrateBatchSize(0);
+        assertEquals(4, flyway.migrate());
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+        assertEquals(0, flyway.migrate());
+
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(4, applied.length);
+        for (MigrationInfo migrationInfo : applied) {
+            assertEquals(MigrationState.SUCCESS, migrationInfo.getState());
+        }
+
+        assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
+    }
+
+    @Test
+    public void migrateStatementBatch() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.setStatementBatchSize(10);
+        assertEquals(4, flyway.migrate());
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+        assertEquals(2, jdbcTemplate.queryForInt("select count(*) from all_misters"));
+    }
+
+    @Test
+    public void migrateBatchFailed() throws Exception {
+        flyway.setLocations("migration/future_failed");
+        flyway.setMigrateBatchSize(2);
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywayException e) {
+            //Expected
+        }
+
+        if (dbSupport.supportsDdlTransactions()) {
+            assertEquals("2.0", flyway.info().current().getVersion().toString());
+            assertEquals(MigrationState.SUCCESS, flyway.info().current().getState());
+        } else {
+            assertEquals("3", flyway.info().current().getVersion().toString());
+            assertEquals(MigrationState.FAILED, flyway.info().current().getState());
+        }
+    }
+
+    @Test
+    public void parallelGroup() throws Exception {
+        flyway.setLocations("migration/parallel");
+        assertEquals(5, flyway.migrate());
+        assertEquals("3", flyway.info().current().getVersion().toString());
+        assertEquals(0, flyway.migrate());
+
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(5, applied.length);
+        for (MigrationInfo migrationInfo : applied) {
+            assertEquals(MigrationState.SUCCESS, migrationInfo.getState());
+        }
+        assertEquals("Second table", applied[2].getDescription());
+
+        List<String> versions = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version")
+                + " FROM " + dbSupport.quote(flyway.getTable()) + " ORDER BY " + dbSupport.quote("installed_rank"));
+        assertEquals("[1, 2.1, 2.2, 2.3, 3]", versions.toString());
+
+        assertEquals(1, jdbcTemplate.queryForInt("select count(*) from parallel_three"));
+    }
+
+    @Test
+    public void parallelGroupFailed() throws Exception {
+        flyway.setLocations("migration/parallel_failed");
+
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywayException e) {
+            if (dbSupport.supportsDdlTransactions()) {
+                assertTrue(e.getMessage().contains("parallel group were committed: 2.2"));
+            }
+        }
+
+        // The migrations after the group are only applied once all migrations of the group succeeded
+        MigrationInfo[] all = flyway.info().all();
+        assertEquals(4, all.length);
+        assertEquals(MigrationState.SUCCESS, all[2].getState());
+        assertEquals(MigrationState.PENDING, all[3].getState());
+
+        if (dbSupport.supportsDdlTransactions()) {
+            assertEquals(MigrationState.PENDING, all[1].getState());
+            assertEquals(2, flyway.info().pending().length);
+        } else {
+            assertEquals(MigrationState.FAILED, all[1].getState());
+        }
+    }
+
     @Test
     public void target() throws Exception {
         flyway.setLocations(BASEDIR);
@@ -192,7 +299,11 @@ public abstract class MigrationTestCase {
                 PlaceholderReplacer.NO_PLACEHOLDERS,
                 "UTF-8",
                 "V",
-                ".sql");
+                ".sql",
+                0,
+                null,
+                new ClassPathScanner(),
+                null);
         List<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
         for (ResolvedMigration migration : migrations) {
             if (migration.getVersion().toString().equals(appliedMigration.getVersion().toString())) {
@@ -214,6 +325,80 @@ public abstract class MigrationTestCase {
         flyway.validate();
     }
 
+    @Test
+    public void migrateUpToDate() throws Exception {
+        flyway.setLocations(BASEDIR);
+        assertEquals(4, flyway.migrate());
+        assertEquals(0, flyway.migrate());
+
+        flyway.setLocations(BASEDIR, "migration/outoforder");
+        flyway.setOutOfOrder(true);
+        assertEquals(1, flyway.migrate());
+        assertEquals(0, flyway.migrate());
+
+        jdbcTemplate.update("UPDATE " + dbSupport.getSchema(flyway.getSchemas()[0]).getTable(flyway.getTable())
+                + " SET " + dbSupport.quote("checksum") + " = 42"
+                + " WHERE " + dbSupport.quote("version") + " = '1.1'");
+        flyway.setValidateOnMigrate(true);
+        try {
+            flyway.migrate();
+            fail();
+        } catch (FlywayException e) {
+            assertTrue(e.getMessage().contains("Checksum mismatch"));
+        }
+    }
+
+    @Test
+    public void session() throws Exception {
+        flyway.setLocations(BASEDIR);
+        FlywaySession session = flyway.openSession();
+        try {
+            session.validate();
+            assertEquals(4, session.migrate());
+            assertEquals(4, session.info().applied().length);
+
+            session.clean();
+            assertEquals(4, flyway.migrate());
+            assertEquals(0, session.migrate());
+            assertEquals("2.0", flyway.info().current().getVersion().toString());
+        } finally {
+            session.close();
+        }
+
+        assertEquals("2.0", flyway.info().current().getVersion().toString());
+        try {
+            session.migrate();
+            fail();
+        } catch (FlywayException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+
+        session = flyway.openSession();
+        FlywaySession otherSession = flyway.openSession();
+        try {
+            otherSession.close();
+            assertEquals("2.0", session.info().current().getVersion().toString());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void listener() throws Exception {
+        MigrationListener listener = mock(MigrationListener.class);
+        flyway.setListeners(listener);
+        flyway.setLocations(BASEDIR);
+        assertEquals(4, flyway.migrate());
+
+        verify(listener).resolveStarted();
+        verify(listener).resolveFinished(eq(4), anyLong());
+        verify(listener, atLeastOnce()).lockAcquired(anyLong());
+        verify(listener, times(4)).migrationStarted(any(MigrationInfo.class));
+        verify(listener, times(4)).migrationFinished(any(MigrationInfo.class), eq(true), anyLong());
+        verify(listener).statementExecuted(eq("V1__First.sql"), eq(17), startsWith("CREATE TABLE test_user"),
+                anyLong(), anyInt());
+    }
+
     @Test(expected = FlywayException.class)
     public void validateMoreAppliedThanAvailable() throws Exception {
         flyway.setLocations(BASEDIR);
@@ -521,6 +706,69 @@ public abstract class MigrationTestCase {
         flyway.clean();
     }
 
+    @Test
+    public void cleanMultipleSchemasInParallel() throws Exception {
+        flyway.setSchemas("flyway_1", "flyway_2", "flyway_3");
+        flyway.setCleanThreads(3);
+        flyway.clean();
+
+        flyway.setLocations("migration/multi");
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("schema1", dbSupport.quote("flyway_1"));
+        placeholders.put("schema2", dbSupport.quote("flyway_2"));
+        placeholders.put("schema3", dbSupport.quote("flyway_3"));
+        flyway.setPlaceholders(placeholders);
+        assertEquals(3, flyway.migrate());
+
+        flyway.clean();
+        assertEquals(0, flyway.info().applied().length);
+        assertEquals(3, flyway.migrate());
+
+        flyway.clean();
+    }
+
+    @Test
+    public void reset() throws Exception {
+        flyway.setLocations(BASEDIR);
+        flyway.migrate();
+        int applied = flyway.info().applied().length;
+        assertEquals(2, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM couple"));
+
+        assertEquals(0, flyway.reset());
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM couple"));
+        assertEquals(applied, flyway.info().applied().length);
+
+        flyway.setSeedLocations("migration/seed");
+        assertEquals(1, flyway.reset());
+        assertEquals(3, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM test_user"));
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM couple"));
+        assertEquals(applied, flyway.info().applied().length);
+        assertEquals(0, flyway.migrate());
+    }
+
+    @Test
+    public void resetCyclicForeignKeys() throws Exception {
+        flyway.setLocations("migration/cyclic");
+        flyway.migrate();
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM parent"));
+        assertEquals(1, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM child"));
+
+        assertEquals(0, flyway.reset());
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM parent"));
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM child"));
+        assertEquals(0, jdbcTemplate.queryForInt("SELECT COUNT(*) FROM grandchild"));
+
+        jdbcTemplate.execute("INSERT INTO parent (id, child_id) VALUES (2, NULL)");
+        try {
+            jdbcTemplate.execute("INSERT INTO child (id, parent_id) VALUES (2, 3)");
+            fail();
+        } catch (SQLException e) {
+            //Expected: the foreign keys are checked again
+        }
+    }
+
     @Test
     public void setCurrentSchema() throws Exception {
         Schema schema = dbSupport.getSchema("current_schema_test");
@@ -564,6 +812,30 @@ public abstract class MigrationTestCase {
         assertEquals(com.googlecode.flyway.core.api.MigrationState.OUT_OF_ORDER, flyway.info().all()[2].getState());
     }
 
+    @Test
+    public void outOfOrderRanksInBatch() throws Exception {
+        flyway.setLocations("migration/sql");
+        flyway.setTarget(new MigrationVersion("1.2"));
+        flyway.migrate();
+
+        flyway.setLocations("migration/sql", "migration/outoforder");
+        flyway.setTarget(MigrationVersion.LATEST);
+        flyway.setOutOfOrder(true);
+        flyway.setMigrateBatchSize(0);
+        assertEquals(2, flyway.migrate());
+
+        MigrationInfo[] all = flyway.info().all();
+        assertEquals(5, all.length);
+        assertEquals("1.1.1", all[2].getVersion().toString());
+        assertEquals(MigrationState.OUT_OF_ORDER, all[2].getState());
+        assertEquals("2.0", all[4].getVersion().toString());
+        assertEquals(MigrationState.SUCCESS, all[4].getState());
+
+        List<String> versions = jdbcTemplate.queryForStringList("SELECT " + dbSupport.quote("version")
+                + " FROM " + dbSupport.quote(flyway.getTable()) + " ORDER BY " + dbSupport.quote("version_rank"));
+        assertEquals("[1, 1.1, 1.1.1, 1.2, 2.0]", versions.toString());
+    }
+
     @Test
     public void format20upgrade() throws Exception {
         createMetaDataTableIn17Format();
@@ -667,7 +939,7 @@ public abstract class MigrationTestCase {
      * Upgrade a Flyway 1.7 format metadata table to the Flyway 2.0 format.
      */
     private void upgradeMetaDataTableTo20Format() throws Exception {
-        CompositeMigrationResolver migrationResolver = new CompositeMigrationResolver(dbSupport, new Locations(BASEDIR), "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}");
+        CompositeMigrationResolver migrationResolver = new CompositeMigrationResolver(dbSupport, new Locations(BASEDIR), "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}", 0, null, null);
 
         MetaDataTableTo20FormatUpgrader upgrader = new MetaDataTableTo20FormatUpgrader(dbSupport, dbSupport.getCurrentSchema().getTable(flyway.getTable()), migrationResolver);
         upgrader.upgrade();
@@ -22,6 +22,7 @@ import com.googlecode.flyway.core.util.Locations;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -37,7 +38,7 @@ public class CompositeMigrationResolverSmallTest {
     public void resolveMigrationsMultipleLocations() {
         MigrationResolver migrationResolver = new CompositeMigrationResolver(null,
                 new Locations("migration/subdir/dir2", "migration.outoforder", "migration/subdir/dir1"),
-                "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}");
+                "UTF-8", "V", ".sql", new HashMap<String, String>(), "${", "}", 0, null, null);
 
         List<ResolvedMigration> migrations = migrationResolver.resolveMigrations();
 
@@ -69,6 +70,39 @@ public class CompositeMigrationResolverSmallTest {
         assertEquals(2, migrations.size());
     }
 
+    @Test
+    public void collectMigrationsKeepsResolverOrder() {
+        Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+        for (int i = 0; i < 10; i++) {
+            final ResolvedMigration migration = createTestMigration(MigrationType.SQL, "" + (10 - i), "Description", "Migration" + i, i);
+            migrationResolvers.add(new MigrationResolver() {
+                public List<ResolvedMigration> resolveMigrations() {
+                    return Arrays.asList(migration);
+                }
+            });
+        }
+
+        List<String> versions = new ArrayList<String>();
+        for (ResolvedMigration migration : CompositeMigrationResolver.collectMigrations(migrationResolvers, 4)) {
+            versions.add(migration.getVersion().toString());
+        }
+        assertEquals("[10, 9, 8, 7, 6, 5, 4, 3, 2, 1]", versions.toString());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void collectMigrationsFailure() {
+        Collection<MigrationResolver> migrationResolvers = new ArrayList<MigrationResolver>();
+        for (int i = 0; i < 4; i++) {
+            migrationResolvers.add(new MigrationResolver() {
+                public List<ResolvedMigration> resolveMigrations() {
+                    throw new FlywayException("Unable to scan");
+                }
+            });
+        }
+
+        CompositeMigrationResolver.collectMigrations(migrationResolvers, 4);
+    }
+
     @Test
     public void checkForIncompatibilitiesMessage() {
         ResolvedMigration migration1 = createTestMigration(MigrationType.SQL, "1", "First", "V1__First.sql", 123);
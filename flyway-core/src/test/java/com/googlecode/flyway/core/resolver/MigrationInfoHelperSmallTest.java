@@ -21,6 +21,7 @@ import com.googlecode.flyway.core.util.Pair;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Test for MigrationInfoHelper.
@@ -58,6 +59,30 @@ public class MigrationInfoHelperSmallTest {
         assertEquals("Big jump", description);
     }
 
+    @Test
+    public void extractSchemaVersionWithParallelGroup() {
+        Pair<MigrationVersion, String> info =
+                MigrationInfoHelper.extractVersionAndDescription("V9_4_PARALLEL_indexes__Big_jump.sql", "V", ".sql");
+        assertEquals("9.4", info.getLeft().toString());
+        assertEquals("Big jump", info.getRight());
+        assertEquals("indexes",
+                MigrationInfoHelper.extractParallelGroup("V9_4_PARALLEL_indexes__Big_jump.sql", "V", ".sql"));
+    }
+
+    @Test
+    public void extractSchemaVersionWithoutParallelGroup() {
+        assertNull(MigrationInfoHelper.extractParallelGroup("9_4__Big_jump", "", ""));
+        assertNull(MigrationInfoHelper.extractParallelGroup("9_4__parallel_indexes__Big_jump", "", ""));
+        assertNull(MigrationInfoHelper.extractParallelGroup("9_4__PARALLEL_indexes__Big_jump", "", ""));
+        assertEquals("parallel indexes  Big jump",
+                MigrationInfoHelper.extractVersionAndDescription("9_4__parallel_indexes__Big_jump", "", "").getRight());
+    }
+
+    @Test(expected = FlywayException.class)
+    public void extractSchemaVersionWithEmptyParallelGroup() {
+        MigrationInfoHelper.extractVersionAndDescription("9_4_PARALLEL___Big_jump", "", "");
+    }
+
     /**
      * Tests a schema version that includes a version with leading zeroes.
      */
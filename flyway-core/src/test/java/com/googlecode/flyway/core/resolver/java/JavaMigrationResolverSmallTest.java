@@ -19,6 +19,7 @@ import com.googlecode.flyway.core.resolver.ResolvedMigration;
 import com.googlecode.flyway.core.resolver.java.dummy.V2__InterfaceBasedMigration;
 import com.googlecode.flyway.core.resolver.java.dummy.Version3dot5;
 import com.googlecode.flyway.core.util.Location;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -36,7 +37,7 @@ public class JavaMigrationResolverSmallTest {
     @Test
     public void resolveMigrations() {
         JavaMigrationResolver javaMigrationResolver =
-                new JavaMigrationResolver(new Location("com/googlecode/flyway/core/resolver/java/dummy"));
+                new JavaMigrationResolver(new Location("com/googlecode/flyway/core/resolver/java/dummy"), new ClassPathScanner());
         Collection<ResolvedMigration> migrations = javaMigrationResolver.resolveMigrations();
 
         assertEquals(2, migrations.size());
@@ -57,7 +58,7 @@ public class JavaMigrationResolverSmallTest {
 
     @Test
     public void conventionOverConfiguration() {
-        JavaMigrationResolver javaMigrationResolver = new JavaMigrationResolver(null);
+        JavaMigrationResolver javaMigrationResolver = new JavaMigrationResolver(null, new ClassPathScanner());
         ResolvedMigration migrationInfo = javaMigrationResolver.extractMigrationInfo(new V2__InterfaceBasedMigration());
         assertEquals("2", migrationInfo.getVersion().toString());
         assertEquals("InterfaceBasedMigration", migrationInfo.getDescription());
@@ -66,7 +67,7 @@ public class JavaMigrationResolverSmallTest {
 
     @Test
     public void explicitInfo() {
-        JavaMigrationResolver javaMigrationResolver = new JavaMigrationResolver(null);
+        JavaMigrationResolver javaMigrationResolver = new JavaMigrationResolver(null, new ClassPathScanner());
         ResolvedMigration migrationInfo = javaMigrationResolver.extractMigrationInfo(new Version3dot5());
         assertEquals("3.5", migrationInfo.getVersion().toString());
         assertEquals("Three Dot Five", migrationInfo.getDescription());
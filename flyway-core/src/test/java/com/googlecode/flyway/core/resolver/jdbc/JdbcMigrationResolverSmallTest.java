@@ -20,6 +20,7 @@ import com.googlecode.flyway.core.resolver.ResolvedMigration;
 import com.googlecode.flyway.core.resolver.jdbc.dummy.V2__InterfaceBasedMigration;
 import com.googlecode.flyway.core.resolver.jdbc.dummy.Version3dot5;
 import com.googlecode.flyway.core.util.Location;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -36,13 +37,13 @@ import static org.junit.Assert.assertNull;
 public class JdbcMigrationResolverSmallTest {
     @Test(expected = FlywayException.class)
     public void broken() {
-        new JdbcMigrationResolver(new Location("com/googlecode/flyway/core/resolver/jdbc/error")).resolveMigrations();
+        new JdbcMigrationResolver(new Location("com/googlecode/flyway/core/resolver/jdbc/error"), new ClassPathScanner()).resolveMigrations();
     }
 
     @Test
     public void resolveMigrations() {
         JdbcMigrationResolver jdbcMigrationResolver =
-                new JdbcMigrationResolver(new Location("com/googlecode/flyway/core/resolver/jdbc/dummy"));
+                new JdbcMigrationResolver(new Location("com/googlecode/flyway/core/resolver/jdbc/dummy"), new ClassPathScanner());
         Collection<ResolvedMigration> migrations = jdbcMigrationResolver.resolveMigrations();
 
         assertEquals(3, migrations.size());
@@ -66,7 +67,7 @@ public class JdbcMigrationResolverSmallTest {
 
     @Test
     public void conventionOverConfiguration() {
-        JdbcMigrationResolver jdbcMigrationResolver = new JdbcMigrationResolver(null);
+        JdbcMigrationResolver jdbcMigrationResolver = new JdbcMigrationResolver(null, new ClassPathScanner());
         ResolvedMigration migrationInfo = jdbcMigrationResolver.extractMigrationInfo(new V2__InterfaceBasedMigration());
         assertEquals("2", migrationInfo.getVersion().toString());
         assertEquals("InterfaceBasedMigration", migrationInfo.getDescription());
@@ -75,7 +76,7 @@ public class JdbcMigrationResolverSmallTest {
 
     @Test
     public void explicitInfo() {
-        JdbcMigrationResolver jdbcMigrationResolver = new JdbcMigrationResolver(null);
+        JdbcMigrationResolver jdbcMigrationResolver = new JdbcMigrationResolver(null, new ClassPathScanner());
         ResolvedMigration migrationInfo = jdbcMigrationResolver.extractMigrationInfo(new Version3dot5());
         assertEquals("3.5", migrationInfo.getVersion().toString());
         assertEquals("Three Dot Five", migrationInfo.getDescription());
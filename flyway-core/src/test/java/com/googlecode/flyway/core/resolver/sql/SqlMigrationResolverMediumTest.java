@@ -19,20 +19,31 @@ import com.googlecode.flyway.core.dbsupport.h2.H2DbSupport;
 import com.googlecode.flyway.core.resolver.ResolvedMigration;
 import com.googlecode.flyway.core.util.Location;
 import com.googlecode.flyway.core.util.PlaceholderReplacer;
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Medium test for SqlMigrationResolver.
  */
 public class SqlMigrationResolverMediumTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test
     public void resolveMigrations() throws Exception {
@@ -40,7 +51,7 @@ public class SqlMigrationResolverMediumTest {
         String path = URLDecoder.decode(getClass().getClassLoader().getResource("migration/subdir").getPath(), "UTF-8");
 
         SqlMigrationResolver sqlMigrationResolver =
-                new SqlMigrationResolver(null, new Location("filesystem:" + path), PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "V", ".sql");
+                new SqlMigrationResolver(null, new Location("filesystem:" + path), PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "V", ".sql", 0, null, new ClassPathScanner(), null);
         Collection<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
 
         assertEquals(3, migrations.size());
@@ -56,4 +67,67 @@ public class SqlMigrationResolverMediumTest {
         assertEquals("V1_1__Populate_table.sql", migrationList.get(1).getScript());
         assertEquals("dir2/V2_0__Add_foreign_key.sql", migrationList.get(2).getScript());
     }
+
+    @Test
+    public void resolveMigrationsWithChecksumCache() throws Exception {
+        File migrationDir = temporaryFolder.newFolder("migrations");
+        File migrationFile = new File(migrationDir, "V1__First.sql");
+        writeFile(migrationFile, "CREATE TABLE t (i INT);");
+        File cacheFile = new File(temporaryFolder.getRoot(), "cache/checksums.properties");
+
+        int checksum = resolveSingleMigrationChecksum(migrationDir, cacheFile);
+        assertTrue(cacheFile.isFile());
+        // No temporary file is left behind
+        assertEquals(1, cacheFile.getParentFile().list().length);
+
+        // Tamper with the cached checksum to prove that the script is not read again as long as it is unchanged
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(cacheFile));
+        String key = (String) properties.keySet().iterator().next();
+        String entry = properties.getProperty(key);
+        properties.setProperty(key, entry.substring(0, entry.lastIndexOf('|') + 1) + (checksum + 1));
+        FileOutputStream outputStream = new FileOutputStream(cacheFile);
+        properties.store(outputStream, null);
+        outputStream.close();
+        assertEquals(checksum + 1, resolveSingleMigrationChecksum(migrationDir, cacheFile));
+
+        // Changing the script invalidates its entry
+        writeFile(migrationFile, "CREATE TABLE t (i INT, j INT);");
+        int newChecksum = resolveSingleMigrationChecksum(migrationDir, cacheFile);
+        assertEquals(newChecksum, resolveSingleMigrationChecksum(migrationDir, null));
+        assertTrue(newChecksum != checksum);
+    }
+
+    /**
+     * Resolves the single migration in this directory and returns its checksum.
+     *
+     * @param migrationDir The directory containing the migration.
+     * @param cacheFile    The checksum cache file to use. {@code null} for no cache.
+     * @return The checksum.
+     */
+    private int resolveSingleMigrationChecksum(File migrationDir, File cacheFile) {
+        SqlMigrationChecksumCache checksumCache = cacheFile == null ? null : new SqlMigrationChecksumCache(cacheFile);
+        SqlMigrationResolver sqlMigrationResolver =
+                new SqlMigrationResolver(null, new Location("filesystem:" + migrationDir.getAbsolutePath()),
+                        PlaceholderReplacer.NO_PLACEHOLDERS, "UTF-8", "V", ".sql", 0, checksumCache, new ClassPathScanner(), null);
+        List<ResolvedMigration> migrations = sqlMigrationResolver.resolveMigrations();
+        if (checksumCache != null) {
+            checksumCache.save();
+        }
+
+        assertEquals(1, migrations.size());
+        return migrations.get(0).getChecksum();
+    }
+
+    /**
+     * Writes this content to this file.
+     *
+     * @param file    The file to write.
+     * @param content The content to write.
+     */
+    private void writeFile(File file, String content) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(content.getBytes("UTF-8"));
+        outputStream.close();
+    }
 }
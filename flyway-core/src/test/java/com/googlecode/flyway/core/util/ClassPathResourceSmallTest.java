@@ -15,9 +15,13 @@
  */
 package com.googlecode.flyway.core.util;
 
+import com.googlecode.flyway.core.util.scanner.classpath.ClassPathScanner;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for ClassPathResource.
@@ -40,4 +44,31 @@ public class ClassPathResourceSmallTest {
         assertEquals("SELECT 1 FROM DUAL;",
                 new ClassPathResource("com/googlecode/flyway/core/util/utf8bom.nofilter").loadAsString("UTF-8"));
     }
+
+    @Test
+    public void getFingerprint() {
+        String fingerprint = new ClassPathResource("com/googlecode/flyway/core/util/utf8.nofilter").getFingerprint();
+        assertTrue(fingerprint.startsWith("file:19:"));
+        assertNull(new ClassPathResource("non/existing.sql").getFingerprint());
+    }
+
+    @Test
+    public void getFingerprintJar() {
+        String fingerprint = new ClassPathResource("org/junit/Test.class").getFingerprint();
+        assertTrue(fingerprint.startsWith("jar:"));
+    }
+
+    @Test
+    public void getFingerprintJarIndex() throws Exception {
+        Resource[] resources = new ClassPathScanner().scanForResources("org/junit", "", ".class");
+        Resource resource = null;
+        for (Resource candidate : resources) {
+            if ("org/junit/Test.class".equals(candidate.getLocation())) {
+                resource = candidate;
+            }
+        }
+
+        assertNotNull(resource);
+        assertEquals(new ClassPathResource("org/junit/Test.class").getFingerprint(), resource.getFingerprint());
+    }
 }
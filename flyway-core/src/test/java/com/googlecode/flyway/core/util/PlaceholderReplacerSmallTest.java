@@ -78,4 +78,20 @@ public class PlaceholderReplacerSmallTest {
         PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
         placeholderReplacer.replacePlaceholders(TEST_STR + TEST_STR);
     }
+
+    @Test
+    public void noPlaceholders() {
+        assertEquals(TEST_STR, PlaceholderReplacer.NO_PLACEHOLDERS.replacePlaceholders(TEST_STR));
+    }
+
+    @Test
+    public void placeholderAtBoundaries() {
+        Map<String, String> placeholders = new HashMap<String, String>();
+        placeholders.put("a", "1");
+        placeholders.put("b", "${a}");
+        PlaceholderReplacer placeholderReplacer = new PlaceholderReplacer(placeholders, "${", "}");
+
+        assertEquals("1${a}", placeholderReplacer.replacePlaceholders("${a}${b}"));
+        assertEquals("${x1 and ${\n}", placeholderReplacer.replacePlaceholders("${x${a} and ${\n}"));
+    }
 }
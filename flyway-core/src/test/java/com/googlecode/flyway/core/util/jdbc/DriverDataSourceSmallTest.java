@@ -0,0 +1,178 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.jdbc;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for DriverDataSource.
+ */
+public class DriverDataSourceSmallTest {
+    private final DriverDataSource dataSource = new DriverDataSource(null,
+            "jdbc:h2:mem:flyway_pool;DB_CLOSE_DELAY=-1", "sa", "", "SET @INIT_COUNT = COALESCE(@INIT_COUNT, 0) + 1");
+
+    @After
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void noPooling() throws Exception {
+        Connection connection = dataSource.getConnection();
+        execute(connection, "SET @MARKER = 42");
+        connection.close();
+        assertTrue(connection.isClosed());
+
+        connection = dataSource.getConnection();
+        assertNull(queryForObject(connection, "SELECT @MARKER"));
+        connection.close();
+    }
+
+    @Test
+    public void pooling() throws Exception {
+        dataSource.setPoolSize(1);
+
+        Connection connection = dataSource.getConnection();
+        execute(connection, "SET @MARKER = 42");
+        connection.setAutoCommit(false);
+        connection.close();
+        assertTrue(connection.isClosed());
+        try {
+            connection.createStatement();
+            fail();
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        connection = dataSource.getConnection();
+        assertEquals(42, ((Number) queryForObject(connection, "SELECT @MARKER")).intValue());
+        assertEquals(1, ((Number) queryForObject(connection, "SELECT @INIT_COUNT")).intValue());
+        assertTrue(connection.getAutoCommit());
+        connection.close();
+    }
+
+    @Test
+    public void poolFull() throws Exception {
+        dataSource.setPoolSize(1);
+
+        Connection connection1 = dataSource.getConnection();
+        Connection connection2 = dataSource.getConnection();
+        execute(connection1, "SET @MARKER = 1");
+        execute(connection2, "SET @MARKER = 2");
+        connection1.close();
+        connection2.close();
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, ((Number) queryForObject(connection, "SELECT @MARKER")).intValue());
+        Connection newConnection = dataSource.getConnection();
+        assertNull(queryForObject(newConnection, "SELECT @MARKER"));
+        newConnection.close();
+        connection.close();
+    }
+
+    @Test
+    public void idleEviction() throws Exception {
+        dataSource.setPoolSize(1);
+        dataSource.setMaxIdleTime(1);
+
+        Connection connection = dataSource.getConnection();
+        execute(connection, "SET @MARKER = 42");
+        connection.close();
+        Thread.sleep(10);
+
+        connection = dataSource.getConnection();
+        assertNull(queryForObject(connection, "SELECT @MARKER"));
+        connection.close();
+    }
+
+    @Test
+    public void invalidConnection() throws Exception {
+        // Separate database, as shutting it down would break the tests running in parallel
+        String url = "jdbc:h2:mem:flyway_pool_shutdown;DB_CLOSE_DELAY=-1";
+        DriverDataSource shutdownDataSource = new DriverDataSource(null, url, "sa", "");
+        shutdownDataSource.setPoolSize(1);
+        try {
+            Connection connection = shutdownDataSource.getConnection();
+            execute(connection, "SET @MARKER = 42");
+            connection.close();
+
+            Connection otherConnection = new DriverDataSource(null, url, "sa", "").getConnection();
+            execute(otherConnection, "SHUTDOWN");
+            otherConnection.close();
+
+            connection = shutdownDataSource.getConnection();
+            assertNull(queryForObject(connection, "SELECT @MARKER"));
+            connection.close();
+        } finally {
+            shutdownDataSource.close();
+        }
+    }
+
+    @Test
+    public void close() throws Exception {
+        dataSource.setPoolSize(1);
+
+        Connection connection = dataSource.getConnection();
+        execute(connection, "SET @MARKER = 42");
+        connection.close();
+        dataSource.close();
+
+        connection = dataSource.getConnection();
+        assertNull(queryForObject(connection, "SELECT @MARKER"));
+        connection.close();
+    }
+
+    /**
+     * Executes this statement.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute.
+     */
+    private void execute(Connection connection, String sql) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute(sql);
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Executes this query and returns the single value it produces.
+     *
+     * @param connection The connection to use.
+     * @param query      The query to execute.
+     * @return The value.
+     */
+    private Object queryForObject(Connection connection, String query) throws SQLException {
+        Statement statement = connection.createStatement();
+        try {
+            ResultSet resultSet = statement.executeQuery(query);
+            resultSet.next();
+            return resultSet.getObject(1);
+        } finally {
+            statement.close();
+        }
+    }
+}
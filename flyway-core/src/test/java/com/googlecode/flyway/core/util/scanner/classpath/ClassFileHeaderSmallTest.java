@@ -0,0 +1,81 @@
+/**
+ * Copyright 2010-2013 Axel Fontaine and the many contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.googlecode.flyway.core.util.scanner.classpath;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for ClassFileHeader.
+ */
+public class ClassFileHeaderSmallTest {
+    @Test
+    public void interfaceBased() throws Exception {
+        ClassFileHeader header = read("com/googlecode/flyway/core/resolver/jdbc/dummy/V2__InterfaceBasedMigration.class");
+
+        assertFalse(header.isAbstract());
+        assertEquals("java/lang/Object", header.getSuperClassName());
+        assertArrayEquals(new String[]{"com/googlecode/flyway/core/api/migration/jdbc/JdbcMigration"}, header.getInterfaceNames());
+    }
+
+    @Test
+    public void extendedAbstract() throws Exception {
+        ClassFileHeader header = read("com/googlecode/flyway/core/resolver/jdbc/dummy/V4__DummyExtendedAbstractJdbcMigration.class");
+
+        assertFalse(header.isAbstract());
+        assertEquals("com/googlecode/flyway/core/resolver/jdbc/dummy/DummyAbstractJdbcMigration", header.getSuperClassName());
+        assertEquals(0, header.getInterfaceNames().length);
+    }
+
+    @Test
+    public void abstractClass() throws Exception {
+        assertTrue(read("com/googlecode/flyway/core/resolver/jdbc/dummy/DummyAbstractJdbcMigration.class").isAbstract());
+    }
+
+    @Test
+    public void interfaceClass() throws Exception {
+        assertTrue(read("com/googlecode/flyway/core/api/migration/jdbc/JdbcMigration.class").isAbstract());
+    }
+
+    @Test
+    public void object() throws Exception {
+        assertEquals(null, read("java/lang/Object.class").getSuperClassName());
+    }
+
+    @Test(expected = IOException.class)
+    public void notAClassFile() throws Exception {
+        ClassFileHeader.read(new ByteArrayInputStream("CREATE TABLE test (id INT);".getBytes("UTF-8")));
+    }
+
+    /**
+     * Reads the header of this class file from the classpath.
+     *
+     * @param resourceName The name of the class file.
+     * @return The header.
+     */
+    private ClassFileHeader read(String resourceName) throws IOException {
+        InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resourceName);
+        return ClassFileHeader.read(inputStream);
+    }
+}
@@ -115,6 +115,18 @@ public class ClassPathScannerSmallTest {
         assertEquals("org/junit/AfterClass.class", resources[1].getLocation());
     }
 
+    @Test
+    public void scanForResourcesSharedScanner() throws Exception {
+        ClassPathScanner classPathScanner = new ClassPathScanner();
+
+        assertEquals(2, classPathScanner.scanForResources("org/junit", "Af", ".class").length);
+        assertEquals("org/junit/Before.class", classPathScanner.scanForResources("org/junit", "Bef", ".class")[0].getLocation());
+        assertEquals(new ClassPathScanner().scanForResources("org/junit/runner", "Runner", ".class").length,
+                classPathScanner.scanForResources("org/junit/runner", "Runner", ".class").length);
+        assertEquals(4, classPathScanner.scanForResources("migration/sql", "V", ".sql").length);
+        assertEquals(0, classPathScanner.scanForResources("migration/sql", "X", ".sql").length);
+    }
+
     @Test
     public void scanForClasses() throws Exception {
         Class<?>[] classes = new ClassPathScanner().scanForClasses("com/googlecode/flyway/core/resolver/jdbc/dummy", JdbcMigration.class);
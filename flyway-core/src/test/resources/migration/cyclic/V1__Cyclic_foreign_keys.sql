@@ -0,0 +1,32 @@
+--
+-- Copyright 2010-2013 Axel Fontaine and the many contributors.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--         http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+CREATE TABLE parent (id INT NOT NULL PRIMARY KEY, child_id INT);
+CREATE TABLE child (
+  id INT NOT NULL PRIMARY KEY,
+  parent_id INT,
+  CONSTRAINT fk_child_parent FOREIGN KEY (parent_id) REFERENCES parent(id)
+);
+ALTER TABLE parent ADD CONSTRAINT fk_parent_child FOREIGN KEY (child_id) REFERENCES child(id);
+CREATE TABLE grandchild (
+  id INT NOT NULL PRIMARY KEY,
+  child_id INT NOT NULL,
+  CONSTRAINT fk_grandchild_child FOREIGN KEY (child_id) REFERENCES child(id)
+);
+
+INSERT INTO parent (id, child_id) VALUES (1, NULL);
+INSERT INTO child (id, parent_id) VALUES (1, 1);
+UPDATE parent SET child_id = 1;
+INSERT INTO grandchild (id, child_id) VALUES (1, 1);
@@ -0,0 +1,19 @@
+--
+-- Copyright 2010-2013 Axel Fontaine and the many contributors.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--         http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+INSERT INTO test_user (name, id) VALUES ('Seed 1', 1);
+INSERT INTO test_user (name, id) VALUES ('Seed 2', 2);
+INSERT INTO test_user (name, id) VALUES ('Seed 3', 3);
+INSERT INTO couple (id, name1, name2) VALUES (1, 'Seed 1', 'Seed 2');